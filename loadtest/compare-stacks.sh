@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Holds CONNECTIONS concurrent clients (high-concurrency.js) against the servlet stack, the servlet stack on
+# virtual threads and the reactive stack. MongoDB latency is added by a toxiproxy in front of MongoDB, so all
+# three stacks see the same network delay. Needs a local MongoDB, toxiproxy-server/toxiproxy-cli, k6, jq and a
+# JDK 21 build of build/libs/app.jar.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+MONGODB_HOST=${MONGODB_HOST:-localhost:27017}
+LATENCY_MS=${LATENCY_MS:-20}
+CONNECTIONS=${CONNECTIONS:-5000}
+JAR=../build/libs/app.jar
+mkdir -p results
+
+toxiproxy-server > results/toxiproxy.log 2>&1 &
+proxy=$!
+trap 'kill $proxy' EXIT
+sleep 1
+toxiproxy-cli create -l localhost:27018 -u "$MONGODB_HOST" mongo
+toxiproxy-cli toxic add -t latency -a latency="$LATENCY_MS" mongo
+
+for stack in servlet servlet-virtual reactive; do
+  case $stack in
+    servlet) profiles="no-cache" ;;
+    servlet-virtual) profiles="no-cache,virtual-threads" ;;
+    reactive) profiles="no-cache,reactive" ;;
+  esac
+  echo "== $stack, $CONNECTIONS connections, ${LATENCY_MS} ms MongoDB latency"
+  java -jar "$JAR" \
+    --spring.profiles.active="$profiles" \
+    --spring.data.mongodb.uri="mongodb://localhost:27018/verto-loadtest?directConnection=true&maxPoolSize=500" \
+    --logging.level.org.aayush=WARN > "results/app-$stack.log" 2>&1 &
+  app=$!
+  until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+  CONNECTIONS=$CONNECTIONS k6 run --quiet --summary-export "results/stack-$stack.json" high-concurrency.js || true
+
+  kill "$app"
+  wait "$app" || true
+done
+
+for summary in results/stack-*.json; do
+  printf '%-22s %s\n' "$(basename "$summary" .json)" \
+    "$(jq -r '"rps=\(.metrics.http_reqs.rate|floor) p99=\(.metrics.http_req_duration["p(99)"]|floor)ms failed=\(.metrics.http_req_failed.value)"' "$summary")"
+done
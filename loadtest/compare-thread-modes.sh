@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Runs stock-requests.js against platform-thread and virtual-thread request handling at several
+# simulated MongoDB latencies and writes one k6 summary per run to loadtest/results.
+# Needs a local MongoDB, k6, and a JDK 21 build of build/libs/app.jar.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+MONGODB_URI=${MONGODB_URI:-mongodb://localhost:27017/verto-loadtest}
+LATENCIES=${LATENCIES:-"1 5 20 50"}
+JAR=../build/libs/app.jar
+mkdir -p results
+
+for mode in platform virtual; do
+  profiles="no-cache,simulated-latency"
+  if [ "$mode" = virtual ]; then
+    profiles="$profiles,virtual-threads"
+  fi
+  for latency in $LATENCIES; do
+    echo "== $mode threads, ${latency} ms MongoDB latency"
+    java -jar "$JAR" \
+      --spring.profiles.active="$profiles" \
+      --spring.data.mongodb.uri="$MONGODB_URI" \
+      --warehouse.simulated-latency.mongo-ms="$latency" > "results/app-$mode-$latency.log" 2>&1 &
+    app=$!
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+    k6 run --quiet --summary-export "results/$mode-${latency}ms.json" stock-requests.js || true
+
+    kill "$app"
+    wait "$app" || true
+  done
+done
+
+for summary in results/*ms.json; do
+  printf '%-22s %s\n' "$(basename "$summary" .json)" \
+    "$(jq -r '"rps=\(.metrics.http_reqs.rate|floor) p99=\(.metrics.http_req_duration["p(99)"]|floor)ms failed=\(.metrics.http_req_failed.value)"' "$summary")"
+done
@@ -0,0 +1,26 @@
+import stockRequest, { setup as createProducts } from './stock-requests.js';
+
+const CONNECTIONS = parseInt(__ENV.CONNECTIONS || '5000');
+
+export const options = {
+    scenarios: {
+        connections: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: CONNECTIONS },
+                { duration: __ENV.HOLD || '60s', target: CONNECTIONS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    return createProducts();
+}
+
+export default function (data) {
+    stockRequest(data);
+}
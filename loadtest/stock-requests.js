@@ -0,0 +1,54 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PRODUCTS = parseInt(__ENV.PRODUCTS || '200');
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        stock_requests: {
+            executor: 'constant-arrival-rate',
+            rate: parseInt(__ENV.RATE || '2000'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: parseInt(__ENV.VUS || '500'),
+            maxVUs: parseInt(__ENV.MAX_VUS || '2000'),
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const run = Date.now();
+    const ids = [];
+    for (let i = 0; i < PRODUCTS; i++) {
+        const res = http.post(`${BASE_URL}/product/create`, JSON.stringify({
+            productName: `load-${run}-${i}`,
+            productDesc: 'Load test product',
+            availableQty: 1000000,
+            enableLowStockThreshold: true,
+            lowStockThreshold: 10,
+        }), JSON_HEADERS);
+        ids.push(res.json('productId'));
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/product/${id}`, { tags: { name: 'get-product' } });
+    } else if (roll < 0.75) {
+        res = http.post(`${BASE_URL}/inventory/${id}/decrease-stock`, JSON.stringify({ amount: 1 }),
+            Object.assign({ tags: { name: 'decrease-stock' } }, JSON_HEADERS));
+    } else if (roll < 0.95) {
+        res = http.post(`${BASE_URL}/inventory/${id}/add-stock`, JSON.stringify({ amount: 1 }),
+            Object.assign({ tags: { name: 'add-stock' } }, JSON_HEADERS));
+    } else {
+        res = http.get(`${BASE_URL}/product/low-stock`, { tags: { name: 'low-stock' } });
+    }
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,112 @@
+package org.aayush.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.controller.WarehouseExceptionHandler;
+import org.aayush.exception.WarehouseException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ErrorResponse;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.service.InventoryService;
+import org.aayush.service.impl.HotStockCoalescer;
+import org.aayush.service.impl.InventoryServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insufficient-stock requests end to end from service to error response, in memory. {@code stacklessException}
+ * is the current path; {@code messageMatchedException} replays the previous one, where the service threw a
+ * plain exception with a formatted message and the controller matched on its prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FailurePathBenchmark {
+
+    private static final int REQUESTED = 5;
+
+    private RepositoryFixture fixture;
+    private InventoryService inventoryService;
+    private WarehouseExceptionHandler exceptionHandler;
+    private String productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(RepositoryFixture.IN_MEMORY, "failure-path");
+        inventoryService = new InventoryServiceImpl(fixture.inventoryRepo, event -> { },
+                new HotStockCoalescer(fixture.inventoryRepo, false, 0, 0, 0, 0, ""),
+                new ReadCoalescer(false, new SimpleMeterRegistry()));
+        exceptionHandler = new WarehouseExceptionHandler();
+        productId = fixture.productRepo.saveProduct(Product.builder()
+                .productName("Sold out")
+                .productDesc("Always short of stock")
+                .availableQty(1)
+                .enableLowStockThreshold(false)
+                .build()).getProductId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> stacklessException() {
+        try {
+            return ResponseEntity.ok(inventoryService.decreaseStock(productId, REQUESTED));
+        } catch (WarehouseException e) {
+            return exceptionHandler.handleWarehouseException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> messageMatchedException() {
+        try {
+            return ResponseEntity.ok(legacyDecreaseStock(fixture.inventoryRepo, productId, REQUESTED));
+        } catch (RuntimeException e) {
+            if (e.getMessage().startsWith("Product not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ErrorResponse.builder()
+                                .errorCode("PRODUCT_NOT_FOUND")
+                                .message(e.getMessage())
+                                .build());
+            }
+            if (e.getMessage().startsWith("Insufficient stock")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ErrorResponse.builder()
+                                .errorCode("INSUFFICIENT_STOCK")
+                                .message(e.getMessage())
+                                .build());
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.builder()
+                            .errorCode("INVALID_STOCK_OPERATION")
+                            .message(e.getMessage())
+                            .build());
+        }
+    }
+
+    private static Product legacyDecreaseStock(InventoryRepo inventoryRepo, String productId, Integer stockAmount) {
+        Product updatedProduct = inventoryRepo.decreaseStock(productId, stockAmount);
+        if (updatedProduct == null) {
+            Product product = inventoryRepo.findProductById(productId);
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + productId);
+            }
+            throw new IllegalArgumentException("Insufficient stock available. Requested: " + stockAmount
+                    + ", Available: " + product.getAvailableQty());
+        }
+        return updatedProduct;
+    }
+}
@@ -0,0 +1,147 @@
+package org.aayush.benchmark;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.models.dto.StockAdjustmentStatus;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.repository.impl.StockUpdates;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed {@link InventoryRepo} with the same guards as {@code InventoryRepoImpl}: a stock change that
+ * would overflow or go negative returns null, and every change replaces the stored product atomically and
+ * bumps its version. Keyed changes are recorded per product and key, and a change whose key is recorded returns null.
+ */
+class InMemoryInventoryRepo implements InventoryRepo {
+
+    private final Map<String, Product> products;
+    private final Map<String, Integer> allocations = new ConcurrentHashMap<>();
+    private final Map<String, KeyedStockChange> keyedChanges = new ConcurrentHashMap<>();
+
+    InMemoryInventoryRepo(Map<String, Product> products) {
+        this.products = products;
+    }
+
+    @Override
+    public Product addStock(String productId, Integer stockAmount) {
+        return applyDelta(productId, stockAmount);
+    }
+
+    @Override
+    public Product grantAllocation(String productId, String allocationId, Integer quantity) {
+        Product product = applyDelta(productId, -quantity);
+        if (product != null) {
+            allocations.merge(allocationId, quantity, Integer::sum);
+        }
+        return product;
+    }
+
+    @Override
+    public Product returnAllocation(String productId, String allocationId, long consumed) {
+        Integer granted = allocations.remove(allocationId);
+        return granted != null ? applyDelta(productId, (int) Math.max(0, granted - consumed)) : null;
+    }
+
+    @Override
+    public Product decreaseStock(String productId, Integer stockAmount) {
+        return applyDelta(productId, -stockAmount);
+    }
+
+    @Override
+    public Product addStock(String productId, Integer stockAmount, String idempotencyKey) {
+        return applyKeyedDelta(productId, stockAmount, idempotencyKey);
+    }
+
+    @Override
+    public Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey) {
+        return applyKeyedDelta(productId, -stockAmount, idempotencyKey);
+    }
+
+    @Override
+    public KeyedStockChange findKeyedChange(String productId, String idempotencyKey) {
+        return keyedChanges.get(productId + ":" + idempotencyKey);
+    }
+
+    @Override
+    public Product findProductById(String productId) {
+        return products.get(productId);
+    }
+
+    @Override
+    public synchronized Map<String, StockAdjustmentOutcome> adjustStock(Map<String, Integer> deltas) {
+        Map<String, StockAdjustmentOutcome> outcome = new HashMap<>();
+        deltas.forEach((productId, delta) -> {
+            StockAdjustmentStatus status = check(productId, delta);
+            outcome.put(productId, status == StockAdjustmentStatus.APPLIED
+                    ? StockAdjustmentOutcome.applied(applyDelta(productId, delta))
+                    : StockAdjustmentOutcome.failed(status));
+        });
+        return outcome;
+    }
+
+    @Override
+    public synchronized Map<String, StockAdjustmentOutcome> adjustStockAtomically(Map<String, Integer> deltas) {
+        Map<String, StockAdjustmentStatus> statuses = new HashMap<>();
+        deltas.forEach((productId, delta) -> statuses.put(productId, check(productId, delta)));
+        boolean rejected = statuses.values().stream().anyMatch(status -> status != StockAdjustmentStatus.APPLIED);
+        Map<String, StockAdjustmentOutcome> outcome = new HashMap<>();
+        statuses.forEach((productId, status) -> outcome.put(productId, rejected
+                ? StockAdjustmentOutcome.failed(status == StockAdjustmentStatus.APPLIED ? StockAdjustmentStatus.ROLLED_BACK : status)
+                : StockAdjustmentOutcome.applied(applyDelta(productId, deltas.get(productId)))));
+        return outcome;
+    }
+
+    private StockAdjustmentStatus check(String productId, int delta) {
+        Product product = products.get(productId);
+        if (product == null) {
+            return StockAdjustmentStatus.NOT_FOUND;
+        }
+        if (!withinLimits(product.getAvailableQty(), delta)) {
+            return delta < 0 ? StockAdjustmentStatus.INSUFFICIENT_STOCK : StockAdjustmentStatus.LIMIT_EXCEEDED;
+        }
+        return StockAdjustmentStatus.APPLIED;
+    }
+
+    private synchronized Product applyKeyedDelta(String productId, int delta, String idempotencyKey) {
+        String recordKey = productId + ":" + idempotencyKey;
+        if (keyedChanges.containsKey(recordKey)) {
+            return null;
+        }
+        Product product = applyDelta(productId, delta);
+        if (product != null) {
+            keyedChanges.put(recordKey, new KeyedStockChange(delta, product));
+        }
+        return product;
+    }
+
+    private Product applyDelta(String productId, int delta) {
+        Product[] updated = new Product[1];
+        products.computeIfPresent(productId, (id, product) -> {
+            if (!withinLimits(product.getAvailableQty(), delta)) {
+                return product;
+            }
+            int availableQty = product.getAvailableQty() + delta;
+            updated[0] = Product.builder()
+                    .productId(id)
+                    .productName(product.getProductName())
+                    .productDesc(product.getProductDesc())
+                    .availableQty(availableQty)
+                    .enableLowStockThreshold(product.getEnableLowStockThreshold())
+                    .lowStockThreshold(product.getLowStockThreshold())
+                    .belowThreshold(StockUpdates.isBelowThreshold(
+                            product.getEnableLowStockThreshold(), availableQty, product.getLowStockThreshold()))
+                    .version(product.getVersion() != null ? product.getVersion() + 1 : 1L)
+                    .build();
+            return updated[0];
+        });
+        return updated[0];
+    }
+
+    private static boolean withinLimits(int availableQty, int delta) {
+        return delta >= 0 ? availableQty <= Integer.MAX_VALUE - delta : availableQty >= -delta;
+    }
+}
@@ -0,0 +1,208 @@
+package org.aayush.benchmark;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductSummary;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.repository.ProductRepo;
+import org.aayush.repository.impl.StockUpdates;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Map-backed {@link ProductRepo} that keeps the contract of {@code ProductRepoImpl}
+ * (generated ids, unique names, the low stock flag) without any I/O.
+ */
+class InMemoryProductRepo implements ProductRepo {
+
+    private final Map<String, Product> products;
+    private final Map<String, String> productIdsByName = new ConcurrentHashMap<>();
+
+    InMemoryProductRepo(Map<String, Product> products) {
+        this.products = products;
+    }
+
+    @Override
+    public synchronized Product saveProduct(Product product) {
+        Product existing = findProductByName(product.getProductName());
+        if (existing != null && !existing.getProductId().equals(product.getProductId())) {
+            throw new DuplicateKeyException("Duplicate productName: " + product.getProductName());
+        }
+        if (product.getProductId() == null) {
+            product.setProductId(new ObjectId().toHexString());
+        }
+        product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+        if (product.getVersion() == null) {
+            product.setVersion(0L);
+        }
+        Product previous = products.put(product.getProductId(), product);
+        if (previous != null) {
+            productIdsByName.remove(previous.getProductName());
+        }
+        productIdsByName.put(product.getProductName(), product.getProductId());
+        return product;
+    }
+
+    @Override
+    public Product findProductById(String productId) {
+        return products.get(productId);
+    }
+
+    @Override
+    public Product findCurrentProduct(String productId) {
+        return products.get(productId);
+    }
+
+    @Override
+    public Map<String, Product> findProductsByIds(Collection<String> productIds) {
+        return productIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Product::getProductId, product -> product, (first, second) -> first));
+    }
+
+    @Override
+    public boolean deleteProduct(Product product) {
+        return deleteByProductId(product.getProductId());
+    }
+
+    @Override
+    public synchronized boolean deleteByProductId(String productId) {
+        Product removed = products.remove(productId);
+        if (removed == null) {
+            return false;
+        }
+        productIdsByName.remove(removed.getProductName());
+        return true;
+    }
+
+    /**
+     * Applies the non-null fields if the stored version matches, replacing the stored product atomically
+     * against the stock changes of {@link InMemoryInventoryRepo}.
+     */
+    @Override
+    public synchronized Product updateProductDetails(Product product) {
+        Product existing = product.getProductName() != null ? findProductByName(product.getProductName()) : null;
+        if (existing != null && !existing.getProductId().equals(product.getProductId())) {
+            throw new DuplicateKeyException("Duplicate productName: " + product.getProductName());
+        }
+        Product[] updated = new Product[1];
+        String[] previousName = new String[1];
+        products.computeIfPresent(product.getProductId(), (id, stored) -> {
+            if (!Objects.equals(stored.getVersion(), product.getVersion())) {
+                return stored;
+            }
+            previousName[0] = stored.getProductName();
+            Product merged = Product.builder()
+                    .productId(id)
+                    .productName(product.getProductName() != null ? product.getProductName() : stored.getProductName())
+                    .productDesc(product.getProductDesc() != null ? product.getProductDesc() : stored.getProductDesc())
+                    .availableQty(product.getAvailableQty() != null ? product.getAvailableQty() : stored.getAvailableQty())
+                    .enableLowStockThreshold(product.getEnableLowStockThreshold() != null
+                            ? product.getEnableLowStockThreshold() : stored.getEnableLowStockThreshold())
+                    .lowStockThreshold(product.getLowStockThreshold() != null
+                            ? product.getLowStockThreshold() : stored.getLowStockThreshold())
+                    .version(stored.getVersion() + 1)
+                    .build();
+            merged.setBelowThreshold(StockUpdates.isBelowThreshold(merged));
+            updated[0] = merged;
+            return merged;
+        });
+        if (updated[0] != null && previousName[0] != null && !previousName[0].equals(updated[0].getProductName())) {
+            productIdsByName.remove(previousName[0]);
+            productIdsByName.put(updated[0].getProductName(), updated[0].getProductId());
+        }
+        return updated[0];
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return List.copyOf(products.values());
+    }
+
+    @Override
+    public List<ProductSummary> getAllProductSummaries() {
+        return products.values().stream().map(ProductSummary::of).toList();
+    }
+
+    @Override
+    public List<StockAvailability> getAllProductAvailability() {
+        return products.values().stream().map(StockAvailability::of).toList();
+    }
+
+    @Override
+    public List<Product> findProductsAfter(String afterProductId, int limit) {
+        return products.values().stream()
+                .filter(product -> afterProductId == null || product.getProductId().compareTo(afterProductId) > 0)
+                .sorted(Comparator.comparing(Product::getProductId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<Product> streamAllProducts() {
+        return products.values().stream().sorted(Comparator.comparing(Product::getProductId));
+    }
+
+    @Override
+    public String findChunkEnd(String afterProductId, int chunkSize) {
+        return streamProductsBetween(afterProductId, null)
+                .skip(chunkSize - 1L)
+                .findFirst()
+                .map(Product::getProductId)
+                .orElse(null);
+    }
+
+    @Override
+    public Stream<Product> streamProductsBetween(String afterProductId, String upToProductId) {
+        return streamAllProducts()
+                .filter(product -> afterProductId == null || product.getProductId().compareTo(afterProductId) > 0)
+                .filter(product -> upToProductId == null || product.getProductId().compareTo(upToProductId) <= 0);
+    }
+
+    @Override
+    public List<Product> findProductsBelowThreshold() {
+        return products.values().stream()
+                .filter(product -> Boolean.TRUE.equals(product.getBelowThreshold()))
+                .toList();
+    }
+
+    @Override
+    public long backfillBelowThreshold() {
+        return 0;
+    }
+
+    @Override
+    public Product findProductByName(String productName) {
+        String productId = productIdsByName.get(productName);
+        return productId != null ? products.get(productId) : null;
+    }
+
+    @Override
+    public Set<String> findExistingProductNames(Collection<String> productNames) {
+        return productNames.stream().filter(productIdsByName::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public synchronized Set<Integer> insertProducts(List<Product> products) {
+        Set<Integer> duplicates = new HashSet<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (productIdsByName.containsKey(products.get(i).getProductName())) {
+                duplicates.add(i);
+            } else {
+                saveProduct(products.get(i));
+            }
+        }
+        return duplicates;
+    }
+}
@@ -0,0 +1,67 @@
+package org.aayush.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.models.Product;
+import org.aayush.service.InventoryService;
+import org.aayush.service.impl.HotStockCoalescer;
+import org.aayush.service.impl.InventoryServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryServiceBenchmark {
+
+    @Param({RepositoryFixture.IN_MEMORY, RepositoryFixture.MONGO})
+    public String backend;
+
+    @Param("1000")
+    public int products;
+
+    private RepositoryFixture fixture;
+    private InventoryService inventoryService;
+    private List<String> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(backend, "inventory");
+        inventoryService = new InventoryServiceImpl(fixture.inventoryRepo, event -> { },
+                new HotStockCoalescer(fixture.inventoryRepo, false, 0, 0, 0, 0, ""),
+                new ReadCoalescer(false, new SimpleMeterRegistry()));
+        // No low stock rows: decreaseStock would fail on the quantity of 1 they are seeded with.
+        productIds = fixture.seedProducts(products, Integer.MAX_VALUE, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Product addStock() {
+        return inventoryService.addStock(randomProductId(), 1);
+    }
+
+    @Benchmark
+    public Product decreaseStock() {
+        return inventoryService.decreaseStock(randomProductId(), 1);
+    }
+
+    private String randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+}
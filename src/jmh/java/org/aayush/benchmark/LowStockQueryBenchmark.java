@@ -0,0 +1,87 @@
+package org.aayush.benchmark;
+
+import org.aayush.models.Product;
+import org.aayush.repository.impl.StockUpdates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old {@code $expr} aggregation, which has to scan every product with the threshold enabled,
+ * with the lookup on the partial {@code belowThreshold} index. MongoDB only; one product in 100 is low on stock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class LowStockQueryBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param("1000000")
+    public int products;
+
+    private RepositoryFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(RepositoryFixture.MONGO, "low-stock");
+        List<Product> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < products; i++) {
+            int availableQty = i % 100 == 0 ? 1 : 100;
+            batch.add(Product.builder()
+                    .productName("Product " + i)
+                    .productDesc("Benchmark product " + i)
+                    .availableQty(availableQty)
+                    .enableLowStockThreshold(true)
+                    .lowStockThreshold(10)
+                    .belowThreshold(StockUpdates.isBelowThreshold(true, availableQty, 10))
+                    .build());
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                fixture.mongoTemplate.insert(batch, Product.class);
+                batch.clear();
+            }
+        }
+        fixture.mongoTemplate.insert(batch, Product.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<Product> exprAggregationScan() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("enableLowStockThreshold").is(true)),
+                Aggregation.match(Criteria.expr(
+                        ComparisonOperators.Lt.valueOf("$availableQty").lessThan("$lowStockThreshold")
+                ))
+        );
+        return fixture.mongoTemplate.aggregate(aggregation, Product.class, Product.class).getMappedResults();
+    }
+
+    @Benchmark
+    public List<Product> indexedFlagLookup() {
+        return fixture.productRepo.findProductsBelowThreshold();
+    }
+}
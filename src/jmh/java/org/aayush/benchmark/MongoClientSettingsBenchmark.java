@@ -0,0 +1,99 @@
+package org.aayush.benchmark;
+
+import com.mongodb.ReadPreference;
+import org.aayush.config.MongoClientTuning;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and write throughput of the repositories under the MongoDB client settings: six threads read products
+ * by id and the low-stock list while two add stock. Point {@code -PbenchmarkMongoUri} at a replica set, for
+ * example {@code mongodb://localhost:27017,localhost:27018,localhost:27019/?replicaSet=rs0}; against a
+ * standalone server {@code secondaryPreferred} reads and {@code majority} writes behave like the defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MongoClientSettingsBenchmark {
+
+    @Param({"primary", "secondaryPreferred"})
+    public String readPreference;
+
+    @Param({"w1", "majority"})
+    public String writeConcern;
+
+    @Param({"10", "100"})
+    public int maxPoolSize;
+
+    private RepositoryFixture fixture;
+    private List<String> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ReadPreference reads = ProductReadPreferences.parse(readPreference, 90);
+        fixture = RepositoryFixture.createMongo("client-settings", MongoClientTuning.builder()
+                        .minPoolSize(0)
+                        .maxPoolSize(maxPoolSize)
+                        .maxWaitMillis(10_000)
+                        .maxIdleMillis(60_000)
+                        .connectTimeoutMillis(5_000)
+                        .readTimeoutMillis(0)
+                        .serverSelectionTimeoutMillis(5_000)
+                        .writeConcern(MongoClientTuning.writeConcern(writeConcern, 5_000))
+                        .build(),
+                new ProductReadPreferences(reads, reads));
+        productIds = fixture.seedProducts(1000, 10, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Product findProductById() {
+        return fixture.productRepo.findProductById(randomProductId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<Product> findProductsBelowThreshold() {
+        return fixture.productRepo.findProductsBelowThreshold();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Product addStock() {
+        return fixture.inventoryRepo.addStock(randomProductId(), 1);
+    }
+
+    private String randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+}
@@ -0,0 +1,122 @@
+package org.aayush.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.exception.ProductVersionConflictException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.service.InventoryService;
+import org.aayush.service.ProductService;
+import org.aayush.service.impl.HotStockCoalescer;
+import org.aayush.service.impl.InventoryServiceImpl;
+import org.aayush.service.impl.ProductServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.aayush.service.impl.VersionConflictRetry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One editor changing product descriptions while three stock writers add stock to the same {@code hotProducts}
+ * products, so every stock write moves the version the editor works against. {@code UNVERSIONED} edits are
+ * based on the product as the service reads it and retried on conflict; {@code VERSIONED} edits send the version
+ * read just before and fail instead. Besides the throughput of both sides, the {@code retries} and
+ * {@code conflicts} counters give the retries and the failed edits per iteration.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductContentionBenchmark {
+
+    public static final String UNVERSIONED = "UNVERSIONED";
+    public static final String VERSIONED = "VERSIONED";
+
+    @Param({RepositoryFixture.IN_MEMORY, RepositoryFixture.MONGO})
+    public String backend;
+
+    @Param({"1", "100"})
+    public int hotProducts;
+
+    @Param({UNVERSIONED, VERSIONED})
+    public String edits;
+
+    private RepositoryFixture fixture;
+    private ProductService productService;
+    private InventoryService inventoryService;
+    private List<String> productIds;
+    private Counter retries;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class EditOutcomes {
+        public long retries;
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(backend, "contention");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        retries = meterRegistry.counter(VersionConflictRetry.RETRIES_METRIC);
+        productService = new ProductServiceImpl(fixture.productRepo, new VersionConflictRetry(5, 1, 20, meterRegistry),
+                new ReadCoalescer(false, meterRegistry), event -> { });
+        inventoryService = new InventoryServiceImpl(fixture.inventoryRepo, event -> { },
+                new HotStockCoalescer(fixture.inventoryRepo, false, 0, 0, 0, 0, ""),
+                new ReadCoalescer(false, meterRegistry));
+        productIds = fixture.seedProducts(hotProducts, Integer.MAX_VALUE, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    /**
+     * Retries are read from the shared counter around the call; with a single editor thread they are all its own.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Product editDetails(EditOutcomes outcomes) {
+        String productId = randomProductId();
+        Long version = VERSIONED.equals(edits) ? productService.findProductById(productId).getVersion() : null;
+        double retriesBefore = retries.count();
+        try {
+            return productService.updateProductDetails(ProductUpdateRequest.builder()
+                    .productId(productId)
+                    .productDesc("Edited " + ThreadLocalRandom.current().nextInt())
+                    .version(version)
+                    .build());
+        } catch (ProductVersionConflictException e) {
+            outcomes.conflicts++;
+            return null;
+        } finally {
+            outcomes.retries += (long) (retries.count() - retriesBefore);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Product addStock() {
+        return inventoryService.addStock(randomProductId(), 1);
+    }
+
+    private String randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+}
@@ -0,0 +1,121 @@
+package org.aayush.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductLookupResponse;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.service.ProductService;
+import org.aayush.service.impl.ProductServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.aayush.service.impl.VersionConflictRetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads run against a fixed catalogue of {@code products} items, a tenth of them below threshold.
+ * Created products go to a separate fixture so the catalogue size stays fixed while reads are measured.
+ * The lookup benchmarks resolve the availability of a {@code cartSize} cart with one call or one call per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+
+    @Param({RepositoryFixture.IN_MEMORY, RepositoryFixture.MONGO})
+    public String backend;
+
+    @Param("1000")
+    public int products;
+
+    @Param("100")
+    public int cartSize;
+
+    private final AtomicLong createdProducts = new AtomicLong();
+
+    private RepositoryFixture catalogue;
+    private RepositoryFixture writes;
+    private ProductService catalogueService;
+    private ProductService writeService;
+    private List<String> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalogue = RepositoryFixture.create(backend, "catalogue");
+        productIds = catalogue.seedProducts(products, 10, 100);
+        catalogueService = new ProductServiceImpl(catalogue.productRepo, new VersionConflictRetry(5, 5, 100, new SimpleMeterRegistry()),
+                new ReadCoalescer(false, new SimpleMeterRegistry()), event -> { });
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpWrites() {
+        writes = RepositoryFixture.create(backend, "writes");
+        writeService = new ProductServiceImpl(writes.productRepo, new VersionConflictRetry(5, 5, 100, new SimpleMeterRegistry()),
+                new ReadCoalescer(false, new SimpleMeterRegistry()), event -> { });
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownWrites() {
+        writes.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalogue.close();
+    }
+
+    @Benchmark
+    public Product createAndSaveProduct() {
+        long n = createdProducts.incrementAndGet();
+        return writeService.createAndSaveProduct(ProductCreateRequest.builder()
+                .productName("Created " + n)
+                .productDesc("Created by benchmark")
+                .availableQty(50)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(10)
+                .build());
+    }
+
+    @Benchmark
+    public List<Product> getAllProducts() {
+        return catalogueService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<Product> findProductsBelowThreshold() {
+        return catalogueService.findProductsBelowThreshold();
+    }
+
+    @Benchmark
+    public ProductLookupResponse lookupAvailability() {
+        return catalogueService.lookupAvailability(randomCart());
+    }
+
+    @Benchmark
+    public List<StockAvailability> findProductAvailabilityPerItem() {
+        List<StockAvailability> availability = new ArrayList<>(cartSize);
+        for (String productId : randomCart()) {
+            availability.add(catalogueService.findProductAvailability(productId));
+        }
+        return availability;
+    }
+
+    private List<String> randomCart() {
+        int start = ThreadLocalRandom.current().nextInt(productIds.size() - cartSize);
+        return productIds.subList(start, start + cartSize);
+    }
+}
@@ -0,0 +1,79 @@
+package org.aayush.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.models.dto.ProductView;
+import org.aayush.service.ProductService;
+import org.aayush.service.impl.ProductServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.aayush.service.impl.VersionConflictRetry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /product/all} per view: the repository read plus JSON encoding of the response body. The
+ * {@code responseBytes} counter is the size of the last encoded response, so it reads as bytes per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductViewBenchmark {
+
+    @Param({RepositoryFixture.IN_MEMORY, RepositoryFixture.MONGO})
+    public String backend;
+
+    @Param({"FULL", "SUMMARY", "AVAILABILITY"})
+    public ProductView view;
+
+    @Param("1000")
+    public int products;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RepositoryFixture fixture;
+    private ProductService productService;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ResponseSize {
+        public long responseBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(backend, "views");
+        fixture.seedProducts(products, 10, 100);
+        productService = new ProductServiceImpl(fixture.productRepo, new VersionConflictRetry(5, 5, 100, new SimpleMeterRegistry()),
+                new ReadCoalescer(false, new SimpleMeterRegistry()), event -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public byte[] getAllProducts(ResponseSize size) throws JsonProcessingException {
+        List<?> body = switch (view) {
+            case FULL -> productService.getAllProducts();
+            case SUMMARY -> productService.getAllProductSummaries();
+            case AVAILABILITY -> productService.getAllProductAvailability();
+        };
+        byte[] response = objectMapper.writeValueAsBytes(body);
+        size.responseBytes = response.length;
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package org.aayush.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.models.Product;
+import org.aayush.service.ProductService;
+import org.aayush.service.impl.ProductServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.aayush.service.impl.VersionConflictRetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A launch-day read burst: 64 threads read the same product and the low-stock list, with and without
+ * single-flight. The product repository has no cache here, so every uncoalesced read is a MongoDB query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class ReadCoalescingBenchmark {
+
+    @Param({RepositoryFixture.MONGO})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    private RepositoryFixture fixture;
+    private ProductService productService;
+    private String hotProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = RepositoryFixture.create(backend, "coalescing");
+        hotProductId = fixture.seedProducts(1000, 10, 100).get(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductServiceImpl(fixture.productRepo, new VersionConflictRetry(5, 5, 100, meterRegistry),
+                new ReadCoalescer(coalescing, meterRegistry), event -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Product findProductById() {
+        return productService.findProductById(hotProductId);
+    }
+
+    @Benchmark
+    public List<Product> findProductsBelowThreshold() {
+        return productService.findProductsBelowThreshold();
+    }
+}
@@ -0,0 +1,104 @@
+package org.aayush.benchmark;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.aayush.config.MongoClientTuning;
+import org.aayush.config.MongoIndexConfig;
+import org.aayush.config.MongoTransactionConfig;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.models.Product;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.repository.ProductRepo;
+import org.aayush.repository.impl.InventoryRepoImpl;
+import org.aayush.repository.impl.ProductRepoImpl;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositories for one benchmark backend: {@code IN_MEMORY} runs against map-backed stand-ins so only the
+ * service code is measured, {@code MONGO} runs the real repositories against the MongoDB at
+ * {@code -Dbenchmark.mongodb.uri} (default {@code mongodb://localhost:27017}) without the cache proxies.
+ */
+final class RepositoryFixture implements AutoCloseable {
+
+    static final String IN_MEMORY = "IN_MEMORY";
+    static final String MONGO = "MONGO";
+
+
+    final ProductRepo productRepo;
+    final InventoryRepo inventoryRepo;
+    final MongoTemplate mongoTemplate;
+    private final MongoClient mongoClient;
+
+    private RepositoryFixture(ProductRepo productRepo, InventoryRepo inventoryRepo,
+                              MongoTemplate mongoTemplate, MongoClient mongoClient) {
+        this.productRepo = productRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.mongoTemplate = mongoTemplate;
+        this.mongoClient = mongoClient;
+    }
+
+    static RepositoryFixture create(String backend, String name) {
+        if (IN_MEMORY.equals(backend)) {
+            Map<String, Product> products = new ConcurrentHashMap<>();
+            return new RepositoryFixture(new InMemoryProductRepo(products), new InMemoryInventoryRepo(products), null, null);
+        }
+        if (MONGO.equals(backend)) {
+            return createMongo(name, null, ProductReadPreferences.primary());
+        }
+        throw new IllegalArgumentException("Unknown benchmark backend: " + backend);
+    }
+
+    /**
+     * Real repositories on a client built from the benchmark URI, then {@code tuning} when it is not null.
+     */
+    static RepositoryFixture createMongo(String name, MongoClientTuning tuning, ProductReadPreferences readPreferences) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder().applyConnectionString(
+                new ConnectionString(System.getProperty("benchmark.mongodb.uri", "mongodb://localhost:27017")));
+        if (tuning != null) {
+            tuning.applyTo(settings);
+        }
+        MongoClient client = MongoClients.create(settings.build());
+        MongoTemplate template = new MongoTemplate(client, "warehouse-bench-" + name);
+        template.dropCollection(Product.class);
+        new MongoIndexConfig(template).ensureIndexes();
+        return new RepositoryFixture(new ProductRepoImpl(template, readPreferences, new NoOpCacheManager()),
+                new InventoryRepoImpl(template, new NoOpCacheManager(),
+                        new MongoTransactionConfig().stockBatchTransactions(template.getMongoDatabaseFactory())), template, client);
+    }
+
+    /**
+     * Saves {@code count} products; every {@code lowStockEvery}-th one is below its threshold, with a quantity of 1.
+     * A {@code lowStockEvery} larger than {@code count} seeds none.
+     */
+    List<String> seedProducts(int count, int lowStockEvery, int availableQty) {
+        List<String> productIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean lowStock = (i + 1) % lowStockEvery == 0;
+            Product product = productRepo.saveProduct(Product.builder()
+                    .productName("Product " + i)
+                    .productDesc("Benchmark product " + i)
+                    .availableQty(lowStock ? 1 : availableQty)
+                    .enableLowStockThreshold(true)
+                    .lowStockThreshold(10)
+                    .build());
+            productIds.add(product.getProductId());
+        }
+        return productIds;
+    }
+
+    @Override
+    public void close() {
+        if (mongoClient != null) {
+            mongoTemplate.getDb().drop();
+            mongoClient.close();
+        }
+    }
+}
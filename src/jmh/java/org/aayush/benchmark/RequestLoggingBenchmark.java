@@ -0,0 +1,160 @@
+package org.aayush.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.config.CorrelationIdFilter;
+import org.aayush.config.SampledDebugTurboFilter;
+import org.aayush.controller.InventoryController;
+import org.aayush.models.dto.StockUpdateRequest;
+import org.aayush.service.impl.HotStockCoalescer;
+import org.aayush.service.impl.IdempotencyServiceImpl;
+import org.aayush.service.impl.InventoryServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of {@code POST /inventory/{id}/add-stock} (controller, service and repository) under the
+ * previous logging setup and the current one. Log output goes to a file in the temp directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestLoggingBenchmark {
+
+    /** Synchronous text appender with {@code org.aayush} at DEBUG and the stock path logging at INFO. */
+    public static final String SYNC_DEBUG = "SYNC_DEBUG";
+    /** Bounded async JSON appender, {@code org.aayush} at INFO and debug lines for 1% of requests. */
+    public static final String ASYNC_SAMPLED_JSON = "ASYNC_SAMPLED_JSON";
+
+    private static final double SAMPLE_RATE = 0.01;
+
+    @Param({RepositoryFixture.IN_MEMORY})
+    public String backend;
+
+    @Param({SYNC_DEBUG, ASYNC_SAMPLED_JSON})
+    public String logging;
+
+    private RepositoryFixture fixture;
+    private InventoryController inventoryController;
+    private List<String> productIds;
+    private Path logFile;
+    private final StockUpdateRequest request = StockUpdateRequest.builder().amount(1).build();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("request-logging-benchmark", ".log");
+        configureLogging();
+        fixture = RepositoryFixture.create(backend, "logging");
+        inventoryController = new InventoryController(
+                new InventoryServiceImpl(fixture.inventoryRepo, event -> { },
+                        new HotStockCoalescer(fixture.inventoryRepo, false, 0, 0, 0, 0, ""),
+                        new ReadCoalescer(false, new SimpleMeterRegistry())),
+                null, new IdempotencyServiceImpl(1, 1), null, null);
+        productIds = fixture.seedProducts(1000, 10, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> addStock() {
+        String productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        if (SYNC_DEBUG.equals(logging)) {
+            return inventoryController.addStock(productId, request, null);
+        }
+        MDC.put(CorrelationIdFilter.CORRELATION_ID, UUID.randomUUID().toString());
+        if (ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE) {
+            MDC.put(CorrelationIdFilter.SAMPLED, "true");
+        }
+        try {
+            return inventoryController.addStock(productId, request, null);
+        } finally {
+            MDC.remove(CorrelationIdFilter.CORRELATION_ID);
+            MDC.remove(CorrelationIdFilter.SAMPLED);
+        }
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        Appender<ILoggingEvent> appender = file;
+        ch.qos.logback.classic.Level applicationLevel;
+        if (SYNC_DEBUG.equals(logging)) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{36} - %m%n");
+            file.setEncoder(start(encoder, context));
+            file.start();
+            applicationLevel = ch.qos.logback.classic.Level.DEBUG;
+        } else {
+            JsonEncoder encoder = new JsonEncoder();
+            encoder.setWithSequenceNumber(false);
+            encoder.setWithNanoseconds(false);
+            encoder.setWithContext(false);
+            encoder.setWithArguments(false);
+            encoder.setWithMessage(false);
+            encoder.setWithFormattedMessage(true);
+            file.setEncoder(start(encoder, context));
+            file.start();
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+
+            SampledDebugTurboFilter sampling = new SampledDebugTurboFilter();
+            sampling.setContext(context);
+            sampling.start();
+            context.addTurboFilter(sampling);
+            applicationLevel = ch.qos.logback.classic.Level.INFO;
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        context.getLogger("org.aayush").setLevel(applicationLevel);
+    }
+
+    private static Encoder<ILoggingEvent> start(Encoder<ILoggingEvent> encoder, LoggerContext context) {
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+}
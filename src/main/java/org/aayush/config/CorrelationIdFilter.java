@@ -0,0 +1,62 @@
+package org.aayush.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line of a request with a correlation id, taken from {@code X-Correlation-Id} when the
+ * caller sends a usable one and echoed back on the response. A {@code warehouse.logging.sample-rate}
+ * share of requests is also marked as sampled, which lets {@link SampledDebugTurboFilter} emit their
+ * debug lines.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String SAMPLED = "sampled";
+
+    private static final Pattern VALID_CORRELATION_ID = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private final double sampleRate;
+
+    public CorrelationIdFilter(@Value("${warehouse.logging.sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(CORRELATION_ID_HEADER);
+        if (correlationId == null || !VALID_CORRELATION_ID.matcher(correlationId).matches()) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        MDC.put(CORRELATION_ID, correlationId);
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            MDC.put(SAMPLED, "true");
+        }
+        response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(CORRELATION_ID);
+            MDC.remove(SAMPLED);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.aayush.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.WarehouseException;
 import org.aayush.models.dto.ProductCreateRequest;
 import org.aayush.service.ProductService;
 import org.springframework.boot.CommandLineRunner;
@@ -44,7 +45,7 @@ public class DataInitializer {
                 productService.createAndSaveProduct(new ProductCreateRequest(
                         "Keyboard Mechanical", "RGB mechanical keyboard", 25, false, null));
                 log.info("Seeded product: Keyboard Mechanical");
-            } catch (IllegalArgumentException e) {
+            } catch (WarehouseException e) {
                 log.error("Failed to seed product: {}", e.getMessage());
             }
 
@@ -0,0 +1,23 @@
+package org.aayush.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.repository.LocationStockRepo;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class LocatedStockMigration {
+
+    @Bean
+    @ConditionalOnProperty(name = "warehouse.locations.backfill-located-on-startup", havingValue = "true", matchIfMissing = true)
+    CommandLineRunner backfillLocatedStock(LocationStockRepo locationStockRepo) {
+        return args -> {
+            log.info("Backfilling located stock");
+            long migrated = locationStockRepo.backfillLocatedQty();
+            log.info("Located stock migration completed, {} products updated", migrated);
+        };
+    }
+}
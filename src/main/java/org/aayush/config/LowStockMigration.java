@@ -0,0 +1,23 @@
+package org.aayush.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.repository.ProductRepo;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class LowStockMigration {
+
+    @Bean
+    @ConditionalOnProperty(name = "warehouse.low-stock.migrate-on-startup", havingValue = "true", matchIfMissing = true)
+    CommandLineRunner migrateLowStockFlag(ProductRepo productRepo) {
+        return args -> {
+            log.info("Backfilling low stock flags");
+            long migrated = productRepo.backfillBelowThreshold();
+            log.info("Low stock migration completed, {} products updated", migrated);
+        };
+    }
+}
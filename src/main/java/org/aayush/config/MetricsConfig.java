@@ -0,0 +1,24 @@
+package org.aayush.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on the service and repository implementations. Each call is recorded under the
+ * class and method, with the exception tag set to the thrown type (for example
+ * {@code InsufficientStockException}) or {@code none}, so failure paths get their own latency series.
+ * Histogram buckets and SLOs are configured under {@code management.metrics.distribution}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "warehouse.service";
+    public static final String REPOSITORY_TIMER = "warehouse.repository";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
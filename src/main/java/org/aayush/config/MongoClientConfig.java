@@ -0,0 +1,57 @@
+package org.aayush.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Tunes the MongoDB client of both stacks from {@code warehouse.mongo.*}, overriding the matching options of
+ * {@code spring.data.mongodb.uri}. Writes, stock mutations included, use the client's default write concern
+ * on the primary; only the product read paths in {@link ProductReadPreferences} may read from secondaries.
+ * Runs right after the URI is applied, so load-test customizers such as {@link SimulatedLatencyConfig} still win.
+ * <p>
+ * The socket read timeout defaults to 0 (none), as in the driver. It applies to every operation alike, so any
+ * other value must exceed the longest one, including the low-stock backfill and index builds at startup.
+ */
+@Configuration
+@Slf4j
+public class MongoClientConfig {
+
+    @Bean
+    @Order(1)
+    MongoClientSettingsBuilderCustomizer mongoClientTuning(
+            @Value("${warehouse.mongo.pool.min-size:0}") int minPoolSize,
+            @Value("${warehouse.mongo.pool.max-size:100}") int maxPoolSize,
+            @Value("${warehouse.mongo.pool.max-wait-ms:2000}") long maxWaitMillis,
+            @Value("${warehouse.mongo.pool.max-idle-ms:60000}") long maxIdleMillis,
+            @Value("${warehouse.mongo.socket.connect-timeout-ms:5000}") long connectTimeoutMillis,
+            @Value("${warehouse.mongo.socket.read-timeout-ms:0}") long readTimeoutMillis,
+            @Value("${warehouse.mongo.server-selection-timeout-ms:5000}") long serverSelectionTimeoutMillis,
+            @Value("${warehouse.mongo.write-concern:majority}") String writeConcern,
+            @Value("${warehouse.mongo.write-timeout-ms:5000}") long writeTimeoutMillis) {
+        MongoClientTuning tuning = MongoClientTuning.builder()
+                .minPoolSize(minPoolSize)
+                .maxPoolSize(maxPoolSize)
+                .maxWaitMillis(maxWaitMillis)
+                .maxIdleMillis(maxIdleMillis)
+                .connectTimeoutMillis(connectTimeoutMillis)
+                .readTimeoutMillis(readTimeoutMillis)
+                .serverSelectionTimeoutMillis(serverSelectionTimeoutMillis)
+                .writeConcern(MongoClientTuning.writeConcern(writeConcern, writeTimeoutMillis))
+                .build();
+        log.info("MongoDB pool {}..{} connections, write concern {}", minPoolSize, maxPoolSize, tuning.getWriteConcern());
+        return tuning::applyTo;
+    }
+
+    @Bean
+    ProductReadPreferences productReadPreferences(
+            @Value("${warehouse.mongo.reads.by-id:primary}") String byId,
+            @Value("${warehouse.mongo.reads.catalog:primary}") String catalog,
+            @Value("${warehouse.mongo.reads.max-staleness-seconds:90}") long maxStalenessSeconds) {
+        return new ProductReadPreferences(ProductReadPreferences.parse(byId, maxStalenessSeconds),
+                ProductReadPreferences.parse(catalog, maxStalenessSeconds));
+    }
+}
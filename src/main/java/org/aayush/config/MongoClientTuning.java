@@ -0,0 +1,53 @@
+package org.aayush.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.WriteConcern;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool sizing, timeouts and default write concern applied to a {@link MongoClientSettings.Builder}.
+ * Shared by {@link MongoClientConfig} and the benchmarks, so both build the client the same way.
+ */
+@Getter
+@Builder
+public class MongoClientTuning {
+
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long maxWaitMillis;
+    private final long maxIdleMillis;
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long serverSelectionTimeoutMillis;
+    private final WriteConcern writeConcern;
+
+    public void applyTo(MongoClientSettings.Builder builder) {
+        builder.applyToConnectionPoolSettings(pool -> pool
+                        .minSize(minPoolSize)
+                        .maxSize(maxPoolSize)
+                        .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(maxIdleMillis, TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMillis, TimeUnit.MILLISECONDS))
+                .writeConcern(writeConcern);
+    }
+
+    /**
+     * Parses a {@link WriteConcern} constant name ({@code majority}, {@code w1}, {@code journaled}, ...). A
+     * positive {@code timeoutMillis} bounds how long a write waits for replication.
+     */
+    public static WriteConcern writeConcern(String name, long timeoutMillis) {
+        WriteConcern writeConcern = WriteConcern.valueOf(name.toUpperCase(Locale.ROOT));
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return timeoutMillis > 0 ? writeConcern.withWTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : writeConcern;
+    }
+}
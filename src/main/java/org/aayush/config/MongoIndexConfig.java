@@ -0,0 +1,59 @@
+package org.aayush.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.LocationStock;
+import org.aayush.models.Product;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.aayush.repository.impl.QueryPlanVerifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+@Configuration
+@Slf4j
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Product.class, LocationStock.class, StockMovement.class, StockSnapshot.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(index -> {
+                log.info("Ensuring index on {}: {}", mongoTemplate.getCollectionName(entity), index.getIndexKeys());
+                indexOps.ensureIndex(index);
+            });
+        }
+    }
+
+    @Bean
+    @Profile("query-plan-check")
+    CommandLineRunner verifyQueryPlans(QueryPlanVerifier queryPlanVerifier) {
+        return args -> {
+            List<String> collectionScans = queryPlanVerifier.findCollectionScans();
+            if (!collectionScans.isEmpty()) {
+                throw new IllegalStateException("Queries performing a collection scan: " + collectionScans);
+            }
+            log.info("Query plan check passed, no repository query performs a collection scan");
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package org.aayush.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactions for atomic stock batches. Only the template is a bean: a transaction manager bean would turn on
+ * every {@code @Transactional} in the services, and those also run against standalone MongoDB, which has no
+ * transactions.
+ */
+@Configuration
+public class MongoTransactionConfig {
+
+    @Bean
+    public TransactionTemplate stockBatchTransactions(MongoDatabaseFactory databaseFactory) {
+        return new TransactionTemplate(new MongoTransactionManager(databaseFactory));
+    }
+}
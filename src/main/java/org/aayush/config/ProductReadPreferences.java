@@ -0,0 +1,37 @@
+package org.aayush.config;
+
+import com.mongodb.ReadPreference;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read preferences of the product read paths: {@code byId} for {@code findProductById} cache misses and
+ * {@code catalog} for listings, paging, streaming and the low-stock query. Reads that decide a write
+ * ({@code findCurrentProduct}) and every write always go to the primary.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductReadPreferences {
+
+    private final ReadPreference byId;
+    private final ReadPreference catalog;
+
+    public static ProductReadPreferences primary() {
+        return new ProductReadPreferences(ReadPreference.primary(), ReadPreference.primary());
+    }
+
+    /**
+     * Parses a read preference mode ({@code primary}, {@code secondaryPreferred}, ...). Non-primary modes are
+     * bounded by {@code maxStalenessSeconds} when it is positive; MongoDB requires at least 90 seconds.
+     */
+    public static ReadPreference parse(String mode, long maxStalenessSeconds) {
+        ReadPreference readPreference = ReadPreference.valueOf(mode);
+        if (readPreference.equals(ReadPreference.primary()) || maxStalenessSeconds <= 0) {
+            return readPreference;
+        }
+        return ReadPreference.valueOf(mode, List.of(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,30 @@
+package org.aayush.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets the debug lines of sampled requests through even though the application loggers run at INFO.
+ * Every other call is left to the normal level check, so an unsampled request pays one level comparison
+ * per debug call and nothing is formatted.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "org.aayush";
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.DEBUG || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(CorrelationIdFilter.SAMPLED)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,51 @@
+package org.aayush.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-test only: holds the calling thread for a fixed time before every MongoDB command, so request
+ * handling can be compared at realistic database latencies against a local MongoDB. The pool size is
+ * raised so the connection pool does not become the bottleneck being measured. Not available with the
+ * {@code reactive} profile, where sleeping would stall the driver's event loop.
+ */
+@Configuration
+@Profile("simulated-latency & !reactive")
+@Slf4j
+public class SimulatedLatencyConfig {
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer simulatedLatencyCustomizer(
+            @Value("${warehouse.simulated-latency.mongo-ms:10}") long latencyMillis,
+            @Value("${warehouse.simulated-latency.max-pool-size:1000}") int maxPoolSize) {
+        log.warn("Simulating {} ms of latency on every MongoDB command", latencyMillis);
+        return builder -> builder
+                .addCommandListener(new DelayingCommandListener(latencyMillis))
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(maxPoolSize));
+    }
+
+    private static class DelayingCommandListener implements CommandListener {
+        private final long latencyMillis;
+
+        DelayingCommandListener(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
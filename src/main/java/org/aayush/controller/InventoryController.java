@@ -2,28 +2,59 @@ package org.aayush.controller;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.LocationStock;
 import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentRequest;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
 import org.aayush.models.dto.ErrorResponse;
+import org.aayush.models.dto.HoldRequest;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.models.dto.StockHold;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
 import org.aayush.models.dto.StockUpdateRequest;
+import org.aayush.service.IdempotencyService;
 import org.aayush.service.InventoryService;
+import org.aayush.service.LocationStockService;
+import org.aayush.service.ReservationService;
+import org.aayush.service.StockLedgerService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 @Slf4j
 @RequestMapping("/inventory")
 public class InventoryController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final InventoryService inventoryService;
+    private final StockLedgerService stockLedgerService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationService reservationService;
+    private final LocationStockService locationStockService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, StockLedgerService stockLedgerService,
+                               IdempotencyService idempotencyService, ReservationService reservationService,
+                               LocationStockService locationStockService) {
         this.inventoryService = inventoryService;
+        this.stockLedgerService = stockLedgerService;
+        this.idempotencyService = idempotencyService;
+        this.reservationService = reservationService;
+        this.locationStockService = locationStockService;
     }
 
     @PostMapping("/{productId}/add-stock")
-    public ResponseEntity<?> addStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request) {
-        log.info("Request to add stock: Product ID = {}, Amount = {}", productId, request.getAmount());
+    public ResponseEntity<?> addStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.debug("Request to add stock: Product ID = {}, Amount = {}", productId, request.getAmount());
         if (productId == null || productId.trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ErrorResponse.builder()
@@ -31,28 +62,15 @@ public class InventoryController {
                             .message("Product ID cannot be null or empty")
                             .build());
         }
-        try {
-            Product updatedProduct = inventoryService.addStock(productId, request.getAmount());
-            return ResponseEntity.ok(updatedProduct);
-        } catch (RuntimeException e) {
-            if (e.getMessage().startsWith("Product not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ErrorResponse.builder()
-                                .errorCode("PRODUCT_NOT_FOUND")
-                                .message(e.getMessage())
-                                .build());
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_STOCK_OPERATION")
-                            .message(e.getMessage())
-                            .build());
-        }
+        Product updatedProduct = idempotencyService.execute(idempotencyKey, "add-stock:" + productId + ":" + request.getAmount(),
+                () -> inventoryService.addStock(productId, request.getAmount(), idempotencyKey));
+        return ResponseEntity.ok(updatedProduct);
     }
 
     @PostMapping("/{productId}/decrease-stock")
-    public ResponseEntity<?> decreaseStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request) {
-        log.info("Request to decrease stock: Product ID = {}, Amount = {}", productId, request.getAmount());
+    public ResponseEntity<?> decreaseStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.debug("Request to decrease stock: Product ID = {}, Amount = {}", productId, request.getAmount());
         if (productId == null || productId.trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ErrorResponse.builder()
@@ -60,29 +78,87 @@ public class InventoryController {
                             .message("Product ID cannot be null or empty")
                             .build());
         }
-        try {
-            Product updatedProduct = inventoryService.decreaseStock(productId, request.getAmount());
-            return ResponseEntity.ok(updatedProduct);
-        } catch (RuntimeException e) {
-            if (e.getMessage().startsWith("Product not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ErrorResponse.builder()
-                                .errorCode("PRODUCT_NOT_FOUND")
-                                .message(e.getMessage())
-                                .build());
-            }
-            if (e.getMessage().startsWith("Insufficient stock")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(ErrorResponse.builder()
-                                .errorCode("INSUFFICIENT_STOCK")
-                                .message(e.getMessage())
-                                .build());
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_STOCK_OPERATION")
-                            .message(e.getMessage())
-                            .build());
-        }
+        Product updatedProduct = idempotencyService.execute(idempotencyKey, "decrease-stock:" + productId + ":" + request.getAmount(),
+                () -> inventoryService.decreaseStock(productId, request.getAmount(), idempotencyKey));
+        return ResponseEntity.ok(updatedProduct);
+    }
+
+    @PostMapping("/batch-adjust")
+    public ResponseEntity<BatchStockAdjustmentResponse> adjustStockBatch(@Valid @RequestBody BatchStockAdjustmentRequest request) {
+        int lineCount = request.getLines() != null ? request.getLines().size() : 0;
+        log.debug("Request to adjust stock in batch: Lines = {}, Atomic = {}", lineCount, request.getAtomic());
+        BatchStockAdjustmentResponse response = inventoryService.adjustStock(
+                request.getLines(), Boolean.TRUE.equals(request.getAtomic()));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{productId}/locations/{warehouseId}/add-stock")
+    public ResponseEntity<LocationStock> addLocationStock(@PathVariable("productId") String productId,
+                                                          @PathVariable("warehouseId") String warehouseId,
+                                                          @Valid @RequestBody StockUpdateRequest request) {
+        log.debug("Request to add stock: Product ID = {}, Warehouse = {}, Amount = {}", productId, warehouseId, request.getAmount());
+        return ResponseEntity.ok(locationStockService.addStock(productId, warehouseId, request.getAmount()));
+    }
+
+    @PostMapping("/{productId}/locations/{warehouseId}/decrease-stock")
+    public ResponseEntity<LocationStock> decreaseLocationStock(@PathVariable("productId") String productId,
+                                                               @PathVariable("warehouseId") String warehouseId,
+                                                               @Valid @RequestBody StockUpdateRequest request) {
+        log.debug("Request to decrease stock: Product ID = {}, Warehouse = {}, Amount = {}", productId, warehouseId, request.getAmount());
+        return ResponseEntity.ok(locationStockService.decreaseStock(productId, warehouseId, request.getAmount()));
+    }
+
+    @GetMapping("/{productId}/locations")
+    public ResponseEntity<List<LocationStock>> getLocations(@PathVariable("productId") String productId) {
+        log.debug("Fetching stock locations for product ID: {}", productId);
+        return ResponseEntity.ok(locationStockService.getLocations(productId));
+    }
+
+    @GetMapping("/{productId}/locations/{warehouseId}")
+    public ResponseEntity<LocationStock> getLocation(@PathVariable("productId") String productId,
+                                                     @PathVariable("warehouseId") String warehouseId) {
+        log.debug("Fetching stock of product ID: {} at warehouse: {}", productId, warehouseId);
+        return ResponseEntity.ok(locationStockService.getLocation(productId, warehouseId));
+    }
+
+    @GetMapping("/{productId}/availability")
+    public ResponseEntity<StockAvailability> getAvailability(@PathVariable("productId") String productId) {
+        log.debug("Fetching availability of product ID: {}", productId);
+        return ResponseEntity.ok(locationStockService.getAvailability(productId));
+    }
+
+    @PostMapping("/{productId}/holds")
+    public ResponseEntity<StockHold> placeHold(@PathVariable("productId") String productId, @Valid @RequestBody HoldRequest request) {
+        log.debug("Request to place hold: Product ID = {}, Amount = {}, TTL = {}", productId, request.getAmount(), request.getTtlSeconds());
+        return ResponseEntity.ok(reservationService.placeHold(productId, request.getAmount(), request.getTtlSeconds()));
+    }
+
+    @PostMapping("/{productId}/holds/{holdId}/confirm")
+    public ResponseEntity<StockHold> confirmHold(@PathVariable("productId") String productId, @PathVariable("holdId") String holdId) {
+        log.debug("Request to confirm hold: Product ID = {}, Hold ID = {}", productId, holdId);
+        return ResponseEntity.ok(reservationService.confirmHold(productId, holdId));
+    }
+
+    @DeleteMapping("/{productId}/holds/{holdId}")
+    public ResponseEntity<StockHold> releaseHold(@PathVariable("productId") String productId, @PathVariable("holdId") String holdId) {
+        log.debug("Request to release hold: Product ID = {}, Hold ID = {}", productId, holdId);
+        return ResponseEntity.ok(reservationService.releaseHold(productId, holdId));
+    }
+
+    @GetMapping("/{productId}/movements")
+    public ResponseEntity<StockMovementPage> getMovements(@PathVariable("productId") String productId,
+                                                         @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                         @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                         @RequestParam(value = "token", required = false) String token,
+                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("Fetching stock movements for product ID: {} between {} and {}", productId, from, to);
+        return ResponseEntity.ok(stockLedgerService.getMovements(productId, from, to, limit, token));
+    }
+
+    @GetMapping("/{productId}/stock-at")
+    public ResponseEntity<StockLevel> getStockAt(@PathVariable("productId") String productId,
+                                                 @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        log.debug("Fetching stock of product ID: {} at {}", productId, at);
+        return ResponseEntity.ok(stockLedgerService.getStockAt(productId, at));
     }
 }
\ No newline at end of file
@@ -1,47 +1,117 @@
 package org.aayush.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.events.LowStockEventPublisher;
 import org.aayush.models.Product;
 import org.aayush.models.dto.ErrorResponse;
 import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductExportChunk;
+import org.aayush.models.dto.ProductImportFormat;
+import org.aayush.models.dto.ProductImportSummary;
+import org.aayush.models.dto.ProductLookupRequest;
+import org.aayush.models.dto.ProductLookupResponse;
+import org.aayush.models.dto.ProductPage;
 import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.models.dto.ProductView;
+import org.aayush.service.ProductImportService;
 import org.aayush.service.ProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @Slf4j
 @RequestMapping("/product")
 public class ProductController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String CSV_VALUE = "text/csv";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    static final String NEXT_TOKEN_HEADER = "X-Next-Token";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final LowStockEventPublisher lowStockEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             LowStockEventPublisher lowStockEventPublisher, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.lowStockEventPublisher = lowStockEventPublisher;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping("/create")
-    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductCreateRequest request) {
-        log.info("Received request to create product");
+    public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductCreateRequest request) {
+        log.debug("Received request to create product");
+        Product savedProduct = productService.createAndSaveProduct(request);
+        return ResponseEntity.ok(savedProduct);
+    }
+
+    /**
+     * Reads and imports the whole upload before the response starts, so that a client sending its upload in one
+     * piece is never left with an unread report while it is still writing. The report is kept in a temporary file
+     * until then rather than in memory.
+     */
+    @PostMapping(value = "/import", consumes = {CSV_VALUE, NDJSON_VALUE}, produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importProducts(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        ProductImportFormat format = contentType.isCompatibleWith(NDJSON) ? ProductImportFormat.NDJSON : ProductImportFormat.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        log.debug("Received request to import products as {}", format);
+        Path report = Files.createTempFile("product-import-", ".ndjson");
         try {
-            Product savedProduct = productService.createAndSaveProduct(request);
-            return ResponseEntity.ok(savedProduct);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_PRODUCT")
-                            .message(e.getMessage())
-                            .build());
+            try (Reader upload = new InputStreamReader(request.getInputStream(), charset)) {
+                spoolImportReport(upload, format, report);
+            }
+            StreamingResponseBody body = outputStream -> writeImportReport(report, outputStream);
+            return ResponseEntity.ok()
+                    .contentType(NDJSON)
+                    .body(body);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(report);
+            throw e;
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable("id") String productId) {
-        log.info("Received request to get product with ID: {}", productId);
+    public ResponseEntity<?> getProductById(@PathVariable("id") String productId,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        log.debug("Received request to get product with ID: {}, fields: {}", productId, fields);
         if (productId == null || productId.trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ErrorResponse.builder()
@@ -49,49 +119,29 @@ public class ProductController {
                             .message("Product ID cannot be null or empty")
                             .build());
         }
-        try {
-            Product product = productService.findProductById(productId);
-            return ResponseEntity.ok(product);
-        } catch (RuntimeException e) {
-            if (e.getMessage().startsWith("Product not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ErrorResponse.builder()
-                                .errorCode("PRODUCT_NOT_FOUND")
-                                .message(e.getMessage())
-                                .build());
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_REQUEST")
-                            .message("Invalid product ID format")
-                            .build());
-        }
+        return switch (ProductView.fromParam(fields)) {
+            case FULL -> ResponseEntity.ok(productService.findProductById(productId));
+            case SUMMARY -> ResponseEntity.ok(productService.findProductSummary(productId));
+            case AVAILABILITY -> ResponseEntity.ok(productService.findProductAvailability(productId));
+        };
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupResponse> lookupProducts(@Valid @RequestBody ProductLookupRequest request) {
+        log.debug("Received request to look up {} products", request.getProductIds().size());
+        return ResponseEntity.ok(productService.lookupAvailability(request.getProductIds()));
     }
 
     @PutMapping("/update")
-    public ResponseEntity<?> updateProduct(@Valid @RequestBody ProductUpdateRequest request) {
-        log.info("Received request to update product with ID: {}", request.getProductId());
-        try {
-            Product updatedProduct = productService.updateProductDetails(request);
-            return ResponseEntity.ok(updatedProduct);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_PRODUCT")
-                            .message(e.getMessage())
-                            .build());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ErrorResponse.builder()
-                            .errorCode("PRODUCT_NOT_FOUND")
-                            .message(e.getMessage())
-                            .build());
-        }
+    public ResponseEntity<Product> updateProduct(@Valid @RequestBody ProductUpdateRequest request) {
+        log.debug("Received request to update product with ID: {}", request.getProductId());
+        Product updatedProduct = productService.updateProductDetails(request);
+        return ResponseEntity.ok(updatedProduct);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProductById(@PathVariable("id") String productId) {
-        log.info("Received request to delete product with ID: {}", productId);
+        log.debug("Received request to delete product with ID: {}", productId);
         if (productId == null || productId.trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ErrorResponse.builder()
@@ -99,35 +149,107 @@ public class ProductController {
                             .message("Product ID cannot be null or empty")
                             .build());
         }
-        try {
-            productService.deleteProductById(productId);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            if (e.getMessage().startsWith("Product not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ErrorResponse.builder()
-                                .errorCode("PRODUCT_NOT_FOUND")
-                                .message(e.getMessage())
-                                .build());
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ErrorResponse.builder()
-                            .errorCode("INVALID_REQUEST")
-                            .message("Invalid product ID format")
-                            .build());
-        }
+        productService.deleteProductById(productId);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Product>> fetchAllProducts() {
-        log.info("Fetching all products");
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<?>> fetchAllProducts(@RequestParam(value = "fields", required = false) String fields) {
+        log.debug("Fetching all products, fields: {}", fields);
+        return switch (ProductView.fromParam(fields)) {
+            case FULL -> ResponseEntity.ok(productService.getAllProducts());
+            case SUMMARY -> ResponseEntity.ok(productService.getAllProductSummaries());
+            case AVAILABILITY -> ResponseEntity.ok(productService.getAllProductAvailability());
+        };
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> fetchProductsPage(@RequestParam(value = "token", required = false) String token,
+                                               @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("Fetching products page with limit: {}", limit);
+        ProductPage page = productService.getProductsPage(token, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        log.debug("Streaming all products as NDJSON");
+        StreamingResponseBody body = outputStream -> writeProducts(productService.streamAllProducts(), outputStream);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "token", required = false) String token,
+                                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("Exporting products as gzip NDJSON with chunk size: {}", limit);
+        ProductExportChunk chunk = productService.exportProducts(token, limit);
+        StreamingResponseBody body = outputStream -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE)) {
+                writeProducts(chunk.getProducts(), gzip);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("products.ndjson.gz").build().toString());
+        if (chunk.getNextToken() != null) {
+            response.header(NEXT_TOKEN_HEADER, chunk.getNextToken());
+        }
+        return response.body(body);
     }
 
     @GetMapping("/low-stock")
     public ResponseEntity<List<Product>> getLowStockProducts() {
-        log.info("Fetching products below stock threshold");
+        log.debug("Fetching products below stock threshold");
         List<Product> result = productService.findProductsBelowThreshold();
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/low-stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToLowStockEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Subscribing to low stock events, Last-Event-ID: {}", lastEventId);
+        return lowStockEventPublisher.subscribe(lastEventId);
+    }
+
+    private void writeProducts(Stream<Product> productStream, OutputStream outputStream) throws IOException {
+        try (Stream<Product> products = productStream;
+             JsonGenerator generator = productWriter.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<Product> iterator = products.iterator();
+            boolean written = false;
+            while (iterator.hasNext()) {
+                productWriter.writeValue(generator, iterator.next());
+                written = true;
+            }
+            if (written) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void spoolImportReport(Reader upload, ProductImportFormat format, Path report) throws IOException {
+        try (OutputStream reportStream = Files.newOutputStream(report);
+             JsonGenerator generator = objectMapper.createGenerator(reportStream)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            ProductImportSummary summary = productImportService.importProducts(upload, format, error -> {
+                try {
+                    objectMapper.writeValue(generator, error);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            objectMapper.writeValue(generator, summary);
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void writeImportReport(Path report, OutputStream outputStream) throws IOException {
+        try {
+            Files.copy(report, outputStream);
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.aayush.controller;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentRequest;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.HoldRequest;
+import org.aayush.models.dto.StockHold;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+import org.aayush.models.dto.StockUpdateRequest;
+import org.aayush.service.IdempotencyService;
+import org.aayush.service.ReactiveInventoryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux mirror of {@link InventoryController} for the {@code reactive} profile. Requests carrying an
+ * {@code Idempotency-Key} go through the blocking {@link IdempotencyService} on the bounded elastic scheduler.
+ */
+@RestController
+@Profile("reactive")
+@Slf4j
+@RequestMapping("/inventory")
+public class ReactiveInventoryController {
+
+    private final ReactiveInventoryService inventoryService;
+    private final IdempotencyService idempotencyService;
+
+    public ReactiveInventoryController(ReactiveInventoryService inventoryService, IdempotencyService idempotencyService) {
+        this.inventoryService = inventoryService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @PostMapping("/{productId}/add-stock")
+    public Mono<Product> addStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request,
+                                  @RequestHeader(value = InventoryController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.debug("Request to add stock: Product ID = {}, Amount = {}", productId, request.getAmount());
+        return idempotent(idempotencyKey, "add-stock:" + productId + ":" + request.getAmount(),
+                () -> inventoryService.addStock(productId, request.getAmount(), idempotencyKey));
+    }
+
+    @PostMapping("/{productId}/decrease-stock")
+    public Mono<Product> decreaseStock(@PathVariable("productId") String productId, @Valid @RequestBody StockUpdateRequest request,
+                                       @RequestHeader(value = InventoryController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.debug("Request to decrease stock: Product ID = {}, Amount = {}", productId, request.getAmount());
+        return idempotent(idempotencyKey, "decrease-stock:" + productId + ":" + request.getAmount(),
+                () -> inventoryService.decreaseStock(productId, request.getAmount(), idempotencyKey));
+    }
+
+    @PostMapping("/batch-adjust")
+    public Mono<BatchStockAdjustmentResponse> adjustStockBatch(@Valid @RequestBody BatchStockAdjustmentRequest request) {
+        int lineCount = request.getLines() != null ? request.getLines().size() : 0;
+        log.debug("Request to adjust stock in batch: Lines = {}, Atomic = {}", lineCount, request.getAtomic());
+        return inventoryService.adjustStock(request.getLines(), Boolean.TRUE.equals(request.getAtomic()));
+    }
+
+    @PostMapping("/{productId}/holds")
+    public Mono<StockHold> placeHold(@PathVariable("productId") String productId, @Valid @RequestBody HoldRequest request) {
+        log.debug("Request to place hold: Product ID = {}, Amount = {}, TTL = {}", productId, request.getAmount(), request.getTtlSeconds());
+        return inventoryService.placeHold(productId, request.getAmount(), request.getTtlSeconds());
+    }
+
+    @PostMapping("/{productId}/holds/{holdId}/confirm")
+    public Mono<StockHold> confirmHold(@PathVariable("productId") String productId, @PathVariable("holdId") String holdId) {
+        log.debug("Request to confirm hold: Product ID = {}, Hold ID = {}", productId, holdId);
+        return inventoryService.confirmHold(productId, holdId);
+    }
+
+    @DeleteMapping("/{productId}/holds/{holdId}")
+    public Mono<StockHold> releaseHold(@PathVariable("productId") String productId, @PathVariable("holdId") String holdId) {
+        log.debug("Request to release hold: Product ID = {}, Hold ID = {}", productId, holdId);
+        return inventoryService.releaseHold(productId, holdId);
+    }
+
+    @GetMapping("/{productId}/movements")
+    public Mono<StockMovementPage> getMovements(@PathVariable("productId") String productId,
+                                                @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                @RequestParam(value = "token", required = false) String token,
+                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("Fetching stock movements for product ID: {} between {} and {}", productId, from, to);
+        return inventoryService.getMovements(productId, from, to, limit, token);
+    }
+
+    @GetMapping("/{productId}/stock-at")
+    public Mono<StockLevel> getStockAt(@PathVariable("productId") String productId,
+                                       @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        log.debug("Fetching stock of product ID: {} at {}", productId, at);
+        return inventoryService.getStockAt(productId, at);
+    }
+
+    private Mono<Product> idempotent(String idempotencyKey, String fingerprint, Supplier<Mono<Product>> operation) {
+        if (idempotencyKey == null) {
+            return operation.get();
+        }
+        return Mono.fromCallable(() -> idempotencyService.execute(idempotencyKey, fingerprint, () -> operation.get().block()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
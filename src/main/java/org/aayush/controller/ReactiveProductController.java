@@ -0,0 +1,82 @@
+package org.aayush.controller;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.service.ReactiveProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux mirror of {@link ProductController} for the {@code reactive} profile. The low stock SSE feed is
+ * servlet only and is not exposed here.
+ */
+@RestController
+@Profile("reactive")
+@Slf4j
+@RequestMapping("/product")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    public ReactiveProductController(ReactiveProductService productService) {
+        this.productService = productService;
+    }
+
+    @PostMapping("/create")
+    public Mono<Product> createProduct(@Valid @RequestBody ProductCreateRequest request) {
+        log.debug("Received request to create product");
+        return productService.createAndSaveProduct(request);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Product> getProductById(@PathVariable("id") String productId) {
+        log.debug("Received request to get product with ID: {}", productId);
+        return productService.findProductById(productId);
+    }
+
+    @PutMapping("/update")
+    public Mono<Product> updateProduct(@Valid @RequestBody ProductUpdateRequest request) {
+        log.debug("Received request to update product with ID: {}", request.getProductId());
+        return productService.updateProductDetails(request);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProductById(@PathVariable("id") String productId) {
+        log.debug("Received request to delete product with ID: {}", productId);
+        return productService.deleteProductById(productId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/all")
+    public Flux<Product> fetchAllProducts() {
+        log.debug("Fetching all products");
+        return productService.getAllProducts();
+    }
+
+    @GetMapping("/page")
+    public Mono<ProductPage> fetchProductsPage(@RequestParam(value = "token", required = false) String token,
+                                               @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("Fetching products page with limit: {}", limit);
+        return productService.getProductsPage(token, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> streamAllProducts() {
+        log.debug("Streaming all products as NDJSON");
+        return productService.getAllProducts();
+    }
+
+    @GetMapping("/low-stock")
+    public Flux<Product> getLowStockProducts() {
+        log.debug("Fetching products below stock threshold");
+        return productService.findProductsBelowThreshold();
+    }
+}
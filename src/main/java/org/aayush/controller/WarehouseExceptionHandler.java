@@ -0,0 +1,23 @@
+package org.aayush.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.WarehouseException;
+import org.aayush.models.dto.ErrorResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+@Slf4j
+public class WarehouseExceptionHandler {
+
+    @ExceptionHandler(WarehouseException.class)
+    public ResponseEntity<ErrorResponse> handleWarehouseException(WarehouseException e) {
+        log.debug("Request failed with {}: {}", e.getErrorCode(), e.getMessage());
+        return ResponseEntity.status(e.getStatus())
+                .body(ErrorResponse.builder()
+                        .errorCode(e.getErrorCode())
+                        .message(e.getMessage())
+                        .build());
+    }
+}
@@ -0,0 +1,223 @@
+package org.aayush.events;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.models.dto.LowStockEvent;
+import org.aayush.models.dto.LowStockEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns stock changes into low-stock threshold crossings and fans them out to SSE subscribers.
+ * Recent events are kept in a bounded buffer so clients can resume with {@code Last-Event-ID}.
+ * Each subscriber has a bounded queue; a subscriber that falls behind is disconnected instead of
+ * making the publisher buffer for it, and resumes from the buffer when it reconnects.
+ */
+@Component
+@Slf4j
+public class LowStockEventPublisher {
+
+    static final String RESET_EVENT = "reset";
+
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final long emitterTimeoutMillis;
+    private final ExecutorService dispatcher;
+    private final Deque<LowStockEvent> recentEvents = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    @Autowired
+    public LowStockEventPublisher(@Value("${warehouse.low-stock.events.buffer-size:1024}") int bufferSize,
+                                  @Value("${warehouse.low-stock.events.subscriber-queue-size:256}") int subscriberQueueSize,
+                                  @Value("${warehouse.low-stock.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                  @Value("${warehouse.low-stock.events.dispatcher-threads:4}") int dispatcherThreads,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(bufferSize, subscriberQueueSize, emitterTimeoutMillis,
+                virtualThreads ? newVirtualDispatcher() : newDispatcher(dispatcherThreads));
+    }
+
+    LowStockEventPublisher(int bufferSize, int subscriberQueueSize, long emitterTimeoutMillis, ExecutorService dispatcher) {
+        this.bufferSize = bufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.dispatcher = dispatcher;
+    }
+
+    private static ExecutorService newDispatcher(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newVirtualDispatcher() {
+        return Executors.newCachedThreadPool(new VirtualThreadTaskExecutor("low-stock-sse-").getVirtualThreadFactory());
+    }
+
+    /**
+     * A product leaves low stock when its quantity rises to the threshold, the threshold is lowered under it
+     * or the threshold is disabled, and enters it the opposite ways.
+     */
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        boolean isBelow = event.isBelowThreshold();
+        if (event.wasBelowThreshold() != isBelow) {
+            publish(isBelow ? LowStockEventType.BELOW_THRESHOLD : LowStockEventType.RECOVERED, event.getProduct());
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Long resumeAfter = parseEventId(lastEventId);
+        Subscriber subscriber;
+        synchronized (this) {
+            List<LowStockEvent> replay = resumeAfter != null ? eventsAfter(resumeAfter) : List.of();
+            subscriber = new Subscriber(emitter, subscriberQueueSize + replay.size());
+            subscriber.resetRequired = resumeAfter != null && !canResume(resumeAfter);
+            subscriber.queue.addAll(replay);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        log.info("Low stock subscriber connected, resuming after: {}, active subscribers: {}", resumeAfter, subscribers.size());
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    synchronized List<LowStockEvent> eventsAfter(long resumeAfter) {
+        List<LowStockEvent> events = new ArrayList<>();
+        for (LowStockEvent event : recentEvents) {
+            if (event.getSequence() > resumeAfter) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    synchronized boolean canResume(long resumeAfter) {
+        if (resumeAfter > sequence) {
+            return false;
+        }
+        return recentEvents.isEmpty() || recentEvents.peekFirst().getSequence() <= resumeAfter + 1;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void publish(LowStockEventType type, Product product) {
+        LowStockEvent event = LowStockEvent.builder()
+                .sequence(++sequence)
+                .type(type)
+                .productId(product.getProductId())
+                .productName(product.getProductName())
+                .availableQty(product.getAvailableQty())
+                .unassignedQty(product.getUnassignedQty())
+                .lowStockThreshold(product.getLowStockThreshold())
+                .occurredAt(Instant.now())
+                .build();
+        recentEvents.addLast(event);
+        if (recentEvents.size() > bufferSize) {
+            recentEvents.removeFirst();
+        }
+        log.debug("Publishing low stock event {} for product ID: {}", type, product.getProductId());
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return -1L;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<LowStockEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resetRequired;
+
+        Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void offer(LowStockEvent event) {
+            if (queue.offer(event)) {
+                scheduleDrain();
+            } else {
+                log.warn("Low stock subscriber fell {} events behind, disconnecting it", queue.size());
+                subscribers.remove(this);
+                emitter.complete();
+            }
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resetRequired) {
+                    resetRequired = false;
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data("resync"));
+                }
+                LowStockEvent event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getSequence()))
+                            .name(event.getType().name())
+                            .data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Low stock subscriber disconnected: {}", e.getMessage());
+                subscribers.remove(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+    }
+}
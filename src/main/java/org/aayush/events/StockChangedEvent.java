@@ -0,0 +1,53 @@
+package org.aayush.events;
+
+import lombok.Getter;
+import org.aayush.models.Product;
+import org.aayush.repository.impl.StockUpdates;
+
+/**
+ * A change of a product's stock or low-stock settings, with the product as it is after the change. The delta and
+ * the threshold checks are on the stock not held in warehouses, so a warehouse roll-up, which moves stock into the
+ * product total and into {@code locatedQty} alike, changes neither.
+ */
+@Getter
+public class StockChangedEvent {
+    private final Product product;
+    private final int delta;
+    private final Boolean previousEnableLowStockThreshold;
+    private final Integer previousLowStockThreshold;
+
+    public StockChangedEvent(Product product, int delta) {
+        this(product, delta, product.getEnableLowStockThreshold(), product.getLowStockThreshold());
+    }
+
+    private StockChangedEvent(Product product, int delta, Boolean previousEnableLowStockThreshold, Integer previousLowStockThreshold) {
+        this.product = product;
+        this.delta = delta;
+        this.previousEnableLowStockThreshold = previousEnableLowStockThreshold;
+        this.previousLowStockThreshold = previousLowStockThreshold;
+    }
+
+    /**
+     * A details update, which may have changed the quantity, the threshold or whether the threshold is enabled.
+     */
+    public static StockChangedEvent detailsChanged(Product before, Product after) {
+        return new StockChangedEvent(after, quantityOf(after) - quantityOf(before),
+                before.getEnableLowStockThreshold(), before.getLowStockThreshold());
+    }
+
+    public int getPreviousQty() {
+        return quantityOf(product) - delta;
+    }
+
+    public boolean wasBelowThreshold() {
+        return StockUpdates.isBelowThreshold(previousEnableLowStockThreshold, getPreviousQty(), previousLowStockThreshold);
+    }
+
+    public boolean isBelowThreshold() {
+        return StockUpdates.isBelowThreshold(product);
+    }
+
+    private static int quantityOf(Product product) {
+        return product.getUnassignedQty();
+    }
+}
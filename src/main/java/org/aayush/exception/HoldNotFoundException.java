@@ -0,0 +1,10 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class HoldNotFoundException extends WarehouseException {
+
+    public HoldNotFoundException(String holdId) {
+        super("HOLD_NOT_FOUND", HttpStatus.NOT_FOUND, "Hold not found or already expired: " + holdId);
+    }
+}
@@ -0,0 +1,11 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReusedException extends WarehouseException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency key was already used for a different request: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,22 @@
+package org.aayush.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class InsufficientStockException extends WarehouseException {
+
+    private final int requested;
+    private final int available;
+
+    public InsufficientStockException(int requested, int available) {
+        super("INSUFFICIENT_STOCK", HttpStatus.BAD_REQUEST, null);
+        this.requested = requested;
+        this.available = available;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Insufficient stock available. Requested: " + requested + ", Available: " + available;
+    }
+}
@@ -0,0 +1,10 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidProductException extends WarehouseException {
+
+    public InvalidProductException(String message) {
+        super("INVALID_PRODUCT", HttpStatus.BAD_REQUEST, message);
+    }
+}
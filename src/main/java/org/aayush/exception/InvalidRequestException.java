@@ -0,0 +1,10 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends WarehouseException {
+
+    public InvalidRequestException(String message) {
+        super("INVALID_REQUEST", HttpStatus.BAD_REQUEST, message);
+    }
+}
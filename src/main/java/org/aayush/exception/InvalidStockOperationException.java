@@ -0,0 +1,10 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidStockOperationException extends WarehouseException {
+
+    public InvalidStockOperationException(String message) {
+        super("INVALID_STOCK_OPERATION", HttpStatus.BAD_REQUEST, message);
+    }
+}
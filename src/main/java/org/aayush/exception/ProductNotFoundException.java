@@ -0,0 +1,10 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ProductNotFoundException extends WarehouseException {
+
+    public ProductNotFoundException(String productId) {
+        super("PRODUCT_NOT_FOUND", HttpStatus.NOT_FOUND, "Product not found: " + productId);
+    }
+}
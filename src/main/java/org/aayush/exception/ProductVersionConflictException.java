@@ -0,0 +1,11 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ProductVersionConflictException extends WarehouseException {
+
+    public ProductVersionConflictException(String productId) {
+        super("VERSION_CONFLICT", HttpStatus.CONFLICT,
+                "Product was modified by another request: " + productId);
+    }
+}
@@ -0,0 +1,11 @@
+package org.aayush.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StockLedgerBackloggedException extends WarehouseException {
+
+    public StockLedgerBackloggedException(String productId) {
+        super("LEDGER_BACKLOGGED", HttpStatus.SERVICE_UNAVAILABLE,
+                "Stock movements of product " + productId + " are waiting to be recorded, retry later");
+    }
+}
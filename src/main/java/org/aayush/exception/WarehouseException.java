@@ -0,0 +1,21 @@
+package org.aayush.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base type for expected request failures. These are control flow, not bugs, so they skip stack trace
+ * capture and suppression; each subclass carries the error code and status the API responds with.
+ */
+@Getter
+public abstract class WarehouseException extends RuntimeException {
+
+    private final String errorCode;
+    private final HttpStatus status;
+
+    protected WarehouseException(String errorCode, HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+        this.status = status;
+    }
+}
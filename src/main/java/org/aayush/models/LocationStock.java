@@ -0,0 +1,34 @@
+package org.aayush.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Stock of one product at one warehouse. The id is {@code productId:warehouseId}, so the locations of a product
+ * are one range of the {@code _id} index and a range-sharded collection keeps them on the same shard, while
+ * different products spread out. Each warehouse writes its own document; the product's
+ * {@code availableQty} total is rolled up from the {@code pendingTotals} outbox these writes append to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "location_stock")
+@CompoundIndex(name = "pendingTotalsSince", def = "{ 'pendingTotalsSince': 1 }", sparse = true)
+public class LocationStock {
+
+    @Id
+    private String locationStockId;
+    private String productId;
+    private String warehouseId;
+    private Integer availableQty;
+
+    public static String idOf(String productId, String warehouseId) {
+        return productId + ":" + warehouseId;
+    }
+}
@@ -5,20 +5,46 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Document(collection = "products")
+@CompoundIndex(name = "pendingMovementsSince", def = "{ 'pendingMovementsSince': 1 }", sparse = true)
+@CompoundIndex(name = "holds_expiresAt", def = "{ 'holds.expiresAt': 1 }", sparse = true)
 public class Product {
 
     @Id
     private String productId;
+    @Indexed(unique = true)
     private String productName;
     private String productDesc;
     private Integer availableQty;
+    private Integer reservedQty;
+    private Integer locatedQty;
     private Boolean enableLowStockThreshold;
     private Integer lowStockThreshold;
+    @Indexed(name = "belowThreshold_true", partialFilter = "{ 'belowThreshold': true }")
+    private Boolean belowThreshold;
+    @Version
+    private Long version;
+
+    /**
+     * The stock not held in any warehouse: what the product-level stock endpoints and holds can take, and what the
+     * low-stock threshold is checked against. Derived, so it is served but never stored.
+     */
+    @Transient
+    public int getUnassignedQty() {
+        return unassignedQty(availableQty, locatedQty);
+    }
+
+    public static int unassignedQty(Integer availableQty, Integer locatedQty) {
+        return (availableQty != null ? availableQty : 0) - (locatedQty != null ? locatedQty : 0);
+    }
 }
@@ -0,0 +1,31 @@
+package org.aayush.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One entry of the append-only stock ledger. {@code seq} numbers the stock changes of a product in the
+ * order they were applied; the id is {@code productId:seq}, so relaying a movement twice is a no-op.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "stock_movements")
+@CompoundIndex(name = "productId_at", def = "{ 'productId': 1, 'at': 1, '_id': 1 }")
+public class StockMovement {
+
+    @Id
+    private String movementId;
+    private String productId;
+    private Long seq;
+    private Integer delta;
+    private Instant at;
+}
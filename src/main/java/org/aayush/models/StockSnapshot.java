@@ -0,0 +1,32 @@
+package org.aayush.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Quantity of a product right after its movement {@code seq}. Written every
+ * {@code warehouse.ledger.snapshot-every} movements so a historical quantity is one snapshot plus a
+ * bounded tail of movements.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "stock_snapshots")
+@CompoundIndex(name = "productId_at", def = "{ 'productId': 1, 'at': 1, 'seq': 1 }")
+public class StockSnapshot {
+
+    @Id
+    private String snapshotId;
+    private String productId;
+    private Long seq;
+    private Integer availableQty;
+    private Instant at;
+}
@@ -0,0 +1,22 @@
+package org.aayush.models.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchStockAdjustmentRequest {
+    @NotEmpty(message = "At least one adjustment line is required")
+    @Size(max = 1000, message = "A batch cannot contain more than 1000 lines")
+    private List<@Valid StockAdjustmentLine> lines;
+    private Boolean atomic;
+}
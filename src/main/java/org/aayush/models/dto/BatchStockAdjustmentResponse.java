@@ -0,0 +1,19 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchStockAdjustmentResponse {
+    private boolean atomic;
+    private int appliedCount;
+    private int failedCount;
+    private List<StockAdjustmentResult> results;
+}
@@ -0,0 +1,15 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aayush.models.Product;
+
+/**
+ * A hold removed from a product together with the product as it is after the removal.
+ */
+@Getter
+@AllArgsConstructor
+public class HoldChange {
+    private final StockHold hold;
+    private final Product product;
+}
@@ -0,0 +1,20 @@
+package org.aayush.models.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldRequest {
+    @NotNull(message = "Hold amount is required")
+    @Min(value = 1, message = "Hold amount must be at least 1")
+    private Integer amount;
+    @Min(value = 1, message = "Hold TTL must be at least 1 second")
+    private Integer ttlSeconds;
+}
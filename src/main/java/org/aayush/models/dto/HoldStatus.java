@@ -0,0 +1,8 @@
+package org.aayush.models.dto;
+
+public enum HoldStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,16 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aayush.models.Product;
+
+/**
+ * A stock change recorded on a product under an idempotency key: the delta it applied and the product as that
+ * change left it.
+ */
+@Getter
+@AllArgsConstructor
+public class KeyedStockChange {
+    private final int delta;
+    private final Product product;
+}
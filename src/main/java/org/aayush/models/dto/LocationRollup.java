@@ -0,0 +1,15 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aayush.models.Product;
+
+/**
+ * Location stock changes folded into a product total, with the product as it is after the fold.
+ */
+@Getter
+@AllArgsConstructor
+public class LocationRollup {
+    private final Product product;
+    private final int delta;
+}
@@ -0,0 +1,23 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LowStockEvent {
+    private long sequence;
+    private LowStockEventType type;
+    private String productId;
+    private String productName;
+    private Integer availableQty;
+    private Integer unassignedQty;
+    private Integer lowStockThreshold;
+    private Instant occurredAt;
+}
@@ -0,0 +1,6 @@
+package org.aayush.models.dto;
+
+public enum LowStockEventType {
+    BELOW_THRESHOLD,
+    RECOVERED
+}
@@ -0,0 +1,17 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aayush.models.Product;
+
+import java.util.stream.Stream;
+
+/**
+ * One range of the catalog export. {@code products} is backed by an open cursor and must be closed.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductExportChunk {
+    private Stream<Product> products;
+    private String nextToken;
+}
@@ -0,0 +1,17 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportError {
+    private Long row;
+    private String productName;
+    private String errorCode;
+    private String message;
+}
@@ -0,0 +1,6 @@
+package org.aayush.models.dto;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,16 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportSummary {
+    private long rowCount;
+    private long importedCount;
+    private long rejectedCount;
+}
@@ -0,0 +1,20 @@
+package org.aayush.models.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductLookupRequest {
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 500, message = "A lookup cannot contain more than 500 product IDs")
+    private List<String> productIds;
+}
@@ -0,0 +1,18 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductLookupResponse {
+    private Map<String, StockAvailability> availability;
+    private List<String> missingProductIds;
+}
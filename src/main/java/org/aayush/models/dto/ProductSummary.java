@@ -0,0 +1,30 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.aayush.models.Product;
+import org.springframework.data.annotation.Transient;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummary {
+    private String productId;
+    private String productName;
+    private Integer availableQty;
+    private Integer locatedQty;
+    private Boolean belowThreshold;
+
+    public static ProductSummary of(Product product) {
+        return new ProductSummary(product.getProductId(), product.getProductName(),
+                product.getAvailableQty(), product.getLocatedQty(), product.getBelowThreshold());
+    }
+
+    @Transient
+    public int getUnassignedQty() {
+        return Product.unassignedQty(availableQty, locatedQty);
+    }
+}
@@ -1,13 +1,17 @@
 package org.aayush.models.dto;
 
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+/**
+ * Fields left null keep their stored value. {@code version} is the product version the change is based on:
+ * when present the update fails with a conflict if the product has changed since, and it is required to
+ * set {@code availableQty} to a new value.
+ */
 @Getter
 @Builder
 @AllArgsConstructor
@@ -15,14 +19,13 @@ import lombok.NoArgsConstructor;
 public class ProductUpdateRequest {
     @NotNull(message = "Product ID is required")
     private String productId;
-    @NotBlank(message = "Product name is required")
     private String productName;
-    @NotBlank(message = "Product description is required")
     private String productDesc;
-    @NotNull(message = "Available quantity is required")
     @Min(value = 0, message = "Available quantity cannot be negative")
     private Integer availableQty;
     private Boolean enableLowStockThreshold;
     @Min(value = 0, message = "Low stock threshold cannot be negative")
     private Integer lowStockThreshold;
-}
\ No newline at end of file
+    @Min(value = 0, message = "Version cannot be negative")
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package org.aayush.models.dto;
+
+import org.aayush.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Shapes of a product read, selected with the {@code fields} query parameter.
+ */
+public enum ProductView {
+    FULL,
+    SUMMARY,
+    AVAILABILITY;
+
+    public static ProductView fromParam(String fields) {
+        if (fields == null || fields.isEmpty()) {
+            return FULL;
+        }
+        try {
+            return valueOf(fields.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown fields value: " + fields + ". Use full, summary or availability");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.aayush.models.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentLine {
+    @NotBlank(message = "Product ID is required")
+    private String productId;
+    @NotNull(message = "Stock delta is required")
+    private Integer delta;
+}
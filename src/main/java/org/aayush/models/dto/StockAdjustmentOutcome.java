@@ -0,0 +1,24 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aayush.models.Product;
+
+/**
+ * The outcome of one product's net delta in a stock batch, with the product as it is after the change when the
+ * delta was applied.
+ */
+@Getter
+@AllArgsConstructor
+public class StockAdjustmentOutcome {
+    private final StockAdjustmentStatus status;
+    private final Product product;
+
+    public static StockAdjustmentOutcome applied(Product product) {
+        return new StockAdjustmentOutcome(StockAdjustmentStatus.APPLIED, product);
+    }
+
+    public static StockAdjustmentOutcome failed(StockAdjustmentStatus status) {
+        return new StockAdjustmentOutcome(status, null);
+    }
+}
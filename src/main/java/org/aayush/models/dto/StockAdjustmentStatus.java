@@ -0,0 +1,11 @@
+package org.aayush.models.dto;
+
+public enum StockAdjustmentStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK,
+    LIMIT_EXCEEDED,
+    LEDGER_BACKLOGGED,
+    INVALID,
+    ROLLED_BACK
+}
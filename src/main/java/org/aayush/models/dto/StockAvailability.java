@@ -0,0 +1,33 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.aayush.models.Product;
+import org.springframework.data.annotation.Transient;
+
+/**
+ * The stock of a product: its total, the part held in warehouses and the part the product-level stock endpoints
+ * can take.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAvailability {
+    private String productId;
+    private Integer availableQty;
+    private Integer reservedQty;
+    private Integer locatedQty;
+
+    public static StockAvailability of(Product product) {
+        return new StockAvailability(product.getProductId(), product.getAvailableQty(), product.getReservedQty(),
+                product.getLocatedQty());
+    }
+
+    @Transient
+    public int getUnassignedQty() {
+        return Product.unassignedQty(availableQty, locatedQty);
+    }
+}
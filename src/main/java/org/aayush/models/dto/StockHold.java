@@ -0,0 +1,20 @@
+package org.aayush.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockHold {
+    private String holdId;
+    private String productId;
+    private Integer quantity;
+    private Instant expiresAt;
+    private HoldStatus status;
+}
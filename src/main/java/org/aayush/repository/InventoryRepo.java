@@ -1,9 +1,20 @@
 package org.aayush.repository;
 
 import org.aayush.models.Product;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+
+import java.util.Map;
 
 public interface InventoryRepo {
     Product addStock(String productId, Integer stockAmount);
+    Product addStock(String productId, Integer stockAmount, String idempotencyKey);
+    Product grantAllocation(String productId, String allocationId, Integer quantity);
+    Product returnAllocation(String productId, String allocationId, long consumed);
     Product decreaseStock(String productId, Integer stockAmount);
+    Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey);
+    KeyedStockChange findKeyedChange(String productId, String idempotencyKey);
     Product findProductById(String productId);
+    Map<String, StockAdjustmentOutcome> adjustStock(Map<String, Integer> deltas);
+    Map<String, StockAdjustmentOutcome> adjustStockAtomically(Map<String, Integer> deltas);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.aayush.repository;
+
+import org.aayush.models.LocationStock;
+import org.aayush.models.dto.LocationRollup;
+
+import java.util.List;
+
+public interface LocationStockRepo {
+    LocationStock adjustStock(String productId, String warehouseId, int delta);
+    LocationStock findLocation(String productId, String warehouseId);
+    List<LocationStock> findLocations(String productId);
+    List<LocationRollup> rollUpPendingTotals(int maxLocations);
+    long backfillLocatedQty();
+}
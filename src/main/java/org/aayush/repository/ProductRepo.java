@@ -1,16 +1,33 @@
 package org.aayush.repository;
 
 import org.aayush.models.Product;
+import org.aayush.models.dto.ProductSummary;
+import org.aayush.models.dto.StockAvailability;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ProductRepo {
     Product saveProduct(Product product);
     Product findProductById(String productId);
+    Product findCurrentProduct(String productId);
+    Map<String, Product> findProductsByIds(Collection<String> productIds);
     boolean deleteProduct(Product product);
     boolean deleteByProductId(String productId);
     Product updateProductDetails(Product product);
     List<Product> getAllProducts();
+    List<ProductSummary> getAllProductSummaries();
+    List<StockAvailability> getAllProductAvailability();
+    List<Product> findProductsAfter(String afterProductId, int limit);
+    Stream<Product> streamAllProducts();
+    String findChunkEnd(String afterProductId, int chunkSize);
+    Stream<Product> streamProductsBetween(String afterProductId, String upToProductId);
     List<Product> findProductsBelowThreshold();
+    long backfillBelowThreshold();
     Product findProductByName(String productName);
+    Set<String> findExistingProductNames(Collection<String> productNames);
+    Set<Integer> insertProducts(List<Product> products);
 }
\ No newline at end of file
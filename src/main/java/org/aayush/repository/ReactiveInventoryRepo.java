@@ -0,0 +1,10 @@
+package org.aayush.repository;
+
+import org.aayush.models.Product;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveInventoryRepo {
+    Mono<Product> addStock(String productId, Integer stockAmount);
+    Mono<Product> decreaseStock(String productId, Integer stockAmount);
+    Mono<Product> findProductById(String productId);
+}
@@ -0,0 +1,15 @@
+package org.aayush.repository;
+
+import org.aayush.models.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductRepo {
+    Mono<Product> saveProduct(Product product);
+    Mono<Product> findProductById(String productId);
+    Mono<Boolean> deleteByProductId(String productId);
+    Mono<Product> updateProductDetails(Product product);
+    Flux<Product> getAllProducts();
+    Flux<Product> findProductsAfter(String afterProductId, int limit);
+    Flux<Product> findProductsBelowThreshold();
+}
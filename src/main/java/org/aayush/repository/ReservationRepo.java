@@ -0,0 +1,15 @@
+package org.aayush.repository;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.HoldChange;
+import org.aayush.models.dto.StockHold;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReservationRepo {
+    Product placeHold(StockHold hold, int maxHoldsPerProduct);
+    HoldChange releaseHold(String productId, String holdId);
+    HoldChange confirmHold(String productId, String holdId);
+    List<StockHold> findExpiredHolds(Instant now, int limit);
+}
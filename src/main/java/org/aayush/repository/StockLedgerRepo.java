@@ -0,0 +1,16 @@
+package org.aayush.repository;
+
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockLedgerRepo {
+    int relayPendingMovements(int maxProducts, int snapshotEvery);
+    List<StockMovement> findMovements(String productId, Instant from, Instant to, StockMovement after, int limit);
+    List<StockMovement> findMovementsAfterSnapshot(StockSnapshot snapshot, Instant upTo);
+    List<StockMovement> findMovementsUpToSnapshot(StockSnapshot snapshot, Instant after);
+    StockSnapshot findLatestSnapshot(String productId, Instant upTo);
+    StockSnapshot findEarliestSnapshot(String productId);
+}
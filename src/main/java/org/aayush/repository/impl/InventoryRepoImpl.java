@@ -1,50 +1,300 @@
 package org.aayush.repository.impl;
 
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
 import org.aayush.models.Product;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.models.dto.StockAdjustmentStatus;
 import org.aayush.repository.InventoryRepo;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
 @Slf4j
 public class InventoryRepoImpl implements InventoryRepo {
 
     private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
 
-    public InventoryRepoImpl(MongoTemplate mongoTemplate) {
+    public InventoryRepoImpl(MongoTemplate mongoTemplate, CacheManager cacheManager, TransactionTemplate stockBatchTransactions) {
         this.mongoTemplate = mongoTemplate;
+        this.productCache = new ProductCache(cacheManager);
+        this.transactionTemplate = stockBatchTransactions;
     }
 
     @Override
     public Product findProductById(String productId) {
-        log.info("Finding product with ID: {}", productId);
-        return mongoTemplate.findById(productId, Product.class);
+        log.debug("Finding product with ID: {}", productId);
+        return mongoTemplate.findOne(ProductRepoImpl.productView(ProductRepoImpl.byId(productId)), Product.class);
     }
 
+    /**
+     * Increments the stock in a single round trip. Returns null when the product does not exist
+     * or when the increment would overflow the quantity.
+     */
     @Override
     public Product addStock(String productId, Integer stockAmount) {
-        log.info("Adding stock for product ID: {}, Amount: {}", productId, stockAmount);
-        Product product = mongoTemplate.findById(productId, Product.class);
-        if (product == null) {
-            return null;
-        }
+        log.debug("Adding stock for product ID: {}, Amount: {}", productId, stockAmount);
+        return incrementStock(stockGuard(productId, stockAmount), stockAmount);
+    }
 
-        Integer currentQty = product.getAvailableQty() != null ? product.getAvailableQty() : 0;
-        product.setAvailableQty(currentQty + stockAmount);
-        return mongoTemplate.save(product);
+    /**
+     * {@link #addStock(String, Integer)} that also records {@code idempotencyKey} on the product in the same write.
+     * Returns null as well when the product already records the key, which {@link #findKeyedChange} tells apart.
+     */
+    @Override
+    public Product addStock(String productId, Integer stockAmount, String idempotencyKey) {
+        log.debug("Adding stock for product ID: {}, Amount: {}, Idempotency key: {}", productId, stockAmount, idempotencyKey);
+        return modifyStock(keyedStockGuard(productId, stockAmount, idempotencyKey),
+                StockUpdates.adjustQuantityForKey(stockAmount, idempotencyKey));
     }
 
+    /**
+     * Takes {@code quantity} out of the product for the write-behind allocation {@code allocationId} and adds it
+     * to the quantity the product records as granted to it, in one guarded write. Returns null like
+     * {@link #decreaseStock}.
+     */
+    @Override
+    public Product grantAllocation(String productId, String allocationId, Integer quantity) {
+        log.debug("Granting allocation {} of product ID: {}, Amount: {}", allocationId, productId, quantity);
+        return modifyStock(stockGuard(productId, -quantity), StockUpdates.grantAllocation(allocationId, quantity));
+    }
+
+    /**
+     * Closes the write-behind allocation {@code allocationId}, adding back what the product records as granted to
+     * it minus {@code consumed}. The record goes in the same write, so a repeated return adds nothing. Returns null
+     * when the product records no such allocation: it was returned already, was never granted, or the product is
+     * gone. Not refused while the movement outbox is full, so escrowed stock is never stranded by a slow relay;
+     * returns are rare, so they cannot grow the outbox by much.
+     */
+    @Override
+    public Product returnAllocation(String productId, String allocationId, long consumed) {
+        log.debug("Returning allocation {} of product ID: {}, Consumed: {}", allocationId, productId, consumed);
+        Query query = new Query(Criteria.where("_id").is(productId)
+                .and(StockUpdates.ALLOCATIONS + "." + allocationId).exists(true));
+        return modifyStock(query, StockUpdates.returnAllocation(allocationId, consumed));
+    }
+
+    /**
+     * Decrements the stock in a single round trip. Returns null when the product does not exist
+     * or when it does not hold enough stock.
+     */
     @Override
     public Product decreaseStock(String productId, Integer stockAmount) {
-        log.info("Decreasing stock for product ID: {}, Amount: {}", productId, stockAmount);
-        Product product = mongoTemplate.findById(productId, Product.class);
-        if (product == null) {
+        log.debug("Decreasing stock for product ID: {}, Amount: {}", productId, stockAmount);
+        return incrementStock(stockGuard(productId, -stockAmount), -stockAmount);
+    }
+
+    /**
+     * {@link #decreaseStock(String, Integer)} that also records {@code idempotencyKey} on the product in the same
+     * write. Returns null as well when the product already records the key, which {@link #findKeyedChange} tells
+     * apart.
+     */
+    @Override
+    public Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey) {
+        log.debug("Decreasing stock for product ID: {}, Amount: {}, Idempotency key: {}", productId, stockAmount, idempotencyKey);
+        return modifyStock(keyedStockGuard(productId, -stockAmount, idempotencyKey),
+                StockUpdates.adjustQuantityForKey(-stockAmount, idempotencyKey));
+    }
+
+    /**
+     * The change the product records under {@code idempotencyKey}, read with only that entry of its recent keys,
+     * or null when the product does not exist or does not record the key.
+     */
+    @Override
+    public KeyedStockChange findKeyedChange(String productId, String idempotencyKey) {
+        Query query = ProductRepoImpl.productView(ProductRepoImpl.byId(productId),
+                StockUpdates.RECENT_KEYS, Criteria.where("key").is(idempotencyKey));
+        Document document = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Product.class));
+        List<Document> entries = document != null
+                ? document.getList(StockUpdates.RECENT_KEYS, Document.class, List.of())
+                : List.of();
+        if (entries.isEmpty()) {
             return null;
         }
+        Document entry = entries.get(0);
+        Product product = productLeftBy(document, entry.getInteger("qtyAfter"));
+        product.setVersion(entry.get("version", Number.class).longValue());
+        return new KeyedStockChange(entry.getInteger("delta"), product);
+    }
+
+    @Override
+    public Map<String, StockAdjustmentOutcome> adjustStock(Map<String, Integer> deltas) {
+        log.debug("Adjusting stock for {} products", deltas.size());
+        try {
+            return executeAdjustments(deltas);
+        } finally {
+            invalidateCachedProducts(deltas.keySet());
+        }
+    }
+
+    @Override
+    public Map<String, StockAdjustmentOutcome> adjustStockAtomically(Map<String, Integer> deltas) {
+        log.debug("Adjusting stock for {} products in one transaction", deltas.size());
+        try {
+            return transactionTemplate.execute(status -> {
+                Map<String, StockAdjustmentOutcome> outcome = executeAdjustments(deltas);
+                if (outcome.values().stream().anyMatch(line -> line.getStatus() != StockAdjustmentStatus.APPLIED)) {
+                    throw new BatchRejectedException(outcome);
+                }
+                return outcome;
+            });
+        } catch (BatchRejectedException e) {
+            log.warn("Rolled back stock adjustment batch for {} products", deltas.size());
+            Map<String, StockAdjustmentOutcome> outcome = new HashMap<>(e.outcome);
+            outcome.replaceAll((productId, line) -> line.getStatus() == StockAdjustmentStatus.APPLIED
+                    ? StockAdjustmentOutcome.failed(StockAdjustmentStatus.ROLLED_BACK)
+                    : line);
+            return outcome;
+        } finally {
+            invalidateCachedProducts(deltas.keySet());
+        }
+    }
+
+    private void invalidateCachedProducts(Iterable<String> productIds) {
+        productIds.forEach(productCache::invalidate);
+    }
+
+    private Product incrementStock(Query query, int delta) {
+        return modifyStock(query, StockUpdates.adjustQuantity(delta));
+    }
+
+    private Product modifyStock(Query query, AggregationUpdate update) {
+        long stamp = productCache.stamp();
+        Product product = mongoTemplate.findAndModify(ProductRepoImpl.productView(query), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        productCache.put(stamp, product);
+        return product;
+    }
+
+    /**
+     * Matches the product when it can take {@code delta} and its movement outbox has room. A decrease can only take
+     * the stock not held in warehouses ({@code availableQty} minus {@code locatedQty}), which warehouse decreases
+     * folded later still count on. A missing {@code availableQty} counts as zero, as it does in the update itself.
+     */
+    static Query stockGuard(String productId, int delta) {
+        Criteria criteria = Criteria.where("_id").is(productId);
+        criteria.and(StockUpdates.LAST_MOVEMENT_SLOT).exists(false);
+        AggregationExpression currentQty = ConditionalOperators.ifNull("availableQty").then(0);
+        if (delta > 0) {
+            criteria.andOperator(Criteria.expr(ComparisonOperators.valueOf(currentQty)
+                    .lessThanEqualToValue(Integer.MAX_VALUE - delta)));
+        } else if (delta < 0) {
+            AggregationExpression unassignedQty = ArithmeticOperators.valueOf(currentQty)
+                    .subtract(ConditionalOperators.ifNull(StockUpdates.LOCATED_QTY).then(0));
+            criteria.andOperator(Criteria.expr(ComparisonOperators.valueOf(unassignedQty)
+                    .greaterThanEqualToValue(-delta)));
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * {@link #stockGuard} that also requires the product not to record {@code idempotencyKey} yet, so a retry that
+     * races the original, on this instance or another, is applied at most once.
+     */
+    static Query keyedStockGuard(String productId, int delta, String idempotencyKey) {
+        Query query = stockGuard(productId, delta);
+        query.addCriteria(Criteria.where(StockUpdates.RECENT_KEYS + ".key").ne(idempotencyKey));
+        return query;
+    }
+
+    /**
+     * Applies every delta in one unordered bulk write. Each matched update records the batch id and the quantity it
+     * left in the product's recent batches, so one read afterwards tells applied lines from missing products and
+     * failed guards, whatever other writers do to the products meanwhile. An applied line is only reported as failed
+     * when more than {@link StockUpdates#RECENT_BATCHES_KEPT} other batches write its product between the two. A
+     * product that could have taken the delta was refused for its full movement outbox.
+     */
+    private Map<String, StockAdjustmentOutcome> executeAdjustments(Map<String, Integer> deltas) {
+        ObjectId batchId = new ObjectId();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        deltas.forEach((productId, delta) -> bulkOps.updateOne(stockGuard(productId, delta),
+                StockUpdates.adjustQuantityInBatch(delta, batchId)));
+        BulkWriteResult result = bulkOps.execute();
+        log.debug("Stock adjustment matched {} of {} products", result.getMatchedCount(), deltas.size());
 
-        Integer currentQty = product.getAvailableQty() != null ? product.getAvailableQty() : 0;
-        product.setAvailableQty(currentQty - stockAmount);
-        return mongoTemplate.save(product);
+        Query query = ProductRepoImpl.byIds(deltas.keySet());
+        query.fields().exclude(StockUpdates.PENDING_MOVEMENTS, StockUpdates.HOLDS, StockUpdates.RECENT_KEYS);
+        Map<String, Document> existing = new HashMap<>();
+        mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Product.class))
+                .forEach(document -> existing.put(String.valueOf(document.get("_id")), document));
+
+        Map<String, StockAdjustmentOutcome> outcome = new HashMap<>();
+        deltas.forEach((productId, delta) -> {
+            Document document = existing.get(productId);
+            Integer qtyAfter = document != null ? qtyLeftBy(document, batchId) : null;
+            if (document == null) {
+                outcome.put(productId, StockAdjustmentOutcome.failed(StockAdjustmentStatus.NOT_FOUND));
+            } else if (qtyAfter != null) {
+                outcome.put(productId, StockAdjustmentOutcome.applied(productLeftBy(document, qtyAfter)));
+            } else if (canTake(document, delta)) {
+                outcome.put(productId, StockAdjustmentOutcome.failed(StockAdjustmentStatus.LEDGER_BACKLOGGED));
+            } else {
+                outcome.put(productId, StockAdjustmentOutcome.failed(delta < 0
+                        ? StockAdjustmentStatus.INSUFFICIENT_STOCK
+                        : StockAdjustmentStatus.LIMIT_EXCEEDED));
+            }
+        });
+        return outcome;
+    }
+
+    /**
+     * The quantity the update of {@code batchId} left on the product, or null when it did not write the product.
+     */
+    private static Integer qtyLeftBy(Document product, ObjectId batchId) {
+        for (Object entry : product.getList(StockUpdates.RECENT_BATCHES, Object.class, List.of())) {
+            if (entry instanceof Document batch && batchId.equals(batch.get("batch"))) {
+                return batch.getInteger("qtyAfter");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The product as read, with the quantity and low-stock flag that the batch line or keyed change left, so its
+     * events and replays describe that change and not a later one.
+     */
+    private Product productLeftBy(Document document, int qtyAfter) {
+        Product product = mongoTemplate.getConverter().read(Product.class, document);
+        product.setAvailableQty(qtyAfter);
+        product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+        return product;
+    }
+
+    private static boolean canTake(Document product, int delta) {
+        int availableQty = product.get("availableQty") instanceof Integer qty ? qty : 0;
+        int locatedQty = product.get(StockUpdates.LOCATED_QTY) instanceof Integer qty ? qty : 0;
+        return delta < 0 ? availableQty - locatedQty >= -delta : availableQty <= Integer.MAX_VALUE - delta;
+    }
+
+    private static class BatchRejectedException extends RuntimeException {
+        private final transient Map<String, StockAdjustmentOutcome> outcome;
+
+        BatchRejectedException(Map<String, StockAdjustmentOutcome> outcome) {
+            super("Stock adjustment batch rejected", null, false, false);
+            this.outcome = outcome;
+        }
     }
-}
\ No newline at end of file
+}
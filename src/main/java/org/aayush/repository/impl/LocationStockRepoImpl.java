@@ -0,0 +1,218 @@
+package org.aayush.repository.impl;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
+import org.aayush.models.LocationStock;
+import org.aayush.models.Product;
+import org.aayush.models.dto.LocationRollup;
+import org.aayush.repository.LocationStockRepo;
+import org.bson.Document;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@Slf4j
+public class LocationStockRepoImpl implements LocationStockRepo {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+
+    public LocationStockRepoImpl(MongoTemplate mongoTemplate, CacheManager cacheManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = new ProductCache(cacheManager);
+    }
+
+    /**
+     * Changes the stock of one location in a single round trip; an increase creates the location on first use.
+     * Returns null when a decrease finds the location missing or short of stock, or an increase would overflow.
+     */
+    @Override
+    public LocationStock adjustStock(String productId, String warehouseId, int delta) {
+        log.debug("Adjusting stock for product ID: {} at warehouse: {}, Delta: {}", productId, warehouseId, delta);
+        Query query = locationGuard(productId, warehouseId, delta);
+        try {
+            return mongoTemplate.findAndModify(query, StockUpdates.adjustLocation(productId, warehouseId, delta),
+                    FindAndModifyOptions.options().returnNew(true).upsert(delta > 0), LocationStock.class);
+        } catch (DuplicateKeyException e) {
+            // the location exists: either another request created it first or the guard failed on it
+            return mongoTemplate.findAndModify(query, StockUpdates.adjustLocation(productId, warehouseId, delta),
+                    FindAndModifyOptions.options().returnNew(true), LocationStock.class);
+        }
+    }
+
+    @Override
+    public LocationStock findLocation(String productId, String warehouseId) {
+        return mongoTemplate.findById(LocationStock.idOf(productId, warehouseId), LocationStock.class);
+    }
+
+    @Override
+    public List<LocationStock> findLocations(String productId) {
+        log.debug("Fetching stock locations for product ID: {}", productId);
+        return mongoTemplate.find(locationsOf(productId), LocationStock.class);
+    }
+
+    /**
+     * Folds the outboxes of up to {@code maxLocations} locations, oldest first, into their product totals and then
+     * drains them. A fold only matches while the product still records the sequence folded before it, so a fold
+     * repeated after a crash before the drain, or raced by another instance, changes nothing. Outboxes of
+     * deleted products are drained without a fold.
+     */
+    @Override
+    public List<LocationRollup> rollUpPendingTotals(int maxLocations) {
+        Query query = pendingTotals(maxLocations);
+        query.fields().include("productId", "warehouseId", StockUpdates.PENDING_TOTALS);
+        List<Document> outboxes = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(LocationStock.class));
+        if (outboxes.isEmpty()) {
+            return List.of();
+        }
+
+        List<LocationRollup> rollups = new ArrayList<>();
+        BulkOperations drains = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LocationStock.class);
+        int drainCount = 0;
+        for (Document outbox : outboxes) {
+            String productId = outbox.getString("productId");
+            String warehouseId = outbox.getString("warehouseId");
+            List<Document> pending = outbox.getList(StockUpdates.PENDING_TOTALS, Document.class, List.of());
+            long pendingSeq = pending.stream().mapToLong(entry -> entry.get("seq", Number.class).longValue()).max().orElse(0);
+
+            Document product = mongoTemplate.findOne(foldedSeq(productId, warehouseId), Document.class,
+                    mongoTemplate.getCollectionName(Product.class));
+            if (product != null) {
+                long foldedSeq = foldedSeqOf(product, warehouseId);
+                if (pendingSeq > foldedSeq) {
+                    int delta = pending.stream()
+                            .filter(entry -> entry.get("seq", Number.class).longValue() > foldedSeq)
+                            .mapToInt(entry -> entry.get("delta", Number.class).intValue())
+                            .sum();
+                    long stamp = productCache.stamp();
+                    Product folded = mongoTemplate.findAndModify(ProductRepoImpl.productView(foldGuard(productId, warehouseId, foldedSeq)),
+                            StockUpdates.foldLocationTotals(warehouseId, delta, pendingSeq),
+                            FindAndModifyOptions.options().returnNew(true), Product.class);
+                    if (folded == null) {
+                        continue;
+                    }
+                    productCache.put(stamp, folded);
+                    rollups.add(new LocationRollup(folded, delta));
+                }
+            }
+            drains.updateOne(new Query(Criteria.where("_id").is(outbox.get("_id"))
+                            .and(StockUpdates.PENDING_TOTALS).exists(true)),
+                    StockUpdates.drainLocationTotals(pendingSeq));
+            drainCount++;
+        }
+        if (drainCount > 0) {
+            drains.execute();
+        }
+        log.debug("Rolled up {} location outboxes into {} product totals", outboxes.size(), rollups.size());
+        return rollups;
+    }
+
+    /**
+     * Sets {@code locatedQty} on the products whose locations were folded before it was kept: the stock of each of
+     * their locations minus the changes not folded into the product yet. The write only matches while the product
+     * still has the folded sequences it was computed from, so a product folded in between is computed again.
+     */
+    @Override
+    public long backfillLocatedQty() {
+        String products = mongoTemplate.getCollectionName(Product.class);
+        String locations = mongoTemplate.getCollectionName(LocationStock.class);
+        long backfilled = 0;
+        int batchBackfilled;
+        List<Document> batch;
+        do {
+            Query query = new Query(Criteria.where(StockUpdates.LOCATION_SEQS).exists(true)
+                    .and(StockUpdates.LOCATED_QTY).exists(false))
+                    .limit(BACKFILL_BATCH_SIZE);
+            query.fields().include(StockUpdates.LOCATION_SEQS);
+            batch = mongoTemplate.find(query, Document.class, products);
+            batchBackfilled = 0;
+            for (Document product : batch) {
+                String productId = product.get("_id").toString();
+                Query locationsQuery = locationsOf(productId);
+                locationsQuery.fields().include("warehouseId", "availableQty", StockUpdates.PENDING_TOTALS);
+                long locatedQty = 0;
+                for (Document location : mongoTemplate.find(locationsQuery, Document.class, locations)) {
+                    long foldedSeq = foldedSeqOf(product, location.getString("warehouseId"));
+                    Number availableQty = location.get("availableQty", Number.class);
+                    int unfolded = location.getList(StockUpdates.PENDING_TOTALS, Document.class, List.of()).stream()
+                            .filter(entry -> entry.get("seq", Number.class).longValue() > foldedSeq)
+                            .mapToInt(entry -> entry.get("delta", Number.class).intValue())
+                            .sum();
+                    locatedQty += (availableQty != null ? availableQty.longValue() : 0) - unfolded;
+                }
+
+                Query guard = new Query(Criteria.where("_id").is(productId)
+                        .and(StockUpdates.LOCATION_SEQS).is(product.get(StockUpdates.LOCATION_SEQS))
+                        .and(StockUpdates.LOCATED_QTY).exists(false));
+                long stamp = productCache.stamp();
+                Product updated = mongoTemplate.findAndModify(ProductRepoImpl.productView(guard),
+                        StockUpdates.backfillLocatedQty((int) Math.min(Integer.MAX_VALUE, locatedQty)),
+                        FindAndModifyOptions.options().returnNew(true), Product.class);
+                if (updated != null) {
+                    productCache.put(stamp, updated);
+                    batchBackfilled++;
+                }
+            }
+            backfilled += batchBackfilled;
+        } while (batch.size() == BACKFILL_BATCH_SIZE && batchBackfilled > 0);
+        log.info("Backfilled located stock on {} products", backfilled);
+        return backfilled;
+    }
+
+    private static long foldedSeqOf(Document product, String warehouseId) {
+        Document foldedSeqs = product.get(StockUpdates.LOCATION_SEQS, Document.class);
+        Number foldedSeq = foldedSeqs != null ? foldedSeqs.get(warehouseId, Number.class) : null;
+        return foldedSeq != null ? foldedSeq.longValue() : 0;
+    }
+
+    static Query locationGuard(String productId, String warehouseId, int delta) {
+        Criteria criteria = Criteria.where("_id").is(LocationStock.idOf(productId, warehouseId));
+        if (delta > 0) {
+            criteria.and("availableQty").not().gt(Integer.MAX_VALUE - delta);
+        } else if (delta < 0) {
+            criteria.and("availableQty").gte(-delta);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * The locations of a product are the {@code _id} range between {@code productId:} and {@code productId;}.
+     */
+    static Query locationsOf(String productId) {
+        return new Query(Criteria.where("_id").gte(productId + ":").lt(productId + ";"))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+    }
+
+    static Query pendingTotals(int limit) {
+        return new Query(Criteria.where(StockUpdates.PENDING_TOTALS_SINCE).lte(new Date()))
+                .with(Sort.by(Sort.Direction.ASC, StockUpdates.PENDING_TOTALS_SINCE))
+                .limit(limit);
+    }
+
+    static Query foldedSeq(String productId, String warehouseId) {
+        Query query = ProductRepoImpl.byId(productId);
+        query.fields().include(StockUpdates.LOCATION_SEQS + "." + warehouseId);
+        return query;
+    }
+
+    static Query foldGuard(String productId, String warehouseId, long foldedSeq) {
+        Criteria folded = Criteria.where(StockUpdates.LOCATION_SEQS + "." + warehouseId);
+        return new Query(Criteria.where("_id").is(productId)
+                .andOperator(foldedSeq > 0 ? folded.is(foldedSeq) : folded.exists(false)));
+    }
+}
@@ -0,0 +1,87 @@
+package org.aayush.repository.impl;
+
+import org.aayush.config.CacheConfig;
+import org.aayush.models.Product;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The product-by-id cache, filled so that a product read before a write can never replace what the write left.
+ * <p>
+ * Callers take a {@link #stamp()} before going to MongoDB and hand it in with the product they got back. A product
+ * replaces a cached one only when its version is newer. A write that does not return the product it left, such as a
+ * delete, a batch or a hold removal, {@link #invalidate(String) invalidates} the entry: it leaves a mark in place of
+ * the product, and the mark rejects every product read with a stamp taken before it. A mark only protects while it
+ * is cached, so it is subject to the cache's size and expiry like any entry.
+ * <p>
+ * Works on the Caffeine cache underneath, since a version check and a put must be one atomic step. Other caches, such
+ * as the no-op cache of the benchmarks, cache nothing.
+ */
+final class ProductCache {
+
+    /**
+     * Orders stamps across all repositories, which each hold their own view of the same cache.
+     */
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+    ProductCache(CacheManager cacheManager) {
+        this.cache = caffeineOf(cacheManager.getCache(CacheConfig.PRODUCTS));
+    }
+
+    long stamp() {
+        return CLOCK.incrementAndGet();
+    }
+
+    Product get(String productId) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(productId) instanceof Product product ? product : null;
+    }
+
+    /**
+     * Caches {@code product}, read or written by a call that started at {@code stamp}, unless the cache already holds
+     * a version at least as new or a mark left after {@code stamp}. A null product caches nothing.
+     */
+    void put(long stamp, Product product) {
+        if (cache == null || product == null) {
+            return;
+        }
+        cache.asMap().compute(product.getProductId(), (productId, current) -> replaces(stamp, product, current) ? product : current);
+    }
+
+    void invalidate(String productId) {
+        if (cache != null) {
+            cache.put(productId, new Invalidated(stamp()));
+        }
+    }
+
+    private static boolean replaces(long stamp, Product product, Object current) {
+        if (current instanceof Product cached) {
+            return versionOf(product) > versionOf(cached);
+        }
+        if (current instanceof Invalidated mark) {
+            return stamp > mark.at();
+        }
+        return true;
+    }
+
+    private static long versionOf(Product product) {
+        return product.getVersion() != null ? product.getVersion() : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineOf(Cache cache) {
+        Object nativeCache = cache != null ? cache.getNativeCache() : null;
+        return nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? (com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine
+                : null;
+    }
+
+    private record Invalidated(long at) {
+    }
+}
@@ -1,101 +1,363 @@
 package org.aayush.repository.impl;
 
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
+import org.aayush.config.ProductReadPreferences;
 import org.aayush.models.Product;
+import org.aayush.models.dto.ProductSummary;
+import org.aayush.models.dto.StockAvailability;
 import org.aayush.repository.ProductRepo;
-import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
 @Slf4j
 public class ProductRepoImpl implements ProductRepo {
 
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final List<String> UNMAPPED_FIELDS = List.of(StockUpdates.PENDING_MOVEMENTS, StockUpdates.HOLDS,
+            StockUpdates.RECENT_BATCHES, StockUpdates.ALLOCATIONS, StockUpdates.RECENT_KEYS);
+
     private final MongoTemplate mongoTemplate;
+    private final ProductReadPreferences readPreferences;
+    private final ProductCache productCache;
 
-    public ProductRepoImpl(MongoTemplate mongoTemplate) {
+    public ProductRepoImpl(MongoTemplate mongoTemplate, ProductReadPreferences readPreferences, CacheManager cacheManager) {
         this.mongoTemplate = mongoTemplate;
+        this.readPreferences = readPreferences;
+        this.productCache = new ProductCache(cacheManager);
     }
 
     @Override
     public Product saveProduct(Product product) {
         log.debug("Saving product to database");
-        return mongoTemplate.save(product);
+        product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+        long stamp = productCache.stamp();
+        Product saved = mongoTemplate.save(product);
+        productCache.put(stamp, saved);
+        return saved;
     }
 
     @Override
     public Product findProductById(String productId) {
-        log.info("Finding product with ID: {}", productId);
-        return mongoTemplate.findById(productId, Product.class);
+        Product cached = productCache.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        log.debug("Finding product with ID: {}", productId);
+        long stamp = productCache.stamp();
+        Product product = mongoTemplate.findOne(productView(byId(productId)).withReadPreference(readPreferences.getById()), Product.class);
+        productCache.put(stamp, product);
+        return product;
+    }
+
+    /**
+     * Reads the stored product from the primary past the cache, for decisions that must not be based on a cached
+     * or replicated copy.
+     */
+    @Override
+    public Product findCurrentProduct(String productId) {
+        return mongoTemplate.findOne(productView(byId(productId)), Product.class);
+    }
+
+    /**
+     * Serves the ids found in the product cache from memory and loads the rest with one {@code $in} query,
+     * caching what it loads. Products that do not exist are absent from the result.
+     */
+    @Override
+    public Map<String, Product> findProductsByIds(Collection<String> productIds) {
+        Map<String, Product> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String productId : productIds) {
+            Product cached = productCache.get(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                misses.add(productId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long stamp = productCache.stamp();
+            for (Product product : mongoTemplate.find(productView(byIds(misses)).withReadPreference(readPreferences.getById()), Product.class)) {
+                found.put(product.getProductId(), product);
+                productCache.put(stamp, product);
+            }
+        }
+        log.debug("Looked up {} products: {} cached, {} queried, {} found",
+                productIds.size(), productIds.size() - misses.size(), misses.size(), found.size());
+        return found;
     }
 
     @Override
     public boolean deleteProduct(Product product) {
-        log.info("Deleting product: {}", product.getProductId());
-        return mongoTemplate.remove(product).wasAcknowledged();
+        log.debug("Deleting product: {}", product.getProductId());
+        boolean acknowledged = mongoTemplate.remove(product).wasAcknowledged();
+        productCache.invalidate(product.getProductId());
+        return acknowledged;
     }
 
     @Override
     public boolean deleteByProductId(String productId) {
-        log.info("Deleting product by ID: {}", productId);
-        Query query = new Query(Criteria.where("_id").is(productId));
-        DeleteResult result = mongoTemplate.remove(query, Product.class);
+        log.debug("Deleting product by ID: {}", productId);
+        DeleteResult result = mongoTemplate.remove(byId(productId), Product.class);
+        productCache.invalidate(productId);
         return result.wasAcknowledged() && result.getDeletedCount() > 0;
     }
 
+    /**
+     * Applies the non-null fields of {@code product} in one round trip if the stored version still equals
+     * {@code product.version}. Returns null when the product does not exist or has moved on to another version.
+     */
     @Override
     public Product updateProductDetails(Product product) {
-        log.info("Updating product: {}", product.getProductId());
-        Query query = new Query(Criteria.where("_id").is(product.getProductId()));
+        log.debug("Updating product: {} at version {}", product.getProductId(), product.getVersion());
+        long stamp = productCache.stamp();
+        Product updated = mongoTemplate.findAndModify(productView(detailsGuard(product)),
+                StockUpdates.updateDetails(product), FindAndModifyOptions.options().returnNew(true), Product.class);
+        productCache.put(stamp, updated);
+        return updated;
+    }
 
-        Update update = new Update()
-                .set("productName", product.getProductName())
-                .set("productDesc", product.getProductDesc())
-                .set("availableQty", product.getAvailableQty())
-                .set("enableLowStockThreshold", product.getEnableLowStockThreshold())
-                .set("lowStockThreshold", product.getLowStockThreshold());
+    @Override
+    public List<Product> getAllProducts() {
+        log.debug("Fetching all products");
+        return mongoTemplate.find(productView(new Query()).withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
 
-        UpdateResult result = mongoTemplate.updateFirst(query, update, Product.class);
+    /**
+     * Reads only the summary fields, so descriptions, holds and stock outboxes are neither transferred nor decoded.
+     */
+    @Override
+    public List<ProductSummary> getAllProductSummaries() {
+        log.debug("Fetching summaries of all products");
+        return mongoTemplate.query(Product.class).as(ProductSummary.class)
+                .matching(summaryView().withReadPreference(readPreferences.getCatalog()))
+                .all();
+    }
 
-        if (result.getMatchedCount() == 0) {
-            return null;
-        }
-        return mongoTemplate.findById(product.getProductId(), Product.class);
+    @Override
+    public List<StockAvailability> getAllProductAvailability() {
+        log.debug("Fetching availability of all products");
+        return mongoTemplate.query(Product.class).as(StockAvailability.class)
+                .matching(availabilityView().withReadPreference(readPreferences.getCatalog()))
+                .all();
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        log.info("Fetching all products");
-        return mongoTemplate.findAll(Product.class);
+    public List<Product> findProductsAfter(String afterProductId, int limit) {
+        log.debug("Fetching {} products after ID: {}", limit, afterProductId);
+        return mongoTemplate.find(productView(pageAfter(afterProductId, limit)).withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamAllProducts() {
+        log.debug("Streaming all products");
+        Query query = productView(new Query()).with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(STREAM_BATCH_SIZE)
+                .withReadPreference(readPreferences.getCatalog());
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    @Override
+    public String findChunkEnd(String afterProductId, int chunkSize) {
+        Product last = mongoTemplate.findOne(chunkEnd(afterProductId, chunkSize).withReadPreference(readPreferences.getCatalog()), Product.class);
+        return last != null ? last.getProductId() : null;
+    }
+
+    @Override
+    public Stream<Product> streamProductsBetween(String afterProductId, String upToProductId) {
+        log.debug("Streaming products after ID: {} up to ID: {}", afterProductId, upToProductId);
+        return mongoTemplate.stream(productView(range(afterProductId, upToProductId)).cursorBatchSize(STREAM_BATCH_SIZE)
+                .withReadPreference(readPreferences.getCatalog()), Product.class);
     }
 
     @Override
     public List<Product> findProductsBelowThreshold() {
-        log.info("Fetching products below low stock threshold");
+        log.debug("Fetching products below low stock threshold");
+        return mongoTemplate.find(productView(belowThreshold()).withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
 
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where("enableLowStockThreshold").is(true)),
-                Aggregation.match(Criteria.expr(
-                        ComparisonOperators.Lt.valueOf("$availableQty").lessThan("$lowStockThreshold")
-                ))
-        );
-        return mongoTemplate.aggregate(aggregation, Product.class, Product.class)
-                .getMappedResults();
+    @Override
+    public long backfillBelowThreshold() {
+        Query query = new Query(Criteria.where(StockUpdates.BELOW_THRESHOLD).exists(false));
+        UpdateResult result = mongoTemplate.updateMulti(query, StockUpdates.recomputeBelowThreshold(), Product.class);
+        log.info("Backfilled low stock flag on {} products", result.getModifiedCount());
+        return result.getModifiedCount();
     }
 
     @Override
     public Product findProductByName(String productName) {
-        Query query = new Query(Criteria.where("productName").is(productName));
-        return mongoTemplate.findOne(query, Product.class);
+        return mongoTemplate.findOne(productView(byName(productName)), Product.class);
+    }
+
+    @Override
+    public Set<String> findExistingProductNames(Collection<String> productNames) {
+        if (productNames.isEmpty()) {
+            return Set.of();
+        }
+        return mongoTemplate.find(byNames(productNames), Product.class).stream()
+                .map(Product::getProductName)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Inserts the products with one unordered bulk write and returns the positions of the ones rejected by the
+     * unique name index, so that a name created concurrently does not abort the rest of the batch. Ids are assigned
+     * before the write so that the inserted products can be cached like a single save.
+     */
+    @Override
+    public Set<Integer> insertProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return Set.of();
+        }
+        products.forEach(product -> {
+            if (product.getProductId() == null) {
+                product.setProductId(new ObjectId().toHexString());
+            }
+            product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+            product.setVersion(0L);
+        });
+        long stamp = productCache.stamp();
+        Set<Integer> duplicates = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class).insert(products).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                duplicates.add(error.getIndex());
+            }
+            log.debug("Skipped {} products with existing names", duplicates.size());
+        }
+        for (int i = 0; i < products.size(); i++) {
+            if (!duplicates.contains(i)) {
+                productCache.put(stamp, products.get(i));
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Leaves out the movement outbox, the holds, the recent batches and idempotency keys and the write-behind
+     * allocations, which {@link Product} does not map, so full-product reads do not transfer them.
+     */
+    static Query productView(Query query) {
+        UNMAPPED_FIELDS.forEach(query.fields()::exclude);
+        return query;
+    }
+
+    /**
+     * {@link #productView(Query)} that keeps the first element of {@code array} matching {@code element} instead of
+     * leaving the array out, for reads that need one entry of it.
+     */
+    static Query productView(Query query, String array, Criteria element) {
+        UNMAPPED_FIELDS.stream().filter(field -> !field.equals(array)).forEach(query.fields()::exclude);
+        query.fields().elemMatch(array, element);
+        return query;
+    }
+
+    static Query byId(String productId) {
+        return new Query(Criteria.where("_id").is(productId));
+    }
+
+    static Query byIds(Collection<String> productIds) {
+        return new Query(Criteria.where("_id").in(productIds));
+    }
+
+    static Query summaryView() {
+        Query query = new Query();
+        query.fields().include("productName", "availableQty", StockUpdates.LOCATED_QTY, StockUpdates.BELOW_THRESHOLD);
+        return query;
+    }
+
+    static Query availabilityView() {
+        Query query = new Query();
+        query.fields().include("availableQty", StockUpdates.RESERVED_QTY, StockUpdates.LOCATED_QTY);
+        return query;
+    }
+
+    static Query atVersion(String productId, Long version) {
+        return new Query(Criteria.where("_id").is(productId).and(StockUpdates.VERSION).is(version));
+    }
+
+    /**
+     * {@link #atVersion}, and for a quantity that is set, that it still covers the stock held in warehouses.
+     */
+    static Query detailsGuard(Product changes) {
+        Query query = atVersion(changes.getProductId(), changes.getVersion());
+        if (changes.getAvailableQty() != null) {
+            query.addCriteria(Criteria.expr(ComparisonOperators.valueOf(ConditionalOperators.ifNull(StockUpdates.LOCATED_QTY).then(0))
+                    .lessThanEqualToValue(changes.getAvailableQty())));
+        }
+        return query;
+    }
+
+    static Query byName(String productName) {
+        return new Query(Criteria.where("productName").is(productName));
+    }
+
+    static Query chunkEnd(String afterProductId, int chunkSize) {
+        Query query = pageAfter(afterProductId, 1).skip(chunkSize - 1L);
+        query.fields().include("_id");
+        return query;
+    }
+
+    static Query range(String afterProductId, String upToProductId) {
+        Criteria id = Criteria.where("_id");
+        if (afterProductId != null) {
+            id.gt(afterProductId);
+        }
+        if (upToProductId != null) {
+            id.lte(upToProductId);
+        }
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        if (afterProductId != null || upToProductId != null) {
+            query.addCriteria(id);
+        }
+        return query;
+    }
+
+    static Query byNames(Collection<String> productNames) {
+        Query query = new Query(Criteria.where("productName").in(productNames));
+        query.fields().include("productName");
+        return query;
+    }
+
+    static Query belowThreshold() {
+        return new Query(Criteria.where(StockUpdates.BELOW_THRESHOLD).is(true));
+    }
+
+    static Query pageAfter(String afterProductId, int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        if (afterProductId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterProductId));
+        }
+        return query;
     }
 }
\ No newline at end of file
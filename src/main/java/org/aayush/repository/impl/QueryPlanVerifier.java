@@ -0,0 +1,103 @@
+package org.aayush.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.LocationStock;
+import org.aayush.models.Product;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@code explain()} on the repository query shapes that serve single requests and reports the
+ * ones whose winning plan contains a collection scan.
+ */
+@Component
+@Slf4j
+public class QueryPlanVerifier {
+
+    private static final String SAMPLE_ID = "000000000000000000000000";
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+
+    public QueryPlanVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    public List<String> findCollectionScans() {
+        Map<String, Query> productQueries = new LinkedHashMap<>();
+        productQueries.put("findProductById", ProductRepoImpl.byId(SAMPLE_ID));
+        productQueries.put("findProductsByIds", ProductRepoImpl.byIds(List.of(SAMPLE_ID, SAMPLE_ID)));
+        productQueries.put("findProductByName", ProductRepoImpl.byName("sample"));
+        productQueries.put("findExistingProductNames", ProductRepoImpl.byNames(List.of("sample", "other")));
+        productQueries.put("findProductsBelowThreshold", ProductRepoImpl.belowThreshold());
+        productQueries.put("findProductsAfter", ProductRepoImpl.pageAfter(SAMPLE_ID, 100));
+        productQueries.put("findChunkEnd", ProductRepoImpl.chunkEnd(SAMPLE_ID, 1000));
+        productQueries.put("streamProductsBetween", ProductRepoImpl.range(SAMPLE_ID, SAMPLE_ID));
+        productQueries.put("addStock", InventoryRepoImpl.stockGuard(SAMPLE_ID, 1));
+        productQueries.put("decreaseStock", InventoryRepoImpl.stockGuard(SAMPLE_ID, -1));
+        productQueries.put("rollUpPendingTotals:fold", LocationStockRepoImpl.foldGuard(SAMPLE_ID, "sample", 1));
+
+        StockMovement lastMovement = StockMovement.builder().movementId(SAMPLE_ID + ":1").at(Instant.EPOCH).build();
+
+        List<String> collectionScans = new ArrayList<>();
+        productQueries.forEach((name, query) -> verify(name, Product.class, query, collectionScans));
+        verify("relayPendingMovements", Product.class, StockLedgerRepoImpl.pendingOutboxes(500), collectionScans);
+        verify("findExpiredHolds", Product.class, ReservationRepoImpl.expiredHolds(Instant.now(), 200), collectionScans);
+        verify("findLocations", LocationStock.class, LocationStockRepoImpl.locationsOf(SAMPLE_ID), collectionScans);
+        verify("adjustLocationStock", LocationStock.class, LocationStockRepoImpl.locationGuard(SAMPLE_ID, "sample", -1), collectionScans);
+        verify("rollUpPendingTotals", LocationStock.class, LocationStockRepoImpl.pendingTotals(500), collectionScans);
+        verify("findMovements", StockMovement.class,
+                StockLedgerRepoImpl.movementsPage(SAMPLE_ID, Instant.EPOCH, Instant.now(), lastMovement, 100), collectionScans);
+        verify("findLatestSnapshot", StockSnapshot.class,
+                StockLedgerRepoImpl.latestSnapshot(SAMPLE_ID, Instant.now()), collectionScans);
+        return collectionScans;
+    }
+
+    private void verify(String name, Class<?> entityType, Query query, List<String> collectionScans) {
+        Document plan = explain(entityType, query);
+        if (containsStage(plan, "COLLSCAN")) {
+            log.warn("Query {} performs a collection scan: {}", name, plan.toJson());
+            collectionScans.add(name);
+        } else {
+            log.debug("Query {} uses an index", name);
+        }
+    }
+
+    private Document explain(Class<?> entityType, Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        Document explanation = mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityType))
+                .find(filter)
+                .sort(sort)
+                .limit(query.getLimit())
+                .explain();
+        return explanation.get("queryPlanner", Document.class);
+    }
+
+    private boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package org.aayush.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.repository.ReactiveInventoryRepo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link InventoryRepoImpl} with the same single round trip guarded updates.
+ * An empty result means the product does not exist or the guard did not match.
+ */
+@Repository
+@Profile("reactive")
+@Slf4j
+public class ReactiveInventoryRepoImpl implements ReactiveInventoryRepo {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveInventoryRepoImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Product> addStock(String productId, Integer stockAmount) {
+        log.debug("Adding stock for product ID: {}, Amount: {}", productId, stockAmount);
+        return incrementStock(productId, stockAmount);
+    }
+
+    @Override
+    public Mono<Product> decreaseStock(String productId, Integer stockAmount) {
+        log.debug("Decreasing stock for product ID: {}, Amount: {}", productId, stockAmount);
+        return incrementStock(productId, -stockAmount);
+    }
+
+    @Override
+    public Mono<Product> findProductById(String productId) {
+        return mongoTemplate.findOne(ProductRepoImpl.productView(ProductRepoImpl.byId(productId)), Product.class);
+    }
+
+    private Mono<Product> incrementStock(String productId, int delta) {
+        return mongoTemplate.findAndModify(ProductRepoImpl.productView(InventoryRepoImpl.stockGuard(productId, delta)), StockUpdates.adjustQuantity(delta),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+}
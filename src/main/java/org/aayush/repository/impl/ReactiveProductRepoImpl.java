@@ -0,0 +1,80 @@
+package org.aayush.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.models.Product;
+import org.aayush.repository.ReactiveProductRepo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+@Slf4j
+public class ReactiveProductRepoImpl implements ReactiveProductRepo {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProductReadPreferences readPreferences;
+
+    public ReactiveProductRepoImpl(ReactiveMongoTemplate mongoTemplate, ProductReadPreferences readPreferences) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferences = readPreferences;
+    }
+
+    @Override
+    public Mono<Product> saveProduct(Product product) {
+        log.debug("Saving product to database");
+        product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+        return mongoTemplate.save(product);
+    }
+
+    /**
+     * Always reads from the primary: the reactive stack has no cache, and updates read the version they write
+     * against through here.
+     */
+    @Override
+    public Mono<Product> findProductById(String productId) {
+        log.debug("Finding product with ID: {}", productId);
+        return mongoTemplate.findOne(ProductRepoImpl.productView(ProductRepoImpl.byId(productId)), Product.class);
+    }
+
+    @Override
+    public Mono<Boolean> deleteByProductId(String productId) {
+        log.info("Deleting product by ID: {}", productId);
+        return mongoTemplate.remove(ProductRepoImpl.byId(productId), Product.class)
+                .map(result -> result.wasAcknowledged() && result.getDeletedCount() > 0);
+    }
+
+    @Override
+    public Mono<Product> updateProductDetails(Product product) {
+        log.debug("Updating product: {} at version {}", product.getProductId(), product.getVersion());
+        return mongoTemplate.findAndModify(ProductRepoImpl.productView(ProductRepoImpl.detailsGuard(product)),
+                StockUpdates.updateDetails(product), FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Flux<Product> getAllProducts() {
+        log.debug("Fetching all products");
+        return mongoTemplate.find(ProductRepoImpl.productView(new Query()).with(Sort.by(Sort.Direction.ASC, "_id"))
+                .withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
+
+    @Override
+    public Flux<Product> findProductsAfter(String afterProductId, int limit) {
+        log.debug("Fetching {} products after ID: {}", limit, afterProductId);
+        return mongoTemplate.find(ProductRepoImpl.productView(ProductRepoImpl.pageAfter(afterProductId, limit))
+                .withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
+
+    @Override
+    public Flux<Product> findProductsBelowThreshold() {
+        log.debug("Fetching products below low stock threshold");
+        return mongoTemplate.find(ProductRepoImpl.productView(ProductRepoImpl.belowThreshold())
+                .withReadPreference(readPreferences.getCatalog()), Product.class);
+    }
+}
@@ -0,0 +1,130 @@
+package org.aayush.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.models.dto.HoldChange;
+import org.aayush.models.dto.HoldStatus;
+import org.aayush.models.dto.StockHold;
+import org.aayush.repository.ReservationRepo;
+import org.bson.Document;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Holds live in a {@code holds} array on the product, so placing, confirming or releasing one is a single
+ * atomic document update that also moves the quantity between {@code availableQty} and {@code reservedQty}.
+ */
+@Repository
+@Slf4j
+public class ReservationRepoImpl implements ReservationRepo {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+
+    public ReservationRepoImpl(MongoTemplate mongoTemplate, CacheManager cacheManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = new ProductCache(cacheManager);
+    }
+
+    /**
+     * Returns null when the product does not exist, does not have enough stock, already has
+     * {@code maxHoldsPerProduct} active holds or has a full movement outbox.
+     */
+    @Override
+    public Product placeHold(StockHold hold, int maxHoldsPerProduct) {
+        log.debug("Placing hold {} on product ID: {}, Amount: {}", hold.getHoldId(), hold.getProductId(), hold.getQuantity());
+        Query query = InventoryRepoImpl.stockGuard(hold.getProductId(), -hold.getQuantity())
+                .addCriteria(Criteria.where(StockUpdates.HOLDS + "." + (maxHoldsPerProduct - 1)).exists(false));
+        long stamp = productCache.stamp();
+        Product product = mongoTemplate.findAndModify(ProductRepoImpl.productView(query),
+                StockUpdates.placeHold(hold.getHoldId(), hold.getQuantity(), Date.from(hold.getExpiresAt())),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        productCache.put(stamp, product);
+        return product;
+    }
+
+    @Override
+    public HoldChange releaseHold(String productId, String holdId) {
+        log.debug("Releasing hold {} on product ID: {}", holdId, productId);
+        return removeHold(productId, holdId, true);
+    }
+
+    @Override
+    public HoldChange confirmHold(String productId, String holdId) {
+        log.debug("Confirming hold {} on product ID: {}", holdId, productId);
+        return removeHold(productId, holdId, false);
+    }
+
+    @Override
+    public List<StockHold> findExpiredHolds(Instant now, int limit) {
+        Query query = expiredHolds(now, limit);
+        query.fields().include(StockUpdates.HOLDS);
+        List<StockHold> expired = new ArrayList<>();
+        for (Document product : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Product.class))) {
+            String productId = String.valueOf(product.get("_id"));
+            for (Document hold : product.getList(StockUpdates.HOLDS, Document.class, List.of())) {
+                StockHold stockHold = toHold(productId, hold, HoldStatus.EXPIRED);
+                if (!stockHold.getExpiresAt().isAfter(now)) {
+                    expired.add(stockHold);
+                }
+            }
+        }
+        return expired;
+    }
+
+    static Query expiredHolds(Instant now, int limit) {
+        return new Query(Criteria.where(StockUpdates.HOLDS + ".expiresAt").lte(Date.from(now)))
+                .with(Sort.by(Sort.Direction.ASC, StockUpdates.HOLDS + ".expiresAt"))
+                .limit(limit);
+    }
+
+    /**
+     * Reads the product as it was before the update, with only the removed hold left in its holds, and derives
+     * the product after it: the pipeline applies exactly that hold's quantity.
+     */
+    private HoldChange removeHold(String productId, String holdId, boolean restock) {
+        Query query = new Query(Criteria.where("_id").is(productId).and(StockUpdates.HOLDS + ".holdId").is(holdId));
+        AggregationUpdate update = StockUpdates.removeHold(holdId, restock);
+        Document before = mongoTemplate.findAndModify(
+                ProductRepoImpl.productView(query, StockUpdates.HOLDS, Criteria.where("holdId").is(holdId)),
+                update, FindAndModifyOptions.options().returnNew(false),
+                Document.class, mongoTemplate.getCollectionName(Product.class));
+        productCache.invalidate(productId);
+        if (before == null) {
+            return null;
+        }
+
+        StockHold hold = toHold(productId, before.getList(StockUpdates.HOLDS, Document.class).get(0),
+                restock ? HoldStatus.RELEASED : HoldStatus.CONFIRMED);
+        Product product = mongoTemplate.getConverter().read(Product.class, before);
+        product.setVersion(product.getVersion() != null ? product.getVersion() + 1 : 1L);
+        int reservedBefore = product.getReservedQty() != null ? product.getReservedQty() : 0;
+        product.setReservedQty(reservedBefore - hold.getQuantity());
+        if (restock) {
+            product.setAvailableQty(product.getAvailableQty() + hold.getQuantity());
+            product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+        }
+        return new HoldChange(hold, product);
+    }
+
+    private StockHold toHold(String productId, Document hold, HoldStatus status) {
+        return StockHold.builder()
+                .holdId(hold.getString("holdId"))
+                .productId(productId)
+                .quantity(hold.get("quantity", Number.class).intValue())
+                .expiresAt(hold.getDate("expiresAt").toInstant())
+                .status(status)
+                .build();
+    }
+}
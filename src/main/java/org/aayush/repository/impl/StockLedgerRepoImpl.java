@@ -0,0 +1,165 @@
+package org.aayush.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.aayush.repository.StockLedgerRepo;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+@Slf4j
+public class StockLedgerRepoImpl implements StockLedgerRepo {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public StockLedgerRepoImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Copies the outbox of up to {@code maxProducts} products into {@code stock_movements}, writing a snapshot for
+     * the first movement of a product and every {@code snapshotEvery}-th one, then drains the relayed entries.
+     * Ledger ids are deterministic, so a crash between the insert and the drain only causes duplicate inserts
+     * that are ignored on the next run. Returns the number of products relayed.
+     */
+    @Override
+    public int relayPendingMovements(int maxProducts, int snapshotEvery) {
+        Query query = pendingOutboxes(maxProducts);
+        query.fields().include(StockUpdates.PENDING_MOVEMENTS);
+        List<Document> outboxes = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Product.class));
+        if (outboxes.isEmpty()) {
+            return 0;
+        }
+
+        List<StockMovement> movements = new ArrayList<>();
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        BulkOperations drains = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Document outbox : outboxes) {
+            String productId = String.valueOf(outbox.get("_id"));
+            long relayedSeq = 0;
+            for (Document pending : outbox.getList(StockUpdates.PENDING_MOVEMENTS, Document.class, List.of())) {
+                long seq = pending.get("seq", Number.class).longValue();
+                Instant at = pending.getDate("at").toInstant();
+                movements.add(StockMovement.builder()
+                        .movementId(productId + ":" + seq)
+                        .productId(productId)
+                        .seq(seq)
+                        .delta(pending.get("delta", Number.class).intValue())
+                        .at(at)
+                        .build());
+                if (seq == 1 || seq % snapshotEvery == 0) {
+                    snapshots.add(StockSnapshot.builder()
+                            .snapshotId(productId + ":" + seq)
+                            .productId(productId)
+                            .seq(seq)
+                            .availableQty(pending.get("qtyAfter", Number.class).intValue())
+                            .at(at)
+                            .build());
+                }
+                relayedSeq = Math.max(relayedSeq, seq);
+            }
+            drains.updateOne(new Query(Criteria.where("_id").is(outbox.get("_id"))
+                            .and(StockUpdates.PENDING_MOVEMENTS).exists(true)),
+                    StockUpdates.drainMovements(relayedSeq));
+        }
+
+        insertIgnoringDuplicates(movements, StockMovement.class);
+        insertIgnoringDuplicates(snapshots, StockSnapshot.class);
+        drains.execute();
+        log.debug("Relayed {} stock movements and {} snapshots for {} products", movements.size(), snapshots.size(), outboxes.size());
+        return outboxes.size();
+    }
+
+    @Override
+    public List<StockMovement> findMovements(String productId, Instant from, Instant to, StockMovement after, int limit) {
+        log.info("Fetching {} stock movements for product ID: {} between {} and {}", limit, productId, from, to);
+        return mongoTemplate.find(movementsPage(productId, from, to, after, limit), StockMovement.class);
+    }
+
+    @Override
+    public List<StockMovement> findMovementsAfterSnapshot(StockSnapshot snapshot, Instant upTo) {
+        Query query = new Query(Criteria.where("productId").is(snapshot.getProductId())
+                .and("at").gte(snapshot.getAt()).lte(upTo)
+                .and("seq").gt(snapshot.getSeq()));
+        return mongoTemplate.find(query, StockMovement.class);
+    }
+
+    @Override
+    public List<StockMovement> findMovementsUpToSnapshot(StockSnapshot snapshot, Instant after) {
+        Query query = new Query(Criteria.where("productId").is(snapshot.getProductId())
+                .and("at").gt(after).lte(snapshot.getAt())
+                .and("seq").lte(snapshot.getSeq()));
+        return mongoTemplate.find(query, StockMovement.class);
+    }
+
+    @Override
+    public StockSnapshot findLatestSnapshot(String productId, Instant upTo) {
+        return mongoTemplate.findOne(latestSnapshot(productId, upTo), StockSnapshot.class);
+    }
+
+    @Override
+    public StockSnapshot findEarliestSnapshot(String productId) {
+        Query query = new Query(Criteria.where("productId").is(productId))
+                .with(Sort.by(Sort.Direction.ASC, "at", "seq"))
+                .limit(1);
+        return mongoTemplate.findOne(query, StockSnapshot.class);
+    }
+
+    static Query pendingOutboxes(int limit) {
+        return new Query(Criteria.where(StockUpdates.PENDING_MOVEMENTS_SINCE).lte(new Date()))
+                .with(Sort.by(Sort.Direction.ASC, StockUpdates.PENDING_MOVEMENTS_SINCE))
+                .limit(limit);
+    }
+
+    /**
+     * Keyset page over {@code (at, _id)}. The lower bound moves up to the last returned movement, so every page
+     * starts with an index seek instead of skipping the movements already returned.
+     */
+    static Query movementsPage(String productId, Instant from, Instant to, StockMovement after, int limit) {
+        Instant lowerBound = after != null && after.getAt().isAfter(from) ? after.getAt() : from;
+        Criteria criteria = Criteria.where("productId").is(productId).and("at").gte(lowerBound).lt(to);
+        if (after != null) {
+            criteria.orOperator(
+                    Criteria.where("at").gt(after.getAt()),
+                    Criteria.where("_id").gt(after.getMovementId()));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "at", "_id"))
+                .limit(limit);
+    }
+
+    static Query latestSnapshot(String productId, Instant upTo) {
+        return new Query(Criteria.where("productId").is(productId).and("at").lte(upTo))
+                .with(Sort.by(Sort.Direction.DESC, "at", "seq"))
+                .limit(1);
+    }
+
+    private void insertIgnoringDuplicates(List<?> documents, Class<?> entityType) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityType).insert(documents).execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            log.debug("Skipped {} {} documents that were already relayed", e.getErrors().size(), entityType.getSimpleName());
+        }
+    }
+}
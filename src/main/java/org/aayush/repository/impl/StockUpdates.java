@@ -0,0 +1,364 @@
+package org.aayush.repository.impl;
+
+import org.aayush.models.Product;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Pipeline updates that change the stock and recompute the persisted low-stock flag in the same
+ * atomic write, so {@code belowThreshold} can never disagree with {@code availableQty}.
+ * <p>
+ * Every quantity change also appends a movement to the product's {@code pendingMovements} outbox in that
+ * same write. {@code StockLedgerRepoImpl} relays the outbox to the {@code stock_movements} ledger, so no
+ * change can be applied without being recorded, and none needs a multi-document transaction. The outbox holds at
+ * most {@link #MAX_PENDING_MOVEMENTS} movements: stock writes guard on {@link #LAST_MOVEMENT_SLOT} and are refused
+ * while it is full, so a stalled relay cannot grow products towards the document size limit. Details updates, hold
+ * releases, location folds and returns of write-behind allocations are not refused, since they are rare and refusing
+ * them would strand stock.
+ * <p>
+ * Every write to the product also bumps its {@code version}, so a details update conditioned on the version a
+ * client read fails when anything, stock included, changed in between.
+ * <p>
+ * Warehouse stock lives in {@code location_stock} documents that keep their own {@code pendingTotals} outbox in
+ * the same way. {@code LocationStockRepoImpl} folds it into the product's {@code availableQty} and records the
+ * last folded sequence per warehouse under {@code locationSeqs}, so a fold that is retried is not applied twice.
+ * The fold also keeps the folded warehouse stock in {@code locatedQty}. Product-level decreases only take the stock
+ * above it, so a location decrease that is folded later always finds its stock still in the total, and
+ * {@code belowThreshold} is computed on that unassigned stock too, since it is all the product-level endpoints can
+ * sell. A product with folded locations but no {@code locatedQty} predates it and is left unset by the fold until
+ * {@code LocationStockRepo.backfillLocatedQty} has computed it.
+ */
+public final class StockUpdates {
+
+    public static final String BELOW_THRESHOLD = "belowThreshold";
+    public static final String STOCK_SEQ = "stockSeq";
+    public static final String PENDING_MOVEMENTS = "pendingMovements";
+    public static final String PENDING_MOVEMENTS_SINCE = "pendingMovementsSince";
+    public static final String RESERVED_QTY = "reservedQty";
+    public static final String HOLDS = "holds";
+    public static final String VERSION = "version";
+    public static final String LOCATION_SEQS = "locationSeqs";
+    public static final String LOCATED_QTY = "locatedQty";
+    public static final String PENDING_TOTALS = "pendingTotals";
+    public static final String PENDING_TOTALS_SINCE = "pendingTotalsSince";
+    public static final String RECENT_BATCHES = "recentBatches";
+    public static final String ALLOCATIONS = "allocations";
+    public static final String RECENT_KEYS = "recentKeys";
+    public static final int MAX_PENDING_MOVEMENTS = 10_000;
+    public static final int RECENT_BATCHES_KEPT = 32;
+    public static final int RECENT_KEYS_KEPT = 256;
+    /**
+     * The outbox entry that only exists once the outbox is full.
+     */
+    public static final String LAST_MOVEMENT_SLOT = PENDING_MOVEMENTS + "." + (MAX_PENDING_MOVEMENTS - 1);
+
+    private StockUpdates() {
+    }
+
+    public static AggregationUpdate adjustQuantity(int delta) {
+        return adjustQuantityBy(delta);
+    }
+
+    /**
+     * Moves {@code quantity} out of {@code availableQty} into the write-behind allocation {@code allocationId}, and
+     * adds it to the quantity recorded as granted to that allocation under {@code allocations}.
+     */
+    public static AggregationUpdate grantAllocation(String allocationId, int quantity) {
+        String granted = ALLOCATIONS + "." + allocationId;
+        return adjustQuantity(-quantity)
+                .set(granted).toValue(expression(new Document("$add", List.of(
+                        new Document("$ifNull", Arrays.asList("$" + granted, 0)), quantity))));
+    }
+
+    /**
+     * Closes the write-behind allocation {@code allocationId}: adds what was granted to it minus {@code consumed}
+     * back to {@code availableQty} and drops its record, removing {@code allocations} once it is empty.
+     */
+    public static AggregationUpdate returnAllocation(String allocationId, long consumed) {
+        String granted = ALLOCATIONS + "." + allocationId;
+        Document unused = new Document("$max", List.of(new Document("$subtract", List.of(
+                new Document("$ifNull", Arrays.asList("$" + granted, 0)), consumed)), 0));
+        Document empty = new Document("$eq", List.of("$" + ALLOCATIONS, new Document()));
+        return adjustQuantityBy(unused)
+                .unset(granted)
+                .set(ALLOCATIONS).toValue(expression(ifEmpty(empty, "$" + ALLOCATIONS)));
+    }
+
+    private static AggregationUpdate adjustQuantityBy(Object delta) {
+        return AggregationUpdate.update()
+                .set(recordMovement(delta, new Document("$add", List.of(availableQty(), delta))))
+                .set(SetOperation.set("availableQty").toValue(expression(new Document("$add", List.of(availableQty(), delta))))
+                        .and().set(VERSION).toValue(expression(nextVersion())))
+                .set(BELOW_THRESHOLD).toValue(belowThreshold());
+    }
+
+    /**
+     * {@link #adjustQuantity(int)} for a line of batch {@code batchId}. Also appends {@code {batch, qtyAfter}} to the
+     * product's {@code recentBatches}, which keeps the last {@link #RECENT_BATCHES_KEPT} entries, so the batch can
+     * read back which of its lines were applied and the quantity each left.
+     */
+    public static AggregationUpdate adjustQuantityInBatch(int delta, ObjectId batchId) {
+        Document entry = new Document("batch", batchId).append("qtyAfter", "$availableQty");
+        Document recent = new Document("$concatArrays", List.of(
+                new Document("$ifNull", Arrays.asList("$" + RECENT_BATCHES, List.of())),
+                List.of(entry)));
+        return adjustQuantity(delta)
+                .set(RECENT_BATCHES).toValue(expression(new Document("$slice", List.of(recent, -RECENT_BATCHES_KEPT))));
+    }
+
+    /**
+     * {@link #adjustQuantity(int)} for a request carrying {@code idempotencyKey}. Also appends
+     * {@code {key, delta, qtyAfter, version}} to the product's {@code recentKeys}, which keeps the last
+     * {@link #RECENT_KEYS_KEPT} entries, so a retry is recognised and answered from the product it changed.
+     */
+    public static AggregationUpdate adjustQuantityForKey(int delta, String idempotencyKey) {
+        Document entry = new Document("key", literal(idempotencyKey))
+                .append("delta", delta)
+                .append("qtyAfter", "$availableQty")
+                .append("version", "$" + VERSION);
+        Document recent = new Document("$concatArrays", List.of(
+                new Document("$ifNull", Arrays.asList("$" + RECENT_KEYS, List.of())),
+                List.of(entry)));
+        return adjustQuantity(delta)
+                .set(RECENT_KEYS).toValue(expression(new Document("$slice", List.of(recent, -RECENT_KEYS_KEPT))));
+    }
+
+    /**
+     * Sets the non-null editable fields of {@code changes} and leaves the others as stored, so an edit of the
+     * name or description never writes {@code availableQty}. A quantity that is set is recorded as a movement
+     * of the difference. Values are wrapped in {@code $literal} so user input starting with {@code $} is never
+     * read as a field path.
+     */
+    public static AggregationUpdate updateDetails(Product changes) {
+        AggregationUpdate update = AggregationUpdate.update();
+        SetOperation fields = SetOperation.set(VERSION).toValue(expression(nextVersion()));
+        if (changes.getProductName() != null) {
+            fields = fields.and().set("productName").toValue(expression(literal(changes.getProductName())));
+        }
+        if (changes.getProductDesc() != null) {
+            fields = fields.and().set("productDesc").toValue(expression(literal(changes.getProductDesc())));
+        }
+        if (changes.getEnableLowStockThreshold() != null) {
+            fields = fields.and().set("enableLowStockThreshold").toValue(expression(literal(changes.getEnableLowStockThreshold())));
+        }
+        if (changes.getLowStockThreshold() != null) {
+            fields = fields.and().set("lowStockThreshold").toValue(expression(literal(changes.getLowStockThreshold())));
+        }
+        if (changes.getAvailableQty() != null) {
+            Document newQty = literal(changes.getAvailableQty());
+            update.set(recordMovement(new Document("$subtract", List.of(newQty, availableQty())), newQty));
+            fields = fields.and().set("availableQty").toValue(expression(newQty));
+        }
+        return update.set(fields)
+                .set(BELOW_THRESHOLD).toValue(belowThreshold());
+    }
+
+    /**
+     * Moves {@code quantity} from {@code availableQty} to {@code reservedQty} and records the hold on the product,
+     * so the hold and the stock it takes are written together.
+     */
+    public static AggregationUpdate placeHold(String holdId, int quantity, Date expiresAt) {
+        Document hold = new Document("holdId", literal(holdId))
+                .append("quantity", quantity)
+                .append("expiresAt", literal(expiresAt));
+        return adjustQuantity(-quantity)
+                .set(SetOperation.set(RESERVED_QTY).toValue(expression(new Document("$add", List.of(reservedQty(), quantity))))
+                        .and().set(HOLDS).toValue(expression(new Document("$concatArrays", List.of(holds(), List.of(hold))))));
+    }
+
+    /**
+     * Removes a hold from the product. A released hold returns its quantity to {@code availableQty} and is
+     * recorded as a movement; a confirmed hold only leaves {@code reservedQty}, since its stock has been sold.
+     */
+    public static AggregationUpdate removeHold(String holdId, boolean restock) {
+        Document matches = new Document("$eq", List.of("$$this.holdId", literal(holdId)));
+        Document heldQty = new Document("$reduce", new Document("input",
+                new Document("$filter", new Document("input", holds()).append("cond", matches)))
+                .append("initialValue", 0)
+                .append("in", new Document("$add", List.of("$$value", "$$this.quantity"))));
+        Document remainingHolds = new Document("$filter", new Document("input", holds())
+                .append("cond", new Document("$not", List.of(matches))));
+
+        SetOperation removal = SetOperation.set(RESERVED_QTY).toValue(expression(new Document("$subtract", List.of(reservedQty(), heldQty))))
+                .and().set(HOLDS).toValue(expression(remainingHolds))
+                .and().set(VERSION).toValue(expression(nextVersion()));
+        AggregationUpdate update = AggregationUpdate.update();
+        if (restock) {
+            update.set(recordMovement(heldQty, new Document("$add", List.of(availableQty(), heldQty))))
+                    .set(removal.and().set("availableQty").toValue(expression(new Document("$add", List.of(availableQty(), heldQty)))))
+                    .set(BELOW_THRESHOLD).toValue(belowThreshold());
+        } else {
+            update.set(removal);
+        }
+        Document empty = new Document("$eq", List.of(new Document("$size", "$" + HOLDS), 0));
+        return update.set(HOLDS).toValue(expression(ifEmpty(empty, "$" + HOLDS)));
+    }
+
+    /**
+     * Changes the stock of a location by {@code delta} and appends {@code {seq, delta}} to its totals outbox.
+     * Also sets the product and warehouse ids, so an upsert creates a complete document.
+     */
+    public static AggregationUpdate adjustLocation(String productId, String warehouseId, int delta) {
+        Document nextSeq = new Document("$add", List.of(new Document("$ifNull", Arrays.asList("$" + STOCK_SEQ, 0)), 1));
+        Document outbox = new Document("$concatArrays", List.of(
+                new Document("$ifNull", Arrays.asList("$" + PENDING_TOTALS, List.of())),
+                List.of(new Document("seq", nextSeq).append("delta", delta))));
+        return AggregationUpdate.update()
+                .set(SetOperation.set("productId").toValue(expression(literal(productId)))
+                        .and().set("warehouseId").toValue(expression(literal(warehouseId)))
+                        .and().set("availableQty").toValue(expression(new Document("$add", List.of(availableQty(), delta))))
+                        .and().set(STOCK_SEQ).toValue(expression(nextSeq))
+                        .and().set(PENDING_TOTALS).toValue(expression(outbox))
+                        .and().set(PENDING_TOTALS_SINCE).toValue(expression(
+                                new Document("$ifNull", Arrays.asList("$" + PENDING_TOTALS_SINCE, "$$NOW")))));
+    }
+
+    /**
+     * Adds the location changes of {@code warehouseId} up to {@code foldedSeq} to the product total, as one
+     * movement, and to {@code locatedQty}, and records {@code foldedSeq} as folded for that warehouse. A product
+     * that has folded locations before but has no {@code locatedQty} keeps it unset for the backfill, which would
+     * otherwise start from this one delta.
+     */
+    public static AggregationUpdate foldLocationTotals(String warehouseId, int delta, long foldedSeq) {
+        Document tracked = new Document("$or", List.of(
+                new Document("$ne", Arrays.asList(new Document("$type", "$" + LOCATED_QTY), "missing")),
+                new Document("$eq", Arrays.asList(new Document("$type", "$" + LOCATION_SEQS), "missing"))));
+        Document locatedQty = new Document("$add", List.of(
+                new Document("$ifNull", Arrays.asList("$" + LOCATED_QTY, 0)), delta));
+        return adjustQuantity(delta)
+                .set(LOCATED_QTY).toValue(expression(when(tracked, locatedQty, "$$REMOVE")))
+                .set(LOCATION_SEQS + "." + warehouseId).toValue(foldedSeq)
+                .set(BELOW_THRESHOLD).toValue(belowThreshold());
+    }
+
+    /**
+     * Sets the {@code locatedQty} of a product that predates it and recomputes its low-stock flag. The version is
+     * written back unchanged, as for {@link #drainMovements(long)}: the stock has not changed.
+     */
+    public static AggregationUpdate backfillLocatedQty(int locatedQty) {
+        return AggregationUpdate.update()
+                .set(LOCATED_QTY).toValue(locatedQty)
+                .set(SetOperation.set(BELOW_THRESHOLD).toValue(belowThreshold())
+                        .and().set(VERSION).toValue(expression(new Document("$ifNull", Arrays.asList("$" + VERSION, "$$REMOVE")))));
+    }
+
+    /**
+     * Drops the folded entries (sequence up to {@code foldedSeq}) from a location's totals outbox and removes the
+     * outbox fields once it is empty.
+     */
+    public static AggregationUpdate drainLocationTotals(long foldedSeq) {
+        Document remaining = new Document("$filter", new Document("input", "$" + PENDING_TOTALS)
+                .append("cond", new Document("$gt", List.of("$$this.seq", foldedSeq))));
+        Document empty = new Document("$eq", List.of(new Document("$size", "$" + PENDING_TOTALS), 0));
+        return AggregationUpdate.update()
+                .set(PENDING_TOTALS).toValue(expression(remaining))
+                .set(SetOperation.set(PENDING_TOTALS).toValue(expression(ifEmpty(empty, "$" + PENDING_TOTALS)))
+                        .and().set(PENDING_TOTALS_SINCE).toValue(expression(ifEmpty(empty, "$" + PENDING_TOTALS_SINCE))));
+    }
+
+    public static AggregationUpdate recomputeBelowThreshold() {
+        return AggregationUpdate.update()
+                .set(BELOW_THRESHOLD).toValue(belowThreshold());
+    }
+
+    /**
+     * Drops the relayed movements (sequence up to {@code relayedSeq}) from the outbox and removes the outbox
+     * fields once it is empty, which takes the product out of the sparse relay index. The version is written
+     * back unchanged: draining is bookkeeping, and the template would otherwise bump it for a versioned entity.
+     */
+    public static AggregationUpdate drainMovements(long relayedSeq) {
+        Document remaining = new Document("$filter", new Document("input", "$" + PENDING_MOVEMENTS)
+                .append("cond", new Document("$gt", List.of("$$this.seq", relayedSeq))));
+        Document empty = new Document("$eq", List.of(new Document("$size", "$" + PENDING_MOVEMENTS), 0));
+        return AggregationUpdate.update()
+                .set(PENDING_MOVEMENTS).toValue(expression(remaining))
+                .set(SetOperation.set(PENDING_MOVEMENTS).toValue(expression(ifEmpty(empty, "$" + PENDING_MOVEMENTS)))
+                        .and().set(PENDING_MOVEMENTS_SINCE).toValue(expression(ifEmpty(empty, "$" + PENDING_MOVEMENTS_SINCE)))
+                        .and().set(VERSION).toValue(expression(new Document("$ifNull", Arrays.asList("$" + VERSION, "$$REMOVE")))));
+    }
+
+    /**
+     * Whether the product's unassigned stock is below its enabled threshold, as {@code belowThreshold} is stored.
+     */
+    public static boolean isBelowThreshold(Product product) {
+        return isBelowThreshold(product.getEnableLowStockThreshold(), product.getUnassignedQty(),
+                product.getLowStockThreshold());
+    }
+
+    public static boolean isBelowThreshold(Boolean enableLowStockThreshold, Integer availableQty, Integer lowStockThreshold) {
+        return Boolean.TRUE.equals(enableLowStockThreshold)
+                && availableQty != null
+                && lowStockThreshold != null
+                && availableQty < lowStockThreshold;
+    }
+
+    private static AggregationExpression belowThreshold() {
+        Document unassignedQty = new Document("$subtract", List.of(availableQty(),
+                new Document("$ifNull", Arrays.asList("$" + LOCATED_QTY, 0))));
+        return expression(new Document("$and", List.of(
+                new Document("$eq", List.of("$enableLowStockThreshold", true)),
+                new Document("$lt", List.of(unassignedQty, "$lowStockThreshold")))));
+    }
+
+    /**
+     * Bumps {@code stockSeq} and appends {@code {seq, delta, qtyAfter, at}} to the outbox, all evaluated against
+     * the document before the quantity changes. A zero delta leaves both untouched.
+     */
+    private static SetOperation recordMovement(Object delta, Object qtyAfter) {
+        Document changed = new Document("$ne", Arrays.asList(delta, 0));
+        Document nextSeq = new Document("$add", List.of(new Document("$ifNull", Arrays.asList("$" + STOCK_SEQ, 0)), 1));
+        Document movement = new Document("seq", nextSeq)
+                .append("delta", delta)
+                .append("qtyAfter", qtyAfter)
+                .append("at", "$$NOW");
+        Document outbox = new Document("$concatArrays", List.of(
+                new Document("$ifNull", Arrays.asList("$" + PENDING_MOVEMENTS, List.of())),
+                List.of(movement)));
+        Document since = new Document("$ifNull", Arrays.asList("$" + PENDING_MOVEMENTS_SINCE, "$$NOW"));
+        return SetOperation.set(STOCK_SEQ).toValue(expression(when(changed, nextSeq, "$" + STOCK_SEQ)))
+                .and().set(PENDING_MOVEMENTS).toValue(expression(when(changed, outbox, "$" + PENDING_MOVEMENTS)))
+                .and().set(PENDING_MOVEMENTS_SINCE).toValue(expression(when(changed, since, "$" + PENDING_MOVEMENTS_SINCE)));
+    }
+
+    private static Document nextVersion() {
+        return new Document("$add", List.of(new Document("$ifNull", Arrays.asList("$" + VERSION, 0)), 1));
+    }
+
+    /**
+     * The stored quantity, with a missing {@code availableQty} read as zero.
+     */
+    private static Document availableQty() {
+        return new Document("$ifNull", Arrays.asList("$availableQty", 0));
+    }
+
+    private static Document reservedQty() {
+        return new Document("$ifNull", Arrays.asList("$" + RESERVED_QTY, 0));
+    }
+
+    private static Document holds() {
+        return new Document("$ifNull", Arrays.asList("$" + HOLDS, List.of()));
+    }
+
+    private static Document when(Object condition, Object then, Object otherwise) {
+        return new Document("$cond", Arrays.asList(condition, then, otherwise));
+    }
+
+    private static Document ifEmpty(Object emptyCondition, Object otherwise) {
+        return when(emptyCondition, "$$REMOVE", otherwise);
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private static AggregationExpression expression(Document document) {
+        return context -> document;
+    }
+}
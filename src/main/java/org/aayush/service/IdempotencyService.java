@@ -0,0 +1,9 @@
+package org.aayush.service;
+
+import org.aayush.models.Product;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    Product execute(String idempotencyKey, String fingerprint, Supplier<Product> operation);
+}
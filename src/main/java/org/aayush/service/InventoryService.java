@@ -1,8 +1,15 @@
 package org.aayush.service;
 
 import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.StockAdjustmentLine;
+
+import java.util.List;
 
 public interface InventoryService {
     Product addStock(String productId, Integer stockAmount);
+    Product addStock(String productId, Integer stockAmount, String idempotencyKey);
     Product decreaseStock(String productId, Integer stockAmount);
+    Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey);
+    BatchStockAdjustmentResponse adjustStock(List<StockAdjustmentLine> lines, boolean atomic);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.aayush.service;
+
+import org.aayush.models.LocationStock;
+import org.aayush.models.dto.StockAvailability;
+
+import java.util.List;
+
+public interface LocationStockService {
+    LocationStock addStock(String productId, String warehouseId, Integer stockAmount);
+    LocationStock decreaseStock(String productId, String warehouseId, Integer stockAmount);
+    List<LocationStock> getLocations(String productId);
+    LocationStock getLocation(String productId, String warehouseId);
+    StockAvailability getAvailability(String productId);
+}
@@ -0,0 +1,13 @@
+package org.aayush.service;
+
+import org.aayush.models.dto.ProductImportError;
+import org.aayush.models.dto.ProductImportFormat;
+import org.aayush.models.dto.ProductImportSummary;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+public interface ProductImportService {
+    ProductImportSummary importProducts(Reader input, ProductImportFormat format, Consumer<ProductImportError> errors) throws IOException;
+}
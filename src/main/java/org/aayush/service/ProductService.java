@@ -2,16 +2,30 @@ package org.aayush.service;
 
 import org.aayush.models.Product;
 import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductExportChunk;
+import org.aayush.models.dto.ProductLookupResponse;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductSummary;
 import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.models.dto.StockAvailability;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductService {
     Product createAndSaveProduct(ProductCreateRequest request);
     Product findProductById(String productId);
+    ProductSummary findProductSummary(String productId);
+    StockAvailability findProductAvailability(String productId);
+    ProductLookupResponse lookupAvailability(List<String> productIds);
     void deleteProductById(String productId);
     Product updateProductDetails(ProductUpdateRequest request);
     List<Product> getAllProducts();
+    List<ProductSummary> getAllProductSummaries();
+    List<StockAvailability> getAllProductAvailability();
+    ProductPage getProductsPage(String continuationToken, Integer limit);
+    Stream<Product> streamAllProducts();
+    ProductExportChunk exportProducts(String continuationToken, Integer chunkSize);
     List<Product> findProductsBelowThreshold();
     Product findProductByName(String productName);
 }
\ No newline at end of file
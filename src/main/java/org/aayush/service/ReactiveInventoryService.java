@@ -0,0 +1,25 @@
+package org.aayush.service;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.StockAdjustmentLine;
+import org.aayush.models.dto.StockHold;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReactiveInventoryService {
+    Mono<Product> addStock(String productId, Integer stockAmount);
+    Mono<Product> addStock(String productId, Integer stockAmount, String idempotencyKey);
+    Mono<Product> decreaseStock(String productId, Integer stockAmount);
+    Mono<Product> decreaseStock(String productId, Integer stockAmount, String idempotencyKey);
+    Mono<BatchStockAdjustmentResponse> adjustStock(List<StockAdjustmentLine> lines, boolean atomic);
+    Mono<StockHold> placeHold(String productId, Integer amount, Integer ttlSeconds);
+    Mono<StockHold> confirmHold(String productId, String holdId);
+    Mono<StockHold> releaseHold(String productId, String holdId);
+    Mono<StockMovementPage> getMovements(String productId, Instant from, Instant to, Integer limit, String continuationToken);
+    Mono<StockLevel> getStockAt(String productId, Instant at);
+}
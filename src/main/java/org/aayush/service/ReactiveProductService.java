@@ -0,0 +1,18 @@
+package org.aayush.service;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductUpdateRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductService {
+    Mono<Product> createAndSaveProduct(ProductCreateRequest request);
+    Mono<Product> findProductById(String productId);
+    Mono<Void> deleteProductById(String productId);
+    Mono<Product> updateProductDetails(ProductUpdateRequest request);
+    Flux<Product> getAllProducts();
+    Mono<ProductPage> getProductsPage(String continuationToken, Integer limit);
+    Flux<Product> findProductsBelowThreshold();
+}
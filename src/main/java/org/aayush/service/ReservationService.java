@@ -0,0 +1,12 @@
+package org.aayush.service;
+
+import org.aayush.models.dto.StockHold;
+
+import java.time.Instant;
+
+public interface ReservationService {
+    StockHold placeHold(String productId, Integer amount, Integer ttlSeconds);
+    StockHold confirmHold(String productId, String holdId);
+    StockHold releaseHold(String productId, String holdId);
+    int releaseExpiredHolds(Instant now, int limit);
+}
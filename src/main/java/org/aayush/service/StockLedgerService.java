@@ -0,0 +1,11 @@
+package org.aayush.service;
+
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+
+import java.time.Instant;
+
+public interface StockLedgerService {
+    StockMovementPage getMovements(String productId, Instant from, Instant to, Integer limit, String continuationToken);
+    StockLevel getStockAt(String productId, Instant at);
+}
@@ -0,0 +1,63 @@
+package org.aayush.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.service.ReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reclaims expired holds. Each sweep reads only products with an expired hold through the index on
+ * {@code holds.expiresAt}, so its cost follows the number of expired holds rather than the catalogue size.
+ */
+@Component
+@Slf4j
+public class HoldExpirySweeper {
+
+    private final ReservationService reservationService;
+    private final long sweepIntervalMillis;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public HoldExpirySweeper(ReservationService reservationService,
+                             @Value("${warehouse.holds.sweep-interval-ms:1000}") long sweepIntervalMillis,
+                             @Value("${warehouse.holds.sweep-batch-size:200}") int batchSize) {
+        this.reservationService = reservationService;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void sweep() {
+        try {
+            Instant now = Instant.now();
+            int swept;
+            do {
+                swept = reservationService.releaseExpiredHolds(now, batchSize);
+            } while (swept == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Releasing expired holds failed, retrying in {} ms: {}", sweepIntervalMillis, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+}
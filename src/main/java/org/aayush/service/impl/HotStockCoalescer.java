@@ -0,0 +1,325 @@
+package org.aayush.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.models.Product;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.repository.impl.StockUpdates;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind path for stock decreases on hot products. A product becomes hot once it sees
+ * {@code hot-threshold} decreases within one second. This node then moves an allocation of its stock out
+ * of MongoDB with one guarded decrement and serves decreases from an in-memory counter, so hundreds of
+ * decreases coalesce into one document write.
+ * <p>
+ * Overselling is impossible because the allocation is already deducted in MongoDB before any of it is
+ * handed out, and the counter never goes below zero. Every accepted decrease is journaled to local disk
+ * before it is acknowledged. Allocations are returned when a product goes idle or the application stops.
+ * <p>
+ * Each allocation has an id. The grant is journaled before MongoDB is asked for the stock, and MongoDB records
+ * what it granted under that id in the same write. A return adds back the recorded grant minus what was
+ * consumed and drops the record, so it is applied at most once. The release is only journaled once MongoDB has
+ * taken the stock back. On startup every allocation the journal shows as not released is returned, with the
+ * consumption the journal records; one that never reached MongoDB returns nothing. A return that fails is retried
+ * at every release check.
+ * <p>
+ * While allocated, that quantity is missing from the product document. Everything that reads
+ * {@code availableQty} in MongoDB sees the stock without it: the {@code belowThreshold} flag and
+ * {@code /product/low-stock} can report a hot product as low, and holds and batch adjustments are guarded
+ * against the smaller quantity and can be refused stock this node still holds. This lasts until the
+ * allocation is returned, at most {@code idle-release-ms} after the last decrease plus one release check.
+ * <p>
+ * The journal is truncated once no product is hot and no return is pending. Truncation and every journaled
+ * grant, decrease or return hold the same lock, so no record is written between the check and the truncation
+ * and then lost.
+ */
+@Component
+@Slf4j
+public class HotStockCoalescer {
+
+    private final InventoryRepo inventoryRepo;
+    private final boolean enabled;
+    private final int hotThreshold;
+    private final int allocationSize;
+    private final long idleReleaseMillis;
+    private final long releaseCheckIntervalMillis;
+    private final Path journalPath;
+    private final Map<String, HotStock> hotStocks = new ConcurrentHashMap<>();
+    private final Map<String, StockJournal.Allocation> pendingReturns = new ConcurrentHashMap<>();
+    private final Cache<String, RateWindow> decreaseRates;
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    private StockJournal journal;
+    private ScheduledExecutorService releaser;
+
+    public HotStockCoalescer(InventoryRepo inventoryRepo,
+                             @Value("${warehouse.write-behind.enabled:false}") boolean enabled,
+                             @Value("${warehouse.write-behind.hot-threshold:50}") int hotThreshold,
+                             @Value("${warehouse.write-behind.allocation-size:100}") int allocationSize,
+                             @Value("${warehouse.write-behind.idle-release-ms:2000}") long idleReleaseMillis,
+                             @Value("${warehouse.write-behind.release-check-interval-ms:250}") long releaseCheckIntervalMillis,
+                             @Value("${warehouse.write-behind.journal-path:data/stock-journal.log}") String journalPath) {
+        this.inventoryRepo = inventoryRepo;
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        this.allocationSize = allocationSize;
+        this.idleReleaseMillis = idleReleaseMillis;
+        this.releaseCheckIntervalMillis = releaseCheckIntervalMillis;
+        this.journalPath = Path.of(journalPath);
+        this.decreaseRates = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        journal = new StockJournal(journalPath);
+        recover();
+        releaser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-stock-releaser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        releaser.scheduleWithFixedDelay(this::releaseIdle, releaseCheckIntervalMillis, releaseCheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("Write-behind stock coalescing enabled, hot threshold: {}/s, allocation size: {}", hotThreshold, allocationSize);
+    }
+
+    /**
+     * Serves the decrease from this node's allocation when the product is hot. Returns the product as seen
+     * by this node after the decrease, or null when the caller should decrease the stock in MongoDB itself:
+     * coalescing is disabled, the product is not hot, or MongoDB cannot cover the allocation.
+     */
+    public Product tryDecrease(String productId, int stockAmount) {
+        if (!enabled) {
+            return null;
+        }
+        HotStock hotStock = hotStocks.get(productId);
+        if (hotStock == null) {
+            if (recordDecrease(productId) < hotThreshold) {
+                return null;
+            }
+            hotStock = hotStocks.computeIfAbsent(productId, HotStock::new);
+        }
+        return hotStock.decrease(stockAmount);
+    }
+
+    int hotProductCount() {
+        return hotStocks.size();
+    }
+
+    private int recordDecrease(String productId) {
+        return decreaseRates.get(productId, id -> new RateWindow()).increment(System.currentTimeMillis() / 1000);
+    }
+
+    void releaseIdle() {
+        long idleSince = System.currentTimeMillis() - idleReleaseMillis;
+        hotStocks.values().forEach(hotStock -> {
+            if (hotStock.lastDecreaseMillis < idleSince) {
+                hotStock.retire();
+            }
+        });
+        pendingReturns.forEach((allocationId, allocation) -> {
+            if (returnToStore(allocationId, allocation)) {
+                pendingReturns.remove(allocationId);
+            }
+        });
+        journalLock.writeLock().lock();
+        try {
+            if (hotStocks.isEmpty() && pendingReturns.isEmpty() && journal.size() > 0) {
+                journal.truncate();
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    int pendingReturnCount() {
+        return pendingReturns.size();
+    }
+
+    private void recover() {
+        journal.openAllocations().forEach((allocationId, allocation) -> {
+            log.info("Returning the unused part of allocation {} of product ID: {}", allocationId, allocation.productId());
+            release(allocationId, allocation);
+        });
+        if (pendingReturns.isEmpty()) {
+            journal.truncate();
+        }
+    }
+
+    /**
+     * Returns what is left of an allocation, or keeps it pending for the next release check when MongoDB cannot
+     * take it back now.
+     */
+    private void release(String allocationId, StockJournal.Allocation allocation) {
+        if (!returnToStore(allocationId, allocation)) {
+            pendingReturns.put(allocationId, allocation);
+        }
+    }
+
+    private boolean returnToStore(String allocationId, StockJournal.Allocation allocation) {
+        try {
+            if (inventoryRepo.returnAllocation(allocation.productId(), allocationId, allocation.consumed()) == null) {
+                log.debug("Allocation {} of product ID: {} holds nothing in MongoDB", allocationId, allocation.productId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not return allocation {} of product ID: {}, retrying at the next release check",
+                    allocationId, allocation.productId(), e);
+            return false;
+        }
+        journal.appendDurably(StockJournal.RELEASE, allocation.productId(), allocationId, allocation.consumed());
+        return true;
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        releaser.shutdownNow();
+        hotStocks.values().forEach(HotStock::retire);
+        journal.close();
+    }
+
+    private static class RateWindow {
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        int increment(long currentSecond) {
+            long windowSecond = second.get();
+            if (windowSecond != currentSecond && second.compareAndSet(windowSecond, currentSecond)) {
+                count.set(0);
+            }
+            return count.incrementAndGet();
+        }
+    }
+
+    private class HotStock {
+        private final String productId;
+        private final String allocationId = new ObjectId().toHexString();
+        private final AtomicLong remaining = new AtomicLong();
+        private volatile Product snapshot;
+        private volatile long lastDecreaseMillis = System.currentTimeMillis();
+        private long granted;
+        private boolean journaled;
+        private boolean retired;
+
+        HotStock(String productId) {
+            this.productId = productId;
+        }
+
+        Product decrease(int stockAmount) {
+            lastDecreaseMillis = System.currentTimeMillis();
+            journalLock.readLock().lock();
+            try {
+                while (true) {
+                    long current = remaining.get();
+                    if (current >= stockAmount) {
+                        if (remaining.compareAndSet(current, current - stockAmount)) {
+                            journal.appendDurably(StockJournal.CONSUME, productId, allocationId, stockAmount);
+                            return view(current - stockAmount);
+                        }
+                    } else if (!refill(stockAmount)) {
+                        return null;
+                    }
+                }
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Tops the allocation up from MongoDB, journaling the grant first so a crash during the write cannot lose
+         * it. When MongoDB cannot cover it, the product stops being served from memory and what is left of the
+         * allocation goes back, so the caller's fallback sees all the stock. A grant whose write fails is not
+         * counted here, but the return adds back whatever MongoDB recorded for it.
+         */
+        private synchronized boolean refill(int stockAmount) {
+            if (retired) {
+                return false;
+            }
+            if (remaining.get() >= stockAmount) {
+                return true;
+            }
+            int grant = Math.max(allocationSize, stockAmount);
+            journal.appendDurably(StockJournal.GRANT, productId, allocationId, grant);
+            journaled = true;
+            Product product = inventoryRepo.grantAllocation(productId, allocationId, grant);
+            if (product == null) {
+                log.debug("MongoDB cannot cover an allocation of {} for product ID: {}", grant, productId);
+                retire();
+                return false;
+            }
+            snapshot = product;
+            granted += grant;
+            remaining.addAndGet(grant);
+            log.debug("Allocated {} units of product ID: {} to this node", grant, productId);
+            return true;
+        }
+
+        /**
+         * Stops serving the product from memory and returns the unused allocation. Decreases that lose the
+         * race with retirement find nothing left and fall back to MongoDB. Holds the journal lock, taken before
+         * this allocation's monitor as in {@link #decrease}, so the journal cannot be truncated between the
+         * product leaving the hot set and its return being settled.
+         */
+        void retire() {
+            journalLock.readLock().lock();
+            try {
+                retireAllocation();
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        }
+
+        private synchronized void retireAllocation() {
+            if (retired) {
+                return;
+            }
+            retired = true;
+            hotStocks.remove(productId, this);
+            long unused = remaining.getAndSet(0);
+            if (journaled) {
+                release(allocationId, new StockJournal.Allocation(productId, granted - unused));
+            }
+            log.debug("Product ID: {} is no longer served from memory", productId);
+        }
+
+        /**
+         * The product as MongoDB returned it at the last grant, with the unused allocation counted back into
+         * {@code availableQty} and the low-stock flag following it. Every other field, the version included, is
+         * the stored one.
+         */
+        private Product view(long remainingAfter) {
+            Product product = snapshot.toBuilder()
+                    .availableQty((int) Math.min(Integer.MAX_VALUE, snapshot.getAvailableQty() + remainingAfter))
+                    .build();
+            product.setBelowThreshold(StockUpdates.isBelowThreshold(product));
+            return product;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.aayush.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.IdempotencyKeyReusedException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.models.Product;
+import org.aayush.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per {@code Idempotency-Key} and replays its result for retries.
+ * <p>
+ * The durable record of a key is written by the operation itself: keyed stock changes record the key on the product
+ * in the same write that changes the stock, so a retry on any instance, or after the instance that ran the original
+ * died, is either applied or answered from the product, with no extra round trip and no claim left behind. This
+ * service keeps outcomes in a bounded in-process LRU in front of that, so a retry reaching the same instance is
+ * answered without a database round trip, a retry arriving while the original is still running waits for it
+ * instead of racing it, and a key reused for a different request is refused. When the operation fails the key is
+ * forgotten so the client can retry.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Outcome> recentOutcomes;
+
+    public IdempotencyServiceImpl(@Value("${warehouse.idempotency.local-cache-size:10000}") long localCacheSize,
+                                  @Value("${warehouse.idempotency.local-cache-ttl-ms:600000}") long localCacheTtlMillis) {
+        this.recentOutcomes = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfterWrite(Duration.ofMillis(localCacheTtlMillis))
+                .build();
+    }
+
+    @Override
+    public Product execute(String idempotencyKey, String fingerprint, Supplier<Product> operation) {
+        if (idempotencyKey == null) {
+            return operation.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Outcome outcome = new Outcome(fingerprint);
+        Outcome existing = recentOutcomes.asMap().putIfAbsent(idempotencyKey, outcome);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            log.debug("Replaying result for idempotency key: {}", idempotencyKey);
+            return existing.await();
+        }
+
+        try {
+            Product result = operation.get();
+            outcome.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            recentOutcomes.asMap().remove(idempotencyKey, outcome);
+            outcome.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static class Outcome {
+        private final String fingerprint;
+        private final CompletableFuture<Product> result = new CompletableFuture<>();
+
+        Outcome(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        Product await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+}
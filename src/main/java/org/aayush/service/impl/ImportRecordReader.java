@@ -0,0 +1,118 @@
+package org.aayush.service.impl;
+
+import org.aayush.exception.InvalidRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads NDJSON lines or RFC 4180 CSV records from an upload one at a time. Records longer than the limit are
+ * rejected so that a missing newline or an unterminated quote cannot pull the rest of the upload into memory.
+ */
+final class ImportRecordReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader input;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    ImportRecordReader(Reader input, int maxRecordLength) {
+        this.input = input;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Returns the next line without its terminator, or {@code null} at the end of the input.
+     */
+    String nextLine() throws IOException {
+        field.setLength(0);
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        while (c >= 0 && c != '\n') {
+            append(c, field.length());
+            c = read();
+        }
+        int length = field.length();
+        if (length > 0 && field.charAt(length - 1) == '\r') {
+            field.setLength(length - 1);
+        }
+        return field.toString();
+    }
+
+    /**
+     * Returns the fields of the next CSV record, or {@code null} at the end of the input. Quoted fields may
+     * contain separators, doubled quotes and line breaks.
+     */
+    List<String> nextCsvRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        int recordLength = 0;
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new InvalidRequestException("Unterminated quoted CSV field");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                append(c, recordLength++);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\n') {
+                int length = field.length();
+                if (length > 0 && field.charAt(length - 1) == '\r') {
+                    field.setLength(length - 1);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(c, recordLength++);
+            }
+            c = read();
+        }
+    }
+
+    private void append(int c, int recordLength) {
+        if (recordLength >= maxRecordLength) {
+            throw new InvalidRequestException("Record exceeds " + maxRecordLength + " characters");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            if (endOfInput) {
+                return -1;
+            }
+            limit = input.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                endOfInput = true;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
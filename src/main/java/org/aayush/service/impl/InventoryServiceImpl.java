@@ -1,80 +1,229 @@
 package org.aayush.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.IdempotencyKeyReusedException;
+import org.aayush.exception.InvalidStockOperationException;
 import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentLine;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.models.dto.StockAdjustmentResult;
+import org.aayush.models.dto.StockAdjustmentStatus;
 import org.aayush.repository.InventoryRepo;
 import org.aayush.service.InventoryService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepo inventoryRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotStockCoalescer hotStockCoalescer;
+    private final ReadCoalescer readCoalescer;
 
-    public InventoryServiceImpl(InventoryRepo inventoryRepo) {
+    /**
+     * Stock changes reach {@code readCoalescer} through the {@link StockChangedEvent} they publish. Batch adjustments
+     * publish one for each applied line and also drop the reads of the whole batch themselves, since a batch that
+     * fails part way publishes nothing for the lines it had already written.
+     */
+    public InventoryServiceImpl(InventoryRepo inventoryRepo, ApplicationEventPublisher eventPublisher,
+                                HotStockCoalescer hotStockCoalescer, ReadCoalescer readCoalescer) {
         this.inventoryRepo = inventoryRepo;
+        this.eventPublisher = eventPublisher;
+        this.hotStockCoalescer = hotStockCoalescer;
+        this.readCoalescer = readCoalescer;
     }
 
     @Override
     @Transactional
     public Product addStock(String productId, Integer stockAmount) {
-        if (productId == null || productId.isEmpty()) {
-            log.warn("Invalid product ID provided for adding stock");
-            throw new IllegalArgumentException("Invalid product ID");
-        }
-        validateStockAmount(stockAmount);
+        StockRules.validateStockRequest(productId, stockAmount);
 
-        Product product = inventoryRepo.findProductById(productId);
-        if (product == null) {
-            log.warn("Product not found: {}", productId);
-            throw new RuntimeException("Product not found: " + productId);
+        Product updatedProduct = inventoryRepo.addStock(productId, stockAmount);
+        if (updatedProduct == null) {
+            throw StockRules.additionRejected(productId, stockAmount, inventoryRepo.findProductById(productId));
         }
+        log.debug("Stock added successfully. Product ID: {}, Added Amount: {}, New Quantity: {}",
+                productId, stockAmount, updatedProduct.getAvailableQty());
+        eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, stockAmount));
+        return updatedProduct;
+    }
 
-        Integer currentQty = product.getAvailableQty() != null ? product.getAvailableQty() : 0;
-        if (stockAmount > Integer.MAX_VALUE - currentQty) {
-            log.warn("Stock addition would exceed maximum allowed quantity for product ID: {}", productId);
-            throw new IllegalArgumentException("Stock addition would exceed maximum allowed quantity");
-        }
+    @Override
+    @Transactional
+    public Product decreaseStock(String productId, Integer stockAmount) {
+        StockRules.validateStockRequest(productId, stockAmount);
 
-        Product updatedProduct = inventoryRepo.addStock(productId, stockAmount);
-        log.info("Stock added successfully. Product ID: {}, Added Amount: {}, New Quantity: {}",
+        Product updatedProduct = hotStockCoalescer.tryDecrease(productId, stockAmount);
+        if (updatedProduct == null) {
+            updatedProduct = inventoryRepo.decreaseStock(productId, stockAmount);
+        }
+        if (updatedProduct == null) {
+            throw StockRules.decreaseRejected(productId, stockAmount, inventoryRepo.findProductById(productId));
+        }
+        log.debug("Stock decreased successfully. Product ID: {}, Decreased Amount: {}, New Quantity: {}",
                 productId, stockAmount, updatedProduct.getAvailableQty());
+        eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, -stockAmount));
         return updatedProduct;
     }
 
+    /**
+     * Adds the stock and records {@code idempotencyKey} on the product in the same write. A retry of a change the
+     * product already records gets the product as that change left it, and publishes nothing. Without a key this
+     * is {@link #addStock(String, Integer)}.
+     */
     @Override
     @Transactional
-    public Product decreaseStock(String productId, Integer stockAmount) {
-        if (productId == null || productId.isEmpty()) {
-            log.warn("Invalid product ID provided for decreasing stock");
-            throw new IllegalArgumentException("Invalid product ID");
+    public Product addStock(String productId, Integer stockAmount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return addStock(productId, stockAmount);
         }
-        validateStockAmount(stockAmount);
+        StockRules.validateStockRequest(productId, stockAmount);
 
-        Product product = inventoryRepo.findProductById(productId);
-        if (product == null) {
-            log.warn("Product not found: {}", productId);
-            throw new RuntimeException("Product not found: " + productId);
+        Product updatedProduct = inventoryRepo.addStock(productId, stockAmount, idempotencyKey);
+        if (updatedProduct == null) {
+            Product replayed = replay(productId, stockAmount, idempotencyKey);
+            if (replayed != null) {
+                return replayed;
+            }
+            throw StockRules.additionRejected(productId, stockAmount, inventoryRepo.findProductById(productId));
         }
+        log.debug("Stock added successfully. Product ID: {}, Added Amount: {}, New Quantity: {}",
+                productId, stockAmount, updatedProduct.getAvailableQty());
+        eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, stockAmount));
+        return updatedProduct;
+    }
 
-        Integer currentQty = product.getAvailableQty() != null ? product.getAvailableQty() : 0;
-        if (currentQty < stockAmount) {
-            log.warn("Insufficient stock. Available: {}, Requested: {}", currentQty, stockAmount);
-            throw new IllegalArgumentException("Insufficient stock available. Requested: " + stockAmount + ", Available: " + currentQty);
+    /**
+     * Decreases the stock and records {@code idempotencyKey} on the product in the same write, like
+     * {@link #addStock(String, Integer, String)}. Keyed decreases bypass the write-behind allocation, whose
+     * in-memory counter has nowhere to record the key.
+     */
+    @Override
+    @Transactional
+    public Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return decreaseStock(productId, stockAmount);
         }
+        StockRules.validateStockRequest(productId, stockAmount);
 
-        Product updatedProduct = inventoryRepo.decreaseStock(productId, stockAmount);
-        log.info("Stock decreased successfully. Product ID: {}, Decreased Amount: {}, New Quantity: {}",
+        Product updatedProduct = inventoryRepo.decreaseStock(productId, stockAmount, idempotencyKey);
+        if (updatedProduct == null) {
+            Product replayed = replay(productId, -stockAmount, idempotencyKey);
+            if (replayed != null) {
+                return replayed;
+            }
+            throw StockRules.decreaseRejected(productId, stockAmount, inventoryRepo.findProductById(productId));
+        }
+        log.debug("Stock decreased successfully. Product ID: {}, Decreased Amount: {}, New Quantity: {}",
                 productId, stockAmount, updatedProduct.getAvailableQty());
+        eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, -stockAmount));
         return updatedProduct;
     }
 
-    private void validateStockAmount(Integer stockAmount) {
-        if (stockAmount == null || stockAmount <= 0) {
-            log.warn("Invalid stock amount: {}", stockAmount);
-            throw new IllegalArgumentException("Stock amount must be positive and non-null");
+    /**
+     * The product as the change recorded under {@code idempotencyKey} left it, or null when the product records no
+     * such change. A recorded change of a different amount means the key was reused for another request.
+     */
+    private Product replay(String productId, int delta, String idempotencyKey) {
+        KeyedStockChange change = inventoryRepo.findKeyedChange(productId, idempotencyKey);
+        if (change == null) {
+            return null;
+        }
+        if (change.getDelta() != delta) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        log.debug("Replaying stock change for idempotency key: {}", idempotencyKey);
+        return change.getProduct();
+    }
+
+    @Override
+    public BatchStockAdjustmentResponse adjustStock(List<StockAdjustmentLine> lines, boolean atomic) {
+        if (lines == null || lines.isEmpty()) {
+            log.warn("Empty stock adjustment batch");
+            throw new InvalidStockOperationException("At least one adjustment line is required");
+        }
+
+        Map<String, Long> netDeltas = new LinkedHashMap<>();
+        boolean hasInvalidLine = false;
+        for (StockAdjustmentLine line : lines) {
+            if (isValidLine(line)) {
+                netDeltas.merge(line.getProductId(), line.getDelta().longValue(), Long::sum);
+            } else {
+                hasInvalidLine = true;
+            }
         }
+
+        Map<String, StockAdjustmentStatus> outcome = new HashMap<>();
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        netDeltas.forEach((productId, delta) -> {
+            if (delta > Integer.MAX_VALUE || delta < -Integer.MAX_VALUE) {
+                outcome.put(productId, StockAdjustmentStatus.LIMIT_EXCEEDED);
+            } else {
+                deltas.put(productId, delta.intValue());
+            }
+        });
+
+        if (atomic && (hasInvalidLine || !outcome.isEmpty())) {
+            deltas.keySet().forEach(productId -> outcome.put(productId, StockAdjustmentStatus.ROLLED_BACK));
+        } else if (!deltas.isEmpty()) {
+            try {
+                Map<String, StockAdjustmentOutcome> written = atomic
+                        ? inventoryRepo.adjustStockAtomically(deltas)
+                        : inventoryRepo.adjustStock(deltas);
+                written.forEach((productId, line) -> {
+                    outcome.put(productId, line.getStatus());
+                    if (line.getStatus() == StockAdjustmentStatus.APPLIED) {
+                        eventPublisher.publishEvent(new StockChangedEvent(line.getProduct(), deltas.get(productId)));
+                    }
+                });
+            } finally {
+                readCoalescer.productsWritten(deltas.keySet());
+            }
+        }
+
+        List<StockAdjustmentResult> results = new ArrayList<>(lines.size());
+        int applied = 0;
+        for (StockAdjustmentLine line : lines) {
+            StockAdjustmentStatus status = isValidLine(line)
+                    ? outcome.get(line.getProductId())
+                    : StockAdjustmentStatus.INVALID;
+            if (status == StockAdjustmentStatus.APPLIED) {
+                applied++;
+            }
+            results.add(StockAdjustmentResult.builder()
+                    .productId(line == null ? null : line.getProductId())
+                    .delta(line == null ? null : line.getDelta())
+                    .status(status)
+                    .build());
+        }
+
+        log.debug("Stock adjustment batch processed. Lines: {}, Applied: {}, Atomic: {}", lines.size(), applied, atomic);
+        return BatchStockAdjustmentResponse.builder()
+                .atomic(atomic)
+                .appliedCount(applied)
+                .failedCount(lines.size() - applied)
+                .results(results)
+                .build();
+    }
+
+    private boolean isValidLine(StockAdjustmentLine line) {
+        return line != null
+                && line.getProductId() != null && !line.getProductId().isEmpty()
+                && line.getDelta() != null && line.getDelta() != 0;
     }
-}
\ No newline at end of file
+}
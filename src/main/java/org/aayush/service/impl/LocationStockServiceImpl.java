@@ -0,0 +1,118 @@
+package org.aayush.service.impl;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.models.LocationStock;
+import org.aayush.models.Product;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.repository.LocationStockRepo;
+import org.aayush.repository.ProductRepo;
+import org.aayush.service.LocationStockService;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Stock per warehouse. Location writes only touch their own document; the product total they roll up into is
+ * maintained by {@link LocationTotalsRelay} and served from the product document.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Slf4j
+public class LocationStockServiceImpl implements LocationStockService {
+
+    private final LocationStockRepo locationStockRepo;
+    private final ProductRepo productRepo;
+
+    public LocationStockServiceImpl(LocationStockRepo locationStockRepo, ProductRepo productRepo) {
+        this.locationStockRepo = locationStockRepo;
+        this.productRepo = productRepo;
+    }
+
+    @Override
+    public LocationStock addStock(String productId, String warehouseId, Integer stockAmount) {
+        StockRules.validateStockRequest(productId, stockAmount);
+        StockRules.validateWarehouseId(warehouseId);
+        requireProduct(productId);
+
+        LocationStock location = locationStockRepo.adjustStock(productId, warehouseId, stockAmount);
+        if (location == null) {
+            log.warn("Stock addition would exceed maximum allowed quantity for product ID: {} at warehouse: {}",
+                    productId, warehouseId);
+            throw new InvalidStockOperationException("Stock addition would exceed maximum allowed quantity");
+        }
+        log.debug("Stock added successfully. Product ID: {}, Warehouse: {}, Added Amount: {}, New Quantity: {}",
+                productId, warehouseId, stockAmount, location.getAvailableQty());
+        return location;
+    }
+
+    @Override
+    public LocationStock decreaseStock(String productId, String warehouseId, Integer stockAmount) {
+        StockRules.validateStockRequest(productId, stockAmount);
+        StockRules.validateWarehouseId(warehouseId);
+
+        LocationStock location = locationStockRepo.adjustStock(productId, warehouseId, -stockAmount);
+        if (location == null) {
+            requireProduct(productId);
+            LocationStock current = locationStockRepo.findLocation(productId, warehouseId);
+            int currentQty = current != null && current.getAvailableQty() != null ? current.getAvailableQty() : 0;
+            log.warn("Insufficient stock at warehouse: {}. Available: {}, Requested: {}", warehouseId, currentQty, stockAmount);
+            throw new InsufficientStockException(stockAmount, currentQty);
+        }
+        log.debug("Stock decreased successfully. Product ID: {}, Warehouse: {}, Decreased Amount: {}, New Quantity: {}",
+                productId, warehouseId, stockAmount, location.getAvailableQty());
+        return location;
+    }
+
+    @Override
+    public List<LocationStock> getLocations(String productId) {
+        requireProduct(productId);
+        return locationStockRepo.findLocations(productId);
+    }
+
+    /**
+     * A warehouse that never stocked the product reports zero rather than an error.
+     */
+    @Override
+    public LocationStock getLocation(String productId, String warehouseId) {
+        StockRules.validateWarehouseId(warehouseId);
+        requireProduct(productId);
+        LocationStock location = locationStockRepo.findLocation(productId, warehouseId);
+        if (location != null) {
+            return location;
+        }
+        return LocationStock.builder()
+                .locationStockId(LocationStock.idOf(productId, warehouseId))
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .availableQty(0)
+                .build();
+    }
+
+    /**
+     * Reads the rolled-up total from the product document, a single cached read however many warehouses there are.
+     */
+    @Override
+    public StockAvailability getAvailability(String productId) {
+        Product product = requireProduct(productId);
+        return StockAvailability.builder()
+                .productId(productId)
+                .availableQty(StockRules.currentQty(product))
+                .reservedQty(product.getReservedQty() != null ? product.getReservedQty() : 0)
+                .locatedQty(product.getLocatedQty() != null ? product.getLocatedQty() : 0)
+                .build();
+    }
+
+    private Product requireProduct(String productId) {
+        Product product = productRepo.findProductById(productId);
+        if (product == null) {
+            log.warn("Product not found: {}", productId);
+            throw new ProductNotFoundException(productId);
+        }
+        return product;
+    }
+}
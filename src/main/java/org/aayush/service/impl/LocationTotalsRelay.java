@@ -0,0 +1,69 @@
+package org.aayush.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.models.dto.LocationRollup;
+import org.aayush.repository.LocationStockRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically rolls the per-warehouse stock changes up into the product totals. The totals lag the
+ * location documents by up to one roll-up interval.
+ */
+@Component
+@Slf4j
+public class LocationTotalsRelay {
+
+    private final LocationStockRepo locationStockRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long rollupIntervalMillis;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public LocationTotalsRelay(LocationStockRepo locationStockRepo, ApplicationEventPublisher eventPublisher,
+                               @Value("${warehouse.locations.rollup-interval-ms:500}") long rollupIntervalMillis,
+                               @Value("${warehouse.locations.rollup-batch-size:500}") int batchSize) {
+        this.locationStockRepo = locationStockRepo;
+        this.eventPublisher = eventPublisher;
+        this.rollupIntervalMillis = rollupIntervalMillis;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "location-totals-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rollUp, rollupIntervalMillis, rollupIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void rollUp() {
+        try {
+            List<LocationRollup> rollups;
+            do {
+                rollups = locationStockRepo.rollUpPendingTotals(batchSize);
+                rollups.forEach(rollup -> eventPublisher.publishEvent(new StockChangedEvent(rollup.getProduct(), 0)));
+            } while (rollups.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Rolling up location totals failed, retrying in {} ms: {}", rollupIntervalMillis, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdown();
+        rollUp();
+    }
+}
@@ -0,0 +1,371 @@
+package org.aayush.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.InvalidProductException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.WarehouseException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductImportError;
+import org.aayush.models.dto.ProductImportFormat;
+import org.aayush.models.dto.ProductImportSummary;
+import org.aayush.repository.ProductRepo;
+import org.aayush.service.ProductImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imports products from a CSV or NDJSON upload in fixed-size chunks. While one chunk is checked against
+ * existing names and inserted, the next one is parsed and validated on a small pool, so at most two chunks
+ * are held in memory whatever the size of the upload. Each chunk costs one {@code $in} lookup and one
+ * unordered bulk insert; rejected rows are reported in upload order as they are found.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    static final String[] CSV_COLUMNS = {"productName", "productDesc", "availableQty", "enableLowStockThreshold", "lowStockThreshold"};
+
+    private final ProductRepo productRepo;
+    private final ReadCoalescer readCoalescer;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int validationThreads;
+    private final int maxRecordLength;
+    private final ExecutorService validationPool;
+
+    @Autowired
+    public ProductImportServiceImpl(ProductRepo productRepo, ReadCoalescer readCoalescer, ObjectMapper objectMapper,
+                                    @Value("${warehouse.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${warehouse.import.validation-threads:4}") int validationThreads,
+                                    @Value("${warehouse.import.max-record-length:65536}") int maxRecordLength) {
+        this(productRepo, readCoalescer, objectMapper, chunkSize, validationThreads, maxRecordLength,
+                newValidationPool(validationThreads));
+    }
+
+    ProductImportServiceImpl(ProductRepo productRepo, ReadCoalescer readCoalescer, ObjectMapper objectMapper, int chunkSize,
+                             int validationThreads, int maxRecordLength, ExecutorService validationPool) {
+        this.productRepo = productRepo;
+        this.readCoalescer = readCoalescer;
+        this.requestReader = objectMapper.readerFor(ProductCreateRequest.class);
+        this.chunkSize = chunkSize;
+        this.validationThreads = validationThreads;
+        this.maxRecordLength = maxRecordLength;
+        this.validationPool = validationPool;
+    }
+
+    private static ExecutorService newValidationPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "product-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    @Override
+    public ProductImportSummary importProducts(Reader input, ProductImportFormat format,
+                                               Consumer<ProductImportError> errors) throws IOException {
+        RowSource source = format == ProductImportFormat.CSV
+                ? new CsvRowSource(new ImportRecordReader(input, maxRecordLength))
+                : new NdjsonRowSource(new ImportRecordReader(input, maxRecordLength));
+        Tally tally = new Tally();
+
+        CompletableFuture<List<ImportRow>> pending = null;
+        List<ImportRow> chunk;
+        while (!(chunk = source.nextChunk()).isEmpty()) {
+            CompletableFuture<List<ImportRow>> validated = validate(chunk);
+            if (pending != null) {
+                insert(join(pending), tally, errors);
+            }
+            pending = validated;
+        }
+        if (pending != null) {
+            insert(join(pending), tally, errors);
+        }
+
+        log.info("Product import finished. Rows: {}, Imported: {}, Rejected: {}", tally.rows, tally.imported, tally.rejected);
+        return ProductImportSummary.builder()
+                .rowCount(tally.rows)
+                .importedCount(tally.imported)
+                .rejectedCount(tally.rejected)
+                .build();
+    }
+
+    private CompletableFuture<List<ImportRow>> validate(List<ImportRow> chunk) {
+        int sliceSize = Math.max(1, (chunk.size() + validationThreads - 1) / validationThreads);
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<ImportRow> slice = chunk.subList(from, Math.min(chunk.size(), from + sliceSize));
+            slices.add(CompletableFuture.runAsync(() -> slice.forEach(ImportRow::validate), validationPool));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).thenApply(ignored -> chunk);
+    }
+
+    private void insert(List<ImportRow> chunk, Tally tally, Consumer<ProductImportError> errors) {
+        Map<String, ImportRow> byName = new HashMap<>();
+        for (ImportRow row : chunk) {
+            if (row.error == null && byName.putIfAbsent(row.product.getProductName(), row) != null) {
+                row.error = new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+            }
+        }
+
+        Set<String> existing = productRepo.findExistingProductNames(byName.keySet());
+        List<ImportRow> inserts = new ArrayList<>(byName.size());
+        for (ImportRow row : chunk) {
+            if (row.error != null) {
+                continue;
+            }
+            if (existing.contains(row.product.getProductName())) {
+                row.error = new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+            } else {
+                inserts.add(row);
+            }
+        }
+
+        Set<Integer> duplicates = productRepo.insertProducts(inserts.stream().map(row -> row.product).toList());
+        for (Integer index : duplicates) {
+            inserts.get(index).error = new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+        }
+        if (inserts.size() > duplicates.size()) {
+            readCoalescer.productsWritten(inserts.stream()
+                    .filter(row -> row.error == null)
+                    .map(row -> row.product.getProductId())
+                    .toList());
+        }
+
+        for (ImportRow row : chunk) {
+            tally.rows++;
+            if (row.error == null) {
+                tally.imported++;
+            } else {
+                tally.rejected++;
+                errors.accept(ProductImportError.builder()
+                        .row(row.number)
+                        .productName(row.request != null ? row.request.getProductName() : null)
+                        .errorCode(row.error.getErrorCode())
+                        .message(row.error.getMessage())
+                        .build());
+            }
+        }
+        log.debug("Imported product chunk. Rows: {}, Inserted: {}", chunk.size(), inserts.size() - duplicates.size());
+    }
+
+    private static List<ImportRow> join(CompletableFuture<List<ImportRow>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class ImportRow {
+        private final long number;
+        private final ProductCreateRequest request;
+        private WarehouseException error;
+        private Product product;
+
+        ImportRow(long number, ProductCreateRequest request, WarehouseException error) {
+            this.number = number;
+            this.request = request;
+            this.error = error;
+        }
+
+        void validate() {
+            if (error != null) {
+                return;
+            }
+            try {
+                product = ProductRules.newProduct(request);
+            } catch (WarehouseException e) {
+                error = e;
+            }
+        }
+    }
+
+    private static final class Tally {
+        private long rows;
+        private long imported;
+        private long rejected;
+    }
+
+    /**
+     * Cuts the upload into chunks. A record that cannot be read at all ends the import after that row,
+     * because the position of the next record is unknown.
+     */
+    private abstract class RowSource {
+        protected final ImportRecordReader reader;
+        private long rowNumber;
+        private boolean finished;
+
+        RowSource(ImportRecordReader reader) {
+            this.reader = reader;
+        }
+
+        List<ImportRow> nextChunk() throws IOException {
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            while (!finished && chunk.size() < chunkSize) {
+                try {
+                    ImportRow row = nextRow(rowNumber + 1);
+                    if (row == null) {
+                        finished = true;
+                    } else {
+                        rowNumber++;
+                        chunk.add(row);
+                    }
+                } catch (InvalidRequestException e) {
+                    finished = true;
+                    chunk.add(new ImportRow(++rowNumber, null, e));
+                }
+            }
+            return chunk;
+        }
+
+        abstract ImportRow nextRow(long number) throws IOException;
+    }
+
+    private final class NdjsonRowSource extends RowSource {
+
+        NdjsonRowSource(ImportRecordReader reader) {
+            super(reader);
+        }
+
+        @Override
+        ImportRow nextRow(long number) throws IOException {
+            String line;
+            do {
+                line = reader.nextLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                ProductCreateRequest request = requestReader.readValue(line);
+                if (request == null) {
+                    return new ImportRow(number, null, new InvalidRequestException("Expected a JSON object"));
+                }
+                return new ImportRow(number, request, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(number, null, new InvalidRequestException("Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private final class CsvRowSource extends RowSource {
+        private int[] columns;
+
+        CsvRowSource(ImportRecordReader reader) {
+            super(reader);
+        }
+
+        @Override
+        ImportRow nextRow(long number) throws IOException {
+            if (columns == null) {
+                List<String> header = nextRecord();
+                if (header == null) {
+                    return null;
+                }
+                columns = columnPositions(header);
+            }
+            List<String> record = nextRecord();
+            if (record == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(number, ProductCreateRequest.builder()
+                        .productName(field(record, 0))
+                        .productDesc(field(record, 1))
+                        .availableQty(intField(record, 2))
+                        .enableLowStockThreshold(booleanField(record, 3))
+                        .lowStockThreshold(intField(record, 4))
+                        .build(), null);
+            } catch (InvalidProductException e) {
+                return new ImportRow(number, ProductCreateRequest.builder().productName(field(record, 0)).build(), e);
+            }
+        }
+
+        private List<String> nextRecord() throws IOException {
+            List<String> record;
+            do {
+                record = reader.nextCsvRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            return record;
+        }
+
+        private int[] columnPositions(List<String> header) {
+            int[] positions = new int[CSV_COLUMNS.length];
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                positions[i] = header.indexOf(CSV_COLUMNS[i]);
+                if (positions[i] < 0 && i < 3) {
+                    missing.add(CSV_COLUMNS[i]);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new InvalidRequestException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+            return positions;
+        }
+
+        private String field(List<String> record, int column) {
+            int position = columns[column];
+            if (position < 0 || position >= record.size() || record.get(position).isEmpty()) {
+                return null;
+            }
+            return record.get(position);
+        }
+
+        private Integer intField(List<String> record, int column) {
+            String value = field(record, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidProductException(CSV_COLUMNS[column] + " must be a whole number");
+            }
+        }
+
+        private Boolean booleanField(List<String> record, int column) {
+            String value = field(record, column);
+            if (value == null) {
+                return null;
+            }
+            if (value.trim().equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (value.trim().equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw new InvalidProductException(CSV_COLUMNS[column] + " must be true or false");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.InvalidProductException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductUpdateRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Product rules shared by the blocking and reactive product services.
+ */
+@Slf4j
+final class ProductRules {
+
+    static final String DUPLICATE_NAME_MESSAGE = "Product with the same name already exists";
+    static final String QUANTITY_NEEDS_VERSION_MESSAGE =
+            "Changing the available quantity requires the product version; use add-stock or decrease-stock otherwise";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_EXPORT_CHUNK_SIZE = 10_000_000;
+
+    private ProductRules() {
+    }
+
+    static void requireProductId(String productId) {
+        if (productId == null || productId.isEmpty()) {
+            log.warn("Invalid product ID provided");
+            throw new InvalidRequestException("Invalid product ID");
+        }
+    }
+
+    static Product newProduct(ProductCreateRequest request) {
+        validateProductRequest(request.getProductName(), request.getProductDesc(), request.getAvailableQty(), request.getLowStockThreshold());
+        return Product.builder()
+                .productName(request.getProductName())
+                .productDesc(request.getProductDesc())
+                .availableQty(request.getAvailableQty())
+                .enableLowStockThreshold(request.getEnableLowStockThreshold())
+                .lowStockThreshold(request.getLowStockThreshold())
+                .build();
+    }
+
+    /**
+     * A quantity set by an update must still cover the stock held in warehouses, which the total includes.
+     */
+    static void requireQuantityCoversLocations(Product changes, Product current) {
+        int locatedQty = current.getLocatedQty() != null ? current.getLocatedQty() : 0;
+        if (changes.getAvailableQty() != null && changes.getAvailableQty() < locatedQty) {
+            log.warn("Product {} quantity {} is below its warehouse stock {}", changes.getProductId(), changes.getAvailableQty(), locatedQty);
+            throw new InvalidStockOperationException("Available quantity cannot be set below the " + locatedQty
+                    + " units held in warehouses");
+        }
+    }
+
+    /**
+     * The fields the request changes, with the version it is based on. Fields that are not sent stay null.
+     */
+    static Product productChanges(ProductUpdateRequest request) {
+        requireProductId(request.getProductId());
+        if (request.getProductName() == null && request.getProductDesc() == null && request.getAvailableQty() == null
+                && request.getEnableLowStockThreshold() == null && request.getLowStockThreshold() == null) {
+            throw new InvalidRequestException("Product update must change at least one field");
+        }
+        if (request.getProductName() != null && request.getProductName().isBlank()) {
+            throw new InvalidProductException("Product name cannot be blank");
+        }
+        if (request.getProductDesc() != null && request.getProductDesc().isBlank()) {
+            throw new InvalidProductException("Product description cannot be blank");
+        }
+        if (request.getAvailableQty() != null && request.getAvailableQty() < 0) {
+            throw new InvalidProductException("Available quantity cannot be negative");
+        }
+        if (request.getLowStockThreshold() != null && request.getLowStockThreshold() < 0) {
+            throw new InvalidProductException("Low stock threshold cannot be negative");
+        }
+        return Product.builder()
+                .productId(request.getProductId())
+                .productName(request.getProductName())
+                .productDesc(request.getProductDesc())
+                .availableQty(request.getAvailableQty())
+                .enableLowStockThreshold(request.getEnableLowStockThreshold())
+                .lowStockThreshold(request.getLowStockThreshold())
+                .version(request.getVersion())
+                .build();
+    }
+
+    /**
+     * Whether the changes can move the product in or out of low stock.
+     */
+    static boolean changesLowStock(Product changes) {
+        return changes.getAvailableQty() != null
+                || changes.getEnableLowStockThreshold() != null
+                || changes.getLowStockThreshold() != null;
+    }
+
+    /**
+     * Bases unversioned changes on the product as just read. A quantity equal to the current one is dropped, so
+     * clients sending back the whole product do not overwrite stock changes; any other quantity needs the
+     * version the client read it at, since setting it from a stale read loses the changes made since.
+     */
+    static Product changesAt(Product changes, Product current) {
+        Integer availableQty = changes.getAvailableQty();
+        if (availableQty != null && !availableQty.equals(current.getAvailableQty())) {
+            log.warn("Rejected unversioned quantity change for product ID: {}", changes.getProductId());
+            throw new InvalidRequestException(QUANTITY_NEEDS_VERSION_MESSAGE);
+        }
+        return Product.builder()
+                .productId(changes.getProductId())
+                .productName(changes.getProductName())
+                .productDesc(changes.getProductDesc())
+                .enableLowStockThreshold(changes.getEnableLowStockThreshold())
+                .lowStockThreshold(changes.getLowStockThreshold())
+                .version(current.getVersion())
+                .build();
+    }
+
+    static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    static int exportChunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_EXPORT_CHUNK_SIZE) {
+            throw new InvalidRequestException("Export chunk size must be between 1 and " + MAX_EXPORT_CHUNK_SIZE);
+        }
+        return chunkSize;
+    }
+
+    static String decodeToken(String continuationToken) {
+        if (continuationToken == null) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid continuation token provided");
+            throw new InvalidRequestException("Invalid continuation token");
+        }
+    }
+
+    static ProductPage page(List<Product> items, int pageSize) {
+        String nextToken = items.size() == pageSize
+                ? encodeToken(items.get(items.size() - 1).getProductId())
+                : null;
+        return ProductPage.builder()
+                .items(items)
+                .nextToken(nextToken)
+                .build();
+    }
+
+    static String encodeToken(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void validateProductRequest(String name, String desc, Integer qty, Integer threshold) {
+        if (name == null || name.isBlank()) {
+            throw new InvalidProductException("Product name is required and cannot be blank");
+        }
+        if (desc == null || desc.isBlank()) {
+            throw new InvalidProductException("Product description is required and cannot be blank");
+        }
+        if (qty == null || qty < 0) {
+            throw new InvalidProductException("Available quantity cannot be null or negative");
+        }
+        if (threshold != null && threshold < 0) {
+            throw new InvalidProductException("Low stock threshold cannot be negative");
+        }
+    }
+}
@@ -1,136 +1,268 @@
 package org.aayush.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.aayush.config.MetricsConfig;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.InvalidProductException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.exception.ProductVersionConflictException;
 import org.aayush.models.Product;
 import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductExportChunk;
+import org.aayush.models.dto.ProductLookupResponse;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductSummary;
 import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.models.dto.StockAvailability;
 import org.aayush.repository.ProductRepo;
 import org.aayush.service.ProductService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepo productRepo;
+    private final VersionConflictRetry versionConflictRetry;
+    private final ReadCoalescer readCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductServiceImpl(ProductRepo productRepo) {
+    public ProductServiceImpl(ProductRepo productRepo, VersionConflictRetry versionConflictRetry, ReadCoalescer readCoalescer,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepo = productRepo;
+        this.versionConflictRetry = versionConflictRetry;
+        this.readCoalescer = readCoalescer;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
     public Product createAndSaveProduct(ProductCreateRequest request) {
-        validateProductRequest(request.getProductName(), request.getProductDesc(), request.getAvailableQty(), request.getLowStockThreshold());
+        Product product = ProductRules.newProduct(request);
 
-        Product existingProduct = findProductByName(request.getProductName());
-        if (existingProduct != null) {
+        log.debug("Saving new product to database");
+        try {
+            Product savedProduct = productRepo.saveProduct(product);
+            readCoalescer.productWritten(savedProduct.getProductId());
+            log.debug("Product saved successfully");
+            return savedProduct;
+        } catch (DuplicateKeyException e) {
             log.warn("Attempted to create duplicate product with name: {}", request.getProductName());
-            throw new IllegalArgumentException("Product with the same name already exists");
+            throw new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
         }
-
-        Product product = Product.builder()
-                .productName(request.getProductName())
-                .productDesc(request.getProductDesc())
-                .availableQty(request.getAvailableQty())
-                .enableLowStockThreshold(request.getEnableLowStockThreshold())
-                .lowStockThreshold(request.getLowStockThreshold())
-                .build();
-
-        log.debug("Saving new product to database");
-        Product savedProduct = productRepo.saveProduct(product);
-        log.debug("Product saved successfully");
-        return savedProduct;
     }
 
     @Override
     public Product findProductById(String productId) {
-        if (productId == null || productId.isEmpty()) {
-            log.warn("Invalid product ID provided");
-            throw new IllegalArgumentException("Invalid product ID");
-        }
-        Product product = productRepo.findProductById(productId);
+        ProductRules.requireProductId(productId);
+        Product product = readCoalescer.readProduct("findProductById", productId, () -> productRepo.findProductById(productId));
         if (product == null) {
             log.warn("Product not found: {}", productId);
-            throw new RuntimeException("Product not found: " + productId);
+            throw new ProductNotFoundException(productId);
         }
         return product;
     }
 
+    /**
+     * Single-product views are cut from the cached product: a cache hit costs no query, and a miss loads the full
+     * document once for every view.
+     */
+    @Override
+    public ProductSummary findProductSummary(String productId) {
+        return ProductSummary.of(findProductById(productId));
+    }
+
+    @Override
+    public StockAvailability findProductAvailability(String productId) {
+        return StockAvailability.of(findProductById(productId));
+    }
+
+    /**
+     * Availability of many products in request order, with the ids that do not exist listed instead of failing
+     * the lookup. Repeated ids are resolved once.
+     */
+    @Override
+    public ProductLookupResponse lookupAvailability(List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidRequestException("At least one product ID is required");
+        }
+        productIds.forEach(ProductRules::requireProductId);
+        Set<String> distinctIds = new LinkedHashSet<>(productIds);
+
+        Map<String, Product> products = readCoalescer.readCatalog("lookupAvailability", String.join(",", distinctIds),
+                () -> productRepo.findProductsByIds(distinctIds));
+        Map<String, StockAvailability> availability = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String productId : distinctIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                availability.put(productId, StockAvailability.of(product));
+            } else {
+                missing.add(productId);
+            }
+        }
+        log.debug("Availability lookup of {} products, {} missing", distinctIds.size(), missing.size());
+        return ProductLookupResponse.builder()
+                .availability(availability)
+                .missingProductIds(missing)
+                .build();
+    }
+
     @Override
     @Transactional
     public void deleteProductById(String productId) {
-        if (productId == null || productId.isEmpty()) {
-            log.warn("Attempted to delete product with null or empty ID");
-            throw new IllegalArgumentException("Invalid product ID");
-        }
+        ProductRules.requireProductId(productId);
 
         boolean deleted = productRepo.deleteByProductId(productId);
+        readCoalescer.productWritten(productId);
         if (!deleted) {
             log.warn("Failed to delete product by ID: {}", productId);
-            throw new RuntimeException("Product not found: " + productId);
+            throw new ProductNotFoundException(productId);
         }
-        log.info("Product deleted successfully by ID: {}", productId);
+        log.debug("Product deleted successfully by ID: {}", productId);
     }
 
+    /**
+     * A request carrying a version is applied only at that version and fails with a conflict otherwise. Without
+     * one the change is based on the product as read now, and a concurrent write in between is retried with
+     * backoff rather than overwritten.
+     * <p>
+     * Changes of the quantity or the threshold settings publish a {@link StockChangedEvent} against the product as
+     * it was at the version the update was applied to, so low-stock crossings caused by an edit are reported too.
+     */
     @Override
     @Transactional
     public Product updateProductDetails(ProductUpdateRequest request) {
-        if (request.getProductId() == null || request.getProductId().isEmpty()) {
-            log.warn("Attempted to update with null or empty ID");
-            throw new IllegalArgumentException("Invalid product ID");
-        }
-        validateProductRequest(request.getProductName(), request.getProductDesc(), request.getAvailableQty(), request.getLowStockThreshold());
-
-        Product product = Product.builder()
-                .productId(request.getProductId())
-                .productName(request.getProductName())
-                .productDesc(request.getProductDesc())
-                .availableQty(request.getAvailableQty())
-                .enableLowStockThreshold(request.getEnableLowStockThreshold())
-                .lowStockThreshold(request.getLowStockThreshold())
-                .build();
+        Product changes = ProductRules.productChanges(request);
+
+        Product updatedProduct = changes.getVersion() != null
+                ? updateAtVersion(changes)
+                : updateAtCurrentVersion(changes);
+
+        log.debug("Product updated successfully. ID: {}, Version: {}", request.getProductId(), updatedProduct.getVersion());
+        return updatedProduct;
+    }
 
-        Product updatedProduct = productRepo.updateProductDetails(product);
+    private Product updateAtVersion(Product changes) {
+        Product before = null;
+        if (ProductRules.changesLowStock(changes)) {
+            before = productRepo.findCurrentProduct(changes.getProductId());
+            if (before != null && !changes.getVersion().equals(before.getVersion())) {
+                log.warn("Product {} changed since version {}", changes.getProductId(), changes.getVersion());
+                throw new ProductVersionConflictException(changes.getProductId());
+            }
+            if (before != null) {
+                ProductRules.requireQuantityCoversLocations(changes, before);
+            }
+        }
+        Product updatedProduct = update(changes);
         if (updatedProduct == null) {
-            log.warn("Product update failed or product not found. ID: {}", request.getProductId());
-            throw new RuntimeException("Product not found: " + request.getProductId());
+            if (productRepo.findCurrentProduct(changes.getProductId()) == null) {
+                log.warn("Product update failed or product not found. ID: {}", changes.getProductId());
+                throw new ProductNotFoundException(changes.getProductId());
+            }
+            log.warn("Product {} changed since version {}", changes.getProductId(), changes.getVersion());
+            throw new ProductVersionConflictException(changes.getProductId());
+        }
+        if (before != null) {
+            eventPublisher.publishEvent(StockChangedEvent.detailsChanged(before, updatedProduct));
         }
-
-        log.info("Product updated successfully. ID: {}", request.getProductId());
         return updatedProduct;
     }
 
+    private Product updateAtCurrentVersion(Product changes) {
+        for (int attempt = 1; ; attempt++) {
+            Product current = productRepo.findCurrentProduct(changes.getProductId());
+            if (current == null) {
+                log.warn("Product update failed or product not found. ID: {}", changes.getProductId());
+                throw new ProductNotFoundException(changes.getProductId());
+            }
+            Product updatedProduct = update(ProductRules.changesAt(changes, current));
+            if (updatedProduct != null) {
+                if (ProductRules.changesLowStock(changes)) {
+                    eventPublisher.publishEvent(StockChangedEvent.detailsChanged(current, updatedProduct));
+                }
+                return updatedProduct;
+            }
+            log.debug("Product {} changed during update attempt {}", changes.getProductId(), attempt);
+            if (!versionConflictRetry.backOff(attempt)) {
+                log.warn("Gave up updating product {} after {} conflicting attempts", changes.getProductId(), attempt);
+                throw new ProductVersionConflictException(changes.getProductId());
+            }
+        }
+    }
+
+    private Product update(Product changes) {
+        try {
+            Product updatedProduct = productRepo.updateProductDetails(changes);
+            if (updatedProduct != null) {
+                readCoalescer.productWritten(changes.getProductId());
+            }
+            return updatedProduct;
+        } catch (DuplicateKeyException e) {
+            log.warn("Attempted to rename product {} to existing name: {}", changes.getProductId(), changes.getProductName());
+            throw new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+        }
+    }
+
     @Override
     public List<Product> getAllProducts() {
         return productRepo.getAllProducts();
     }
 
     @Override
-    public List<Product> findProductsBelowThreshold() {
-        return productRepo.findProductsBelowThreshold();
+    public List<ProductSummary> getAllProductSummaries() {
+        return productRepo.getAllProductSummaries();
     }
 
-    private void validateProductRequest(String name, String desc, Integer qty, Integer threshold) {
-        if (name == null || name.isBlank()) {
-            throw new IllegalArgumentException("Product name is required and cannot be blank");
-        }
-        if (desc == null || desc.isBlank()) {
-            throw new IllegalArgumentException("Product description is required and cannot be blank");
-        }
-        if (qty == null || qty < 0) {
-            throw new IllegalArgumentException("Available quantity cannot be null or negative");
-        }
-        if (threshold != null && threshold < 0) {
-            throw new IllegalArgumentException("Low stock threshold cannot be negative");
-        }
+    @Override
+    public List<StockAvailability> getAllProductAvailability() {
+        return productRepo.getAllProductAvailability();
+    }
+
+    @Override
+    public ProductPage getProductsPage(String continuationToken, Integer limit) {
+        int pageSize = ProductRules.pageSize(limit);
+        List<Product> items = productRepo.findProductsAfter(ProductRules.decodeToken(continuationToken), pageSize);
+        return ProductRules.page(items, pageSize);
+    }
+
+    @Override
+    public Stream<Product> streamAllProducts() {
+        return productRepo.streamAllProducts();
+    }
+
+    @Override
+    public ProductExportChunk exportProducts(String continuationToken, Integer chunkSize) {
+        String afterProductId = ProductRules.decodeToken(continuationToken);
+        String chunkEnd = chunkSize != null
+                ? productRepo.findChunkEnd(afterProductId, ProductRules.exportChunkSize(chunkSize))
+                : null;
+        String nextToken = chunkEnd != null ? ProductRules.encodeToken(chunkEnd) : null;
+        return new ProductExportChunk(productRepo.streamProductsBetween(afterProductId, chunkEnd), nextToken);
+    }
+
+    @Override
+    public List<Product> findProductsBelowThreshold() {
+        return readCoalescer.readCatalog("findProductsBelowThreshold", "", productRepo::findProductsBelowThreshold);
     }
 
     @Override
     public Product findProductByName(String productName) {
         return productRepo.findProductByName(productName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.StockAdjustmentLine;
+import org.aayush.models.dto.StockHold;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+import org.aayush.repository.ReactiveInventoryRepo;
+import org.aayush.service.InventoryService;
+import org.aayush.service.ReactiveInventoryService;
+import org.aayush.service.ReservationService;
+import org.aayush.service.StockLedgerService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveInventoryServiceImpl implements ReactiveInventoryService {
+
+    private final ReactiveInventoryRepo inventoryRepo;
+    private final InventoryService blockingInventoryService;
+    private final StockLedgerService stockLedgerService;
+    private final ReservationService reservationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveInventoryServiceImpl(ReactiveInventoryRepo inventoryRepo, InventoryService blockingInventoryService,
+                                        StockLedgerService stockLedgerService, ReservationService reservationService,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.inventoryRepo = inventoryRepo;
+        this.blockingInventoryService = blockingInventoryService;
+        this.stockLedgerService = stockLedgerService;
+        this.reservationService = reservationService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Mono<Product> addStock(String productId, Integer stockAmount) {
+        return Mono.fromRunnable(() -> StockRules.validateStockRequest(productId, stockAmount))
+                .then(Mono.defer(() -> inventoryRepo.addStock(productId, stockAmount)))
+                .switchIfEmpty(Mono.defer(() -> currentProduct(productId)
+                        .flatMap(current -> Mono.error(StockRules.additionRejected(productId, stockAmount, current.orElse(null))))))
+                .doOnNext(updatedProduct -> {
+                    log.debug("Stock added successfully. Product ID: {}, Added Amount: {}, New Quantity: {}",
+                            productId, stockAmount, updatedProduct.getAvailableQty());
+                    eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, stockAmount));
+                });
+    }
+
+    @Override
+    public Mono<Product> decreaseStock(String productId, Integer stockAmount) {
+        return Mono.fromRunnable(() -> StockRules.validateStockRequest(productId, stockAmount))
+                .then(Mono.defer(() -> inventoryRepo.decreaseStock(productId, stockAmount)))
+                .switchIfEmpty(Mono.defer(() -> currentProduct(productId)
+                        .flatMap(current -> Mono.error(StockRules.decreaseRejected(productId, stockAmount, current.orElse(null))))))
+                .doOnNext(updatedProduct -> {
+                    log.debug("Stock decreased successfully. Product ID: {}, Decreased Amount: {}, New Quantity: {}",
+                            productId, stockAmount, updatedProduct.getAvailableQty());
+                    eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, -stockAmount));
+                });
+    }
+
+    /**
+     * Keyed changes record their key in the stock write of the blocking service, so they run it on the bounded
+     * elastic scheduler. Without a key this is {@link #addStock(String, Integer)}.
+     */
+    @Override
+    public Mono<Product> addStock(String productId, Integer stockAmount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return addStock(productId, stockAmount);
+        }
+        return Mono.fromCallable(() -> blockingInventoryService.addStock(productId, stockAmount, idempotencyKey))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Product> decreaseStock(String productId, Integer stockAmount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return decreaseStock(productId, stockAmount);
+        }
+        return Mono.fromCallable(() -> blockingInventoryService.decreaseStock(productId, stockAmount, idempotencyKey))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Batches are rare and make blocking repository writes, so they reuse the blocking service on the bounded elastic scheduler.
+     */
+    @Override
+    public Mono<BatchStockAdjustmentResponse> adjustStock(List<StockAdjustmentLine> lines, boolean atomic) {
+        return Mono.fromCallable(() -> blockingInventoryService.adjustStock(lines, atomic))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Holds are single document updates like the stock endpoints, but they go through the blocking reservation
+     * service so that both stacks share one implementation of the hold pipeline and its expiry sweep.
+     */
+    @Override
+    public Mono<StockHold> placeHold(String productId, Integer amount, Integer ttlSeconds) {
+        return Mono.fromCallable(() -> reservationService.placeHold(productId, amount, ttlSeconds))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<StockHold> confirmHold(String productId, String holdId) {
+        return Mono.fromCallable(() -> reservationService.confirmHold(productId, holdId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<StockHold> releaseHold(String productId, String holdId) {
+        return Mono.fromCallable(() -> reservationService.releaseHold(productId, holdId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Ledger reads are occasional reporting queries, so they also run the blocking service on bounded elastic.
+     */
+    @Override
+    public Mono<StockMovementPage> getMovements(String productId, Instant from, Instant to, Integer limit, String continuationToken) {
+        return Mono.fromCallable(() -> stockLedgerService.getMovements(productId, from, to, limit, continuationToken))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<StockLevel> getStockAt(String productId, Instant at) {
+        return Mono.fromCallable(() -> stockLedgerService.getStockAt(productId, at))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Optional<Product>> currentProduct(String productId) {
+        return inventoryRepo.findProductById(productId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+}
@@ -0,0 +1,103 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.InvalidProductException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.exception.ProductVersionConflictException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductCreateRequest;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.repository.ReactiveProductRepo;
+import org.aayush.service.ReactiveProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private final ReactiveProductRepo productRepo;
+    private final VersionConflictRetry versionConflictRetry;
+
+    public ReactiveProductServiceImpl(ReactiveProductRepo productRepo, VersionConflictRetry versionConflictRetry) {
+        this.productRepo = productRepo;
+        this.versionConflictRetry = versionConflictRetry;
+    }
+
+    @Override
+    public Mono<Product> createAndSaveProduct(ProductCreateRequest request) {
+        return Mono.fromCallable(() -> ProductRules.newProduct(request))
+                .flatMap(productRepo::saveProduct)
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    log.warn("Attempted to create duplicate product with name: {}", request.getProductName());
+                    return new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+                });
+    }
+
+    @Override
+    public Mono<Product> findProductById(String productId) {
+        return Mono.fromRunnable(() -> ProductRules.requireProductId(productId))
+                .then(Mono.defer(() -> productRepo.findProductById(productId)))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(productId)));
+    }
+
+    @Override
+    public Mono<Void> deleteProductById(String productId) {
+        return Mono.fromRunnable(() -> ProductRules.requireProductId(productId))
+                .then(Mono.defer(() -> productRepo.deleteByProductId(productId)))
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ProductNotFoundException(productId)));
+    }
+
+    @Override
+    public Mono<Product> updateProductDetails(ProductUpdateRequest request) {
+        return Mono.fromCallable(() -> ProductRules.productChanges(request))
+                .flatMap(changes -> changes.getVersion() != null
+                        ? updateAtVersion(changes)
+                        : updateAtCurrentVersion(changes))
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    log.warn("Attempted to rename product {} to existing name: {}", request.getProductId(), request.getProductName());
+                    return new InvalidProductException(ProductRules.DUPLICATE_NAME_MESSAGE);
+                });
+    }
+
+    private Mono<Product> updateAtVersion(Product changes) {
+        return productRepo.updateProductDetails(changes)
+                .switchIfEmpty(Mono.defer(() -> productRepo.findProductById(changes.getProductId())
+                        .flatMap(current -> Mono.<Product>fromRunnable(() -> ProductRules.requireQuantityCoversLocations(changes, current))
+                                .then(Mono.error(new ProductVersionConflictException(changes.getProductId()))))
+                        .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(changes.getProductId())))));
+    }
+
+    private Mono<Product> updateAtCurrentVersion(Product changes) {
+        return Mono.defer(() -> productRepo.findProductById(changes.getProductId()))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(changes.getProductId())))
+                .flatMap(current -> productRepo.updateProductDetails(ProductRules.changesAt(changes, current)))
+                .switchIfEmpty(Mono.error(() -> new ProductVersionConflictException(changes.getProductId())))
+                .retryWhen(versionConflictRetry.reactive());
+    }
+
+    @Override
+    public Flux<Product> getAllProducts() {
+        return productRepo.getAllProducts();
+    }
+
+    @Override
+    public Mono<ProductPage> getProductsPage(String continuationToken, Integer limit) {
+        return Mono.fromCallable(() -> ProductRules.pageSize(limit))
+                .flatMap(pageSize -> productRepo.findProductsAfter(ProductRules.decodeToken(continuationToken), pageSize)
+                        .collectList()
+                        .map(items -> ProductRules.page(items, pageSize)));
+    }
+
+    @Override
+    public Flux<Product> findProductsBelowThreshold() {
+        return productRepo.findProductsBelowThreshold();
+    }
+}
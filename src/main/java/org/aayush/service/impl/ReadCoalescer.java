@@ -0,0 +1,105 @@
+package org.aayush.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aayush.events.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for product reads: callers that ask for the same read while it is running share its repository
+ * call and result instead of issuing their own. Joined callers are counted in {@value #COALESCED_METRIC},
+ * tagged with the read.
+ * <p>
+ * A completed write drops the running reads it affects, so a caller that arrives after the write returned never
+ * joins a read that may have started before it. Reads of one product are keyed by its id; reads spanning the
+ * catalogue are keyed by a write generation that every product write advances. Stock changes that publish
+ * {@link StockChangedEvent} are picked up from the event, which is delivered before the write returns; writes
+ * without an event call {@link #productsWritten}.
+ */
+@Component
+public class ReadCoalescer {
+
+    public static final String COALESCED_METRIC = "warehouse.reads.coalesced";
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+
+    public ReadCoalescer(@Value("${warehouse.read-coalescing.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    <T> T readProduct(String read, String productId, Supplier<T> loader) {
+        return read(read, "product:" + productId, loader);
+    }
+
+    /**
+     * A read whose result depends on any product, such as the low-stock list. {@code arguments} tells apart
+     * reads of the same kind that return different results.
+     */
+    <T> T readCatalog(String read, String arguments, Supplier<T> loader) {
+        return read(read, read + ":" + writeGeneration.get() + ":" + arguments, loader);
+    }
+
+    void productsWritten(Collection<String> productIds) {
+        productIds.forEach(productId -> inFlight.remove("product:" + productId));
+        writeGeneration.incrementAndGet();
+    }
+
+    void productWritten(String productId) {
+        inFlight.remove("product:" + productId);
+        writeGeneration.incrementAndGet();
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        productWritten(event.getProduct().getProductId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String read, String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            meterRegistry.counter(COALESCED_METRIC, "read", read).increment();
+            return (T) join(leader);
+        }
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
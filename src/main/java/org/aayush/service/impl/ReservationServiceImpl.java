@@ -0,0 +1,125 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.HoldNotFoundException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.HoldChange;
+import org.aayush.models.dto.HoldStatus;
+import org.aayush.models.dto.StockHold;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.repository.ReservationRepo;
+import org.aayush.service.ReservationService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final ReservationRepo reservationRepo;
+    private final InventoryRepo inventoryRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+    private final int maxHoldsPerProduct;
+
+    public ReservationServiceImpl(ReservationRepo reservationRepo, InventoryRepo inventoryRepo,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${warehouse.holds.default-ttl-seconds:900}") int defaultTtlSeconds,
+                                  @Value("${warehouse.holds.max-ttl-seconds:3600}") int maxTtlSeconds,
+                                  @Value("${warehouse.holds.max-per-product:500}") int maxHoldsPerProduct) {
+        this.reservationRepo = reservationRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.eventPublisher = eventPublisher;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.maxHoldsPerProduct = maxHoldsPerProduct;
+    }
+
+    @Override
+    public StockHold placeHold(String productId, Integer amount, Integer ttlSeconds) {
+        StockRules.validateStockRequest(productId, amount);
+        int ttl = ttlSeconds != null ? ttlSeconds : defaultTtlSeconds;
+        if (ttl < 1 || ttl > maxTtlSeconds) {
+            throw new InvalidRequestException("Hold TTL must be between 1 and " + maxTtlSeconds + " seconds");
+        }
+
+        StockHold hold = StockHold.builder()
+                .holdId(new ObjectId().toHexString())
+                .productId(productId)
+                .quantity(amount)
+                .expiresAt(Instant.now().plusSeconds(ttl))
+                .status(HoldStatus.ACTIVE)
+                .build();
+        Product updatedProduct = reservationRepo.placeHold(hold, maxHoldsPerProduct);
+        if (updatedProduct == null) {
+            Product current = inventoryRepo.findProductById(productId);
+            if (current != null && current.getUnassignedQty() >= amount) {
+                log.warn("Product ID: {} already has {} active holds", productId, maxHoldsPerProduct);
+                throw new InvalidStockOperationException("Product already has the maximum number of active holds");
+            }
+            throw StockRules.decreaseRejected(productId, amount, current);
+        }
+        log.debug("Hold placed. Product ID: {}, Hold ID: {}, Amount: {}, Expires At: {}",
+                productId, hold.getHoldId(), amount, hold.getExpiresAt());
+        eventPublisher.publishEvent(new StockChangedEvent(updatedProduct, -amount));
+        return hold;
+    }
+
+    @Override
+    public StockHold confirmHold(String productId, String holdId) {
+        requireHold(productId, holdId);
+        HoldChange change = reservationRepo.confirmHold(productId, holdId);
+        if (change == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+        log.debug("Hold confirmed. Product ID: {}, Hold ID: {}, Amount: {}", productId, holdId, change.getHold().getQuantity());
+        eventPublisher.publishEvent(new StockChangedEvent(change.getProduct(), 0));
+        return change.getHold();
+    }
+
+    @Override
+    public StockHold releaseHold(String productId, String holdId) {
+        requireHold(productId, holdId);
+        HoldChange change = reservationRepo.releaseHold(productId, holdId);
+        if (change == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+        log.debug("Hold released. Product ID: {}, Hold ID: {}, Amount: {}", productId, holdId, change.getHold().getQuantity());
+        eventPublisher.publishEvent(new StockChangedEvent(change.getProduct(), change.getHold().getQuantity()));
+        return change.getHold();
+    }
+
+    /**
+     * Returns the stock of up to {@code limit} products' expired holds. Holds confirmed or released
+     * concurrently are skipped. Returns the number of products that had expired holds.
+     */
+    @Override
+    public int releaseExpiredHolds(Instant now, int limit) {
+        List<StockHold> expired = reservationRepo.findExpiredHolds(now, limit);
+        for (StockHold hold : expired) {
+            HoldChange change = reservationRepo.releaseHold(hold.getProductId(), hold.getHoldId());
+            if (change != null) {
+                log.debug("Hold expired. Product ID: {}, Hold ID: {}, Amount: {}",
+                        hold.getProductId(), hold.getHoldId(), hold.getQuantity());
+                eventPublisher.publishEvent(new StockChangedEvent(change.getProduct(), change.getHold().getQuantity()));
+            }
+        }
+        return (int) expired.stream().map(StockHold::getProductId).distinct().count();
+    }
+
+    private void requireHold(String productId, String holdId) {
+        if (productId == null || productId.isEmpty() || holdId == null || holdId.isEmpty()) {
+            log.warn("Invalid product or hold ID provided");
+            throw new InvalidRequestException("Invalid product or hold ID");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only local journal of stock allocations held by {@link HotStockCoalescer}. Each record names the
+ * allocation it belongs to: a grant is written before MongoDB is asked for the stock, every decrease served
+ * from the allocation before it is acknowledged, and a release once MongoDB has taken the rest back.
+ * <p>
+ * Appends are group committed: the first caller waiting for durability writes and forces everything buffered
+ * so far, and the callers that queued behind it return once their record is on disk.
+ */
+@Slf4j
+class StockJournal implements AutoCloseable {
+
+    static final char GRANT = 'G';
+    static final char CONSUME = 'C';
+    static final char RELEASE = 'R';
+
+    private final Path path;
+    private final FileChannel channel;
+    private StringBuilder buffer = new StringBuilder();
+    private long appended;
+    private long durable;
+    private boolean forcing;
+
+    StockJournal(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock journal " + path, e);
+        }
+    }
+
+    /**
+     * Appends a record and returns once it, and everything appended before it, is forced to disk.
+     */
+    void appendDurably(char type, String productId, String allocationId, long quantity) {
+        long sequence;
+        synchronized (this) {
+            buffer.append(type).append(',').append(productId).append(',').append(allocationId)
+                    .append(',').append(quantity).append('\n');
+            sequence = ++appended;
+        }
+        awaitDurable(sequence);
+    }
+
+    private void awaitDurable(long sequence) {
+        StringBuilder batch;
+        long batchEnd;
+        synchronized (this) {
+            while (durable < sequence && forcing) {
+                waitForForce();
+            }
+            if (durable >= sequence) {
+                return;
+            }
+            forcing = true;
+            batch = buffer;
+            batchEnd = appended;
+            buffer = new StringBuilder();
+        }
+
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write stock journal " + path, e);
+        } finally {
+            synchronized (this) {
+                forcing = false;
+                durable = Math.max(durable, batchEnd);
+                notifyAll();
+            }
+        }
+    }
+
+    private void waitForForce() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the stock journal", e);
+        }
+    }
+
+    /**
+     * The allocations granted and not yet released, by allocation id, with the quantity consumed from each. A
+     * granted allocation may never have reached MongoDB; only the product knows how much it was actually granted.
+     * A torn consume record can only under-report consumption, so at worst a decrease that was never acknowledged
+     * is returned to the product.
+     */
+    Map<String, Allocation> openAllocations() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stock journal " + path, e);
+        }
+        Map<String, String> products = new HashMap<>();
+        Map<String, Long> consumed = new HashMap<>();
+        Set<String> released = new HashSet<>();
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            if (fields.length != 4) {
+                log.warn("Skipping torn stock journal record: {}", line);
+                continue;
+            }
+            String allocationId = fields[2];
+            switch (fields[0].charAt(0)) {
+                case GRANT -> products.put(allocationId, fields[1]);
+                case CONSUME -> consumed.merge(allocationId, Long.parseLong(fields[3]), Long::sum);
+                case RELEASE -> released.add(allocationId);
+                default -> log.warn("Skipping unknown stock journal record: {}", line);
+            }
+        }
+        Map<String, Allocation> open = new HashMap<>();
+        products.forEach((allocationId, productId) -> {
+            if (!released.contains(allocationId)) {
+                open.put(allocationId, new Allocation(productId, consumed.getOrDefault(allocationId, 0L)));
+            }
+        });
+        return open;
+    }
+
+    synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate stock journal " + path, e);
+        }
+    }
+
+    synchronized long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stock journal " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    record Allocation(String productId, long consumed) {
+    }
+}
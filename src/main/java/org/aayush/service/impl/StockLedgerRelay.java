@@ -0,0 +1,65 @@
+package org.aayush.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.repository.StockLedgerRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves the stock movement outboxes into the {@code stock_movements} ledger. The ledger lags
+ * the product documents by up to one relay interval.
+ */
+@Component
+@Slf4j
+public class StockLedgerRelay {
+
+    private final StockLedgerRepo stockLedgerRepo;
+    private final long relayIntervalMillis;
+    private final int snapshotEvery;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public StockLedgerRelay(StockLedgerRepo stockLedgerRepo,
+                            @Value("${warehouse.ledger.relay-interval-ms:1000}") long relayIntervalMillis,
+                            @Value("${warehouse.ledger.snapshot-every:100}") int snapshotEvery,
+                            @Value("${warehouse.ledger.relay-batch-size:500}") int batchSize) {
+        this.stockLedgerRepo = stockLedgerRepo;
+        this.relayIntervalMillis = relayIntervalMillis;
+        this.snapshotEvery = snapshotEvery;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::relay, relayIntervalMillis, relayIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = stockLedgerRepo.relayPendingMovements(batchSize, snapshotEvery);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Relaying stock movements failed, retrying in {} ms: {}", relayIntervalMillis, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdown();
+        relay();
+    }
+}
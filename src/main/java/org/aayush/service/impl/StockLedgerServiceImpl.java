@@ -0,0 +1,110 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.models.Product;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+import org.aayush.repository.ProductRepo;
+import org.aayush.repository.StockLedgerRepo;
+import org.aayush.service.StockLedgerService;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@Slf4j
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private final StockLedgerRepo stockLedgerRepo;
+    private final ProductRepo productRepo;
+
+    public StockLedgerServiceImpl(StockLedgerRepo stockLedgerRepo, ProductRepo productRepo) {
+        this.stockLedgerRepo = stockLedgerRepo;
+        this.productRepo = productRepo;
+    }
+
+    @Override
+    public StockMovementPage getMovements(String productId, Instant from, Instant to, Integer limit, String continuationToken) {
+        ProductRules.requireProductId(productId);
+        int pageSize = ProductRules.pageSize(limit);
+        Instant rangeStart = from != null ? from : Instant.EPOCH;
+        Instant rangeEnd = to != null ? to : Instant.now();
+        if (!rangeStart.isBefore(rangeEnd)) {
+            throw new InvalidRequestException("The start of the time range must be before its end");
+        }
+
+        List<StockMovement> items = stockLedgerRepo.findMovements(productId, rangeStart, rangeEnd,
+                decodeToken(continuationToken), pageSize);
+        String nextToken = items.size() == pageSize ? encodeToken(items.get(items.size() - 1)) : null;
+        return StockMovementPage.builder()
+                .items(items)
+                .nextToken(nextToken)
+                .build();
+    }
+
+    /**
+     * Starts from the latest snapshot at or before {@code at} and applies the movements recorded after it.
+     * Before the first snapshot the earliest one is walked back instead. A product without any ledger entry
+     * has never changed stock, so its current quantity is returned.
+     */
+    @Override
+    public StockLevel getStockAt(String productId, Instant at) {
+        ProductRules.requireProductId(productId);
+        if (at == null) {
+            throw new InvalidRequestException("A point in time is required");
+        }
+
+        Integer quantity;
+        StockSnapshot snapshot = stockLedgerRepo.findLatestSnapshot(productId, at);
+        if (snapshot != null) {
+            quantity = snapshot.getAvailableQty() + sumDeltas(stockLedgerRepo.findMovementsAfterSnapshot(snapshot, at));
+        } else {
+            StockSnapshot earliest = stockLedgerRepo.findEarliestSnapshot(productId);
+            if (earliest != null) {
+                quantity = earliest.getAvailableQty() - sumDeltas(stockLedgerRepo.findMovementsUpToSnapshot(earliest, at));
+            } else {
+                Product product = productRepo.findProductById(productId);
+                if (product == null) {
+                    log.warn("Product not found: {}", productId);
+                    throw new ProductNotFoundException(productId);
+                }
+                quantity = product.getAvailableQty();
+            }
+        }
+        return StockLevel.builder()
+                .productId(productId)
+                .availableQty(quantity)
+                .at(at)
+                .build();
+    }
+
+    private int sumDeltas(List<StockMovement> movements) {
+        return movements.stream().mapToInt(StockMovement::getDelta).sum();
+    }
+
+    private StockMovement decodeToken(String continuationToken) {
+        String token = ProductRules.decodeToken(continuationToken);
+        if (token == null) {
+            return null;
+        }
+        int separator = token.indexOf(':');
+        try {
+            return StockMovement.builder()
+                    .at(Instant.ofEpochMilli(Long.parseLong(token.substring(0, separator))))
+                    .movementId(token.substring(separator + 1))
+                    .build();
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            log.warn("Invalid continuation token provided");
+            throw new InvalidRequestException("Invalid continuation token");
+        }
+    }
+
+    private String encodeToken(StockMovement last) {
+        return ProductRules.encodeToken(last.getAt().toEpochMilli() + ":" + last.getMovementId());
+    }
+}
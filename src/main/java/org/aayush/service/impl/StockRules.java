@@ -0,0 +1,87 @@
+package org.aayush.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.exception.StockLedgerBackloggedException;
+import org.aayush.exception.WarehouseException;
+import org.aayush.models.Product;
+
+import java.util.regex.Pattern;
+
+/**
+ * Stock rules shared by the blocking and reactive inventory services.
+ */
+@Slf4j
+final class StockRules {
+
+    /**
+     * Warehouse ids become part of document ids and field paths, so they are kept to a safe alphabet.
+     */
+    private static final Pattern WAREHOUSE_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private StockRules() {
+    }
+
+    static void validateStockRequest(String productId, Integer stockAmount) {
+        if (productId == null || productId.isEmpty()) {
+            log.warn("Invalid product ID provided for stock change");
+            throw new InvalidRequestException("Invalid product ID");
+        }
+        if (stockAmount == null || stockAmount <= 0) {
+            log.warn("Invalid stock amount: {}", stockAmount);
+            throw new InvalidStockOperationException("Stock amount must be positive and non-null");
+        }
+    }
+
+    static void validateWarehouseId(String warehouseId) {
+        if (warehouseId == null || !WAREHOUSE_ID.matcher(warehouseId).matches()) {
+            log.warn("Invalid warehouse ID provided for stock change: {}", warehouseId);
+            throw new InvalidRequestException("Invalid warehouse ID");
+        }
+    }
+
+    /**
+     * Explains why a guarded increment matched nothing, given the product as it is now (null when it does not exist).
+     * A product that could take the amount was refused for its full movement outbox.
+     */
+    static WarehouseException additionRejected(String productId, int stockAmount, Product current) {
+        if (current == null) {
+            log.warn("Product not found: {}", productId);
+            return new ProductNotFoundException(productId);
+        }
+        if (currentQty(current) <= Integer.MAX_VALUE - stockAmount) {
+            return ledgerBacklogged(productId);
+        }
+        log.warn("Stock addition would exceed maximum allowed quantity for product ID: {}, Current: {}",
+                productId, currentQty(current));
+        return new InvalidStockOperationException("Stock addition would exceed maximum allowed quantity");
+    }
+
+    /**
+     * Explains why a guarded decrement matched nothing, given the product as it is now (null when it does not exist).
+     * A product that holds the amount outside its warehouses was refused for its full movement outbox.
+     */
+    static WarehouseException decreaseRejected(String productId, int stockAmount, Product current) {
+        if (current == null) {
+            log.warn("Product not found: {}", productId);
+            return new ProductNotFoundException(productId);
+        }
+        if (current.getUnassignedQty() >= stockAmount) {
+            return ledgerBacklogged(productId);
+        }
+        log.warn("Insufficient stock. Available: {}, Requested: {}", current.getUnassignedQty(), stockAmount);
+        return new InsufficientStockException(stockAmount, current.getUnassignedQty());
+    }
+
+    private static WarehouseException ledgerBacklogged(String productId) {
+        log.warn("Stock movement outbox of product ID: {} is full", productId);
+        return new StockLedgerBackloggedException(productId);
+    }
+
+    static int currentQty(Product product) {
+        return product.getAvailableQty() != null ? product.getAvailableQty() : 0;
+    }
+}
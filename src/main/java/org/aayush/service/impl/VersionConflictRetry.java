@@ -0,0 +1,70 @@
+package org.aayush.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aayush.exception.ProductVersionConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry for product updates that lost their version check to a concurrent write. Waits grow
+ * exponentially from {@code initial-backoff-ms} up to {@code max-backoff-ms} and are fully jittered, so
+ * editors racing on a hot product do not retry in lockstep. Every retry is counted in
+ * {@value #RETRIES_METRIC}.
+ */
+@Component
+public class VersionConflictRetry {
+
+    public static final String RETRIES_METRIC = "warehouse.product.update.retries";
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter retries;
+
+    public VersionConflictRetry(@Value("${warehouse.product-update.max-attempts:5}") int maxAttempts,
+                                @Value("${warehouse.product-update.initial-backoff-ms:5}") long initialBackoffMillis,
+                                @Value("${warehouse.product-update.max-backoff-ms:100}") long maxBackoffMillis,
+                                MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(Math.max(initialBackoffMillis, maxBackoffMillis));
+        this.retries = meterRegistry.counter(RETRIES_METRIC);
+    }
+
+    /**
+     * Waits before the attempt after {@code attempt} (counted from 1). Returns false without waiting when
+     * {@code attempt} was the last one, or when the thread is interrupted.
+     */
+    boolean backOff(int attempt) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * The same policy for the reactive services. Only version conflicts are retried, and the last conflict
+     * is signalled once the attempts run out.
+     */
+    Retry reactive() {
+        return Retry.backoff(maxAttempts - 1L, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(1.0)
+                .filter(ProductVersionConflictException.class::isInstance)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+}
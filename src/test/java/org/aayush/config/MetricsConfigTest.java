@@ -0,0 +1,47 @@
+package org.aayush.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.models.Product;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.service.InventoryService;
+import org.aayush.service.impl.HotStockCoalescer;
+import org.aayush.service.impl.InventoryServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void timedAspect_ServiceCalls_RecordedPerMethodAndOutcome() {
+        InventoryRepo inventoryRepo = mock(InventoryRepo.class);
+        when(inventoryRepo.addStock("1", 5)).thenReturn(Product.builder().productId("1").availableQty(5).build());
+        when(inventoryRepo.findProductById("1")).thenReturn(Product.builder().productId("1").availableQty(5).build());
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new InventoryServiceImpl(
+                inventoryRepo, mock(ApplicationEventPublisher.class), mock(HotStockCoalescer.class),
+                new ReadCoalescer(false, meterRegistry)));
+        proxyFactory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        InventoryService inventoryService = proxyFactory.getProxy();
+
+        inventoryService.addStock("1", 5);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.decreaseStock("1", 10));
+
+        assertEquals(1, timer("addStock", "none").count());
+        assertEquals(1, timer("decreaseStock", "InsufficientStockException").count());
+    }
+
+    private Timer timer(String method, String exception) {
+        return meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+    }
+}
@@ -0,0 +1,184 @@
+package org.aayush.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductPage;
+import org.aayush.repository.impl.ProductRepoImpl;
+import org.aayush.service.impl.ProductServiceImpl;
+import org.aayush.service.impl.ReadCoalescer;
+import org.aayush.service.impl.VersionConflictRetry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("large-dataset")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class ProductStreamingLargeDatasetTest {
+
+    private static final int PRODUCT_COUNT = 300_000;
+    private static final int INSERT_BATCH_SIZE = 5_000;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ProductServiceImpl productService;
+    private ProductController productController;
+
+    @BeforeAll
+    void seed() {
+        mongoClient = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(mongoClient, "warehouse-it");
+        productService = new ProductServiceImpl(new ProductRepoImpl(mongoTemplate, ProductReadPreferences.primary(), new NoOpCacheManager()),
+                new VersionConflictRetry(5, 5, 100, new SimpleMeterRegistry()), new ReadCoalescer(false, new SimpleMeterRegistry()), event -> { });
+        productController = new ProductController(productService, null, null, new ObjectMapper());
+
+        mongoTemplate.dropCollection(Product.class);
+        List<Product> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            batch.add(Product.builder()
+                    .productName("Product " + i)
+                    .productDesc("Seeded product number " + i + " for the large dataset listing test")
+                    .availableQty(i % 500)
+                    .enableLowStockThreshold(i % 2 == 0)
+                    .lowStockThreshold(i % 2 == 0 ? 25 : null)
+                    .build());
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                mongoTemplate.insert(batch, Product.class);
+                batch.clear();
+            }
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        mongoTemplate.dropCollection(Product.class);
+        mongoClient.close();
+    }
+
+    @Test
+    void streamAllProducts_LargeCollection_WritesEveryProductAsOneLine() throws Exception {
+        LineCountingOutputStream outputStream = new LineCountingOutputStream();
+
+        productController.streamAllProducts().getBody().writeTo(outputStream);
+
+        assertEquals(PRODUCT_COUNT, outputStream.lines);
+    }
+
+    /**
+     * Reports throughput and peak heap so that runs of the 128 MB {@code largeDatasetTest} task can be compared.
+     */
+    @Test
+    void exportProducts_LargeCollection_WritesEveryProductAsCompressedNdjson(@TempDir Path exportDir) throws Exception {
+        Path export = exportDir.resolve("products.ndjson.gz");
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long started = System.nanoTime();
+        ResponseEntity<StreamingResponseBody> response = export(null, null, export);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        LineCountingOutputStream ndjson = decompress(export);
+        System.out.printf("Exported %d products: %.1f MB NDJSON, %.1f MB gzip in %.2f s (%.1f MB/s uncompressed), peak heap %d MB%n",
+                ndjson.lines, ndjson.bytes / 1e6, Files.size(export) / 1e6, seconds, ndjson.bytes / 1e6 / seconds,
+                peakHeap / (1024 * 1024));
+
+        assertEquals(PRODUCT_COUNT, ndjson.lines);
+        assertNull(response.getHeaders().getFirst(ProductController.NEXT_TOKEN_HEADER));
+    }
+
+    @Test
+    void exportProducts_Chunked_ResumesFromEachTokenWithoutGapsOrDuplicates(@TempDir Path exportDir) throws Exception {
+        long exported = 0;
+        int chunks = 0;
+        String token = null;
+        do {
+            Path export = exportDir.resolve("products-" + chunks + ".ndjson.gz");
+            ResponseEntity<StreamingResponseBody> response = export(token, 100_000, export);
+            exported += decompress(export).lines;
+            chunks++;
+            token = response.getHeaders().getFirst(ProductController.NEXT_TOKEN_HEADER);
+        } while (token != null);
+
+        assertEquals(PRODUCT_COUNT, exported);
+        assertEquals(4, chunks);
+    }
+
+    @Test
+    void getProductsPage_LargeCollection_VisitsEveryProductOnce() {
+        int visited = 0;
+        String token = null;
+        do {
+            ProductPage page = productService.getProductsPage(token, 1000);
+            visited += page.getItems().size();
+            token = page.getNextToken();
+        } while (token != null);
+
+        assertEquals(PRODUCT_COUNT, visited);
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String token, Integer limit, Path target) throws IOException {
+        ResponseEntity<StreamingResponseBody> response = productController.exportProducts(token, limit);
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            response.getBody().writeTo(outputStream);
+        }
+        return response;
+    }
+
+    private static LineCountingOutputStream decompress(Path export) throws IOException {
+        LineCountingOutputStream ndjson = new LineCountingOutputStream();
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(export))) {
+            gzip.transferTo(ndjson);
+        }
+        return ndjson;
+    }
+}
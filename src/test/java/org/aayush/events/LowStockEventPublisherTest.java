@@ -0,0 +1,132 @@
+package org.aayush.events;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.LowStockEvent;
+import org.aayush.models.dto.LowStockEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockEventPublisherTest {
+
+    private LowStockEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new LowStockEventPublisher(3, 2, 60_000, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void onStockChanged_CrossingBelowAndBack_PublishesBothTransitions() {
+        publisher.onStockChanged(new StockChangedEvent(product("1", 4), -6));
+        publisher.onStockChanged(new StockChangedEvent(product("1", 12), 8));
+
+        List<LowStockEvent> events = publisher.eventsAfter(0);
+        assertEquals(2, events.size());
+        assertEquals(LowStockEventType.BELOW_THRESHOLD, events.get(0).getType());
+        assertEquals(LowStockEventType.RECOVERED, events.get(1).getType());
+        assertEquals(1, events.get(0).getSequence());
+        assertEquals(2, events.get(1).getSequence());
+    }
+
+    @Test
+    void onStockChanged_NoCrossing_PublishesNothing() {
+        publisher.onStockChanged(new StockChangedEvent(product("1", 20), -5));
+        publisher.onStockChanged(new StockChangedEvent(product("1", 3), -1));
+
+        assertTrue(publisher.eventsAfter(0).isEmpty());
+    }
+
+    @Test
+    void onStockChanged_ThresholdDisabled_PublishesNothing() {
+        Product product = product("1", 0);
+        product.setEnableLowStockThreshold(false);
+
+        publisher.onStockChanged(new StockChangedEvent(product, -20));
+
+        assertTrue(publisher.eventsAfter(0).isEmpty());
+    }
+
+    @Test
+    void onStockChanged_ThresholdEdits_PublishCrossingsWithoutStockChange() {
+        Product raised = product("1", 4);
+        Product lowered = product("1", 4);
+        lowered.setLowStockThreshold(3);
+        Product disabled = product("1", 4);
+        disabled.setEnableLowStockThreshold(false);
+        Product aboveThreshold = product("1", 4);
+        aboveThreshold.setLowStockThreshold(3);
+
+        publisher.onStockChanged(StockChangedEvent.detailsChanged(aboveThreshold, raised));
+        publisher.onStockChanged(StockChangedEvent.detailsChanged(raised, lowered));
+        publisher.onStockChanged(StockChangedEvent.detailsChanged(disabled, raised));
+        publisher.onStockChanged(StockChangedEvent.detailsChanged(raised, disabled));
+
+        assertEquals(List.of(LowStockEventType.BELOW_THRESHOLD, LowStockEventType.RECOVERED,
+                        LowStockEventType.BELOW_THRESHOLD, LowStockEventType.RECOVERED),
+                publisher.eventsAfter(0).stream().map(LowStockEvent::getType).toList());
+    }
+
+    @Test
+    void canResume_EventsEvictedFromBuffer_RequiresReset() {
+        for (int i = 0; i < 5; i++) {
+            publisher.onStockChanged(new StockChangedEvent(product(String.valueOf(i), 1), -20));
+        }
+
+        assertEquals(3, publisher.eventsAfter(0).size());
+        assertFalse(publisher.canResume(0));
+        assertTrue(publisher.canResume(2));
+        assertTrue(publisher.canResume(5));
+        assertFalse(publisher.canResume(9));
+        assertEquals(2, publisher.eventsAfter(3).size());
+    }
+
+    @Test
+    void subscribe_SubscriberFallsBehind_IsDisconnectedInsteadOfBuffering() {
+        ExecutorService stalledDispatcher = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        stalledDispatcher.execute(() -> awaitQuietly(release));
+        publisher.shutdown();
+        publisher = new LowStockEventPublisher(3, 2, 60_000, stalledDispatcher);
+
+        publisher.subscribe(null);
+        assertEquals(1, publisher.subscriberCount());
+
+        for (int i = 0; i < 10; i++) {
+            publisher.onStockChanged(new StockChangedEvent(product(String.valueOf(i), 1), -20));
+        }
+
+        assertEquals(0, publisher.subscriberCount());
+        release.countDown();
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Product product(String productId, int availableQty) {
+        return Product.builder()
+                .productId(productId)
+                .productName("Product " + productId)
+                .availableQty(availableQty)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(10)
+                .build();
+    }
+}
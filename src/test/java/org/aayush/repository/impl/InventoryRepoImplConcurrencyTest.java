@@ -0,0 +1,332 @@
+package org.aayush.repository.impl;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.aayush.config.MongoTransactionConfig;
+import org.aayush.models.Product;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.models.dto.StockAdjustmentStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class InventoryRepoImplConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 50;
+
+    private final CommandCounter commandCounter = new CommandCounter();
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private InventoryRepoImpl inventoryRepo;
+    private String productId;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getenv("MONGODB_TEST_URI")))
+                .addCommandListener(commandCounter)
+                .build());
+        mongoTemplate = new MongoTemplate(mongoClient, "warehouse-it");
+        inventoryRepo = new InventoryRepoImpl(mongoTemplate, new NoOpCacheManager(),
+                new MongoTransactionConfig().stockBatchTransactions(mongoTemplate.getMongoDatabaseFactory()));
+
+        mongoTemplate.dropCollection(Product.class);
+        mongoTemplate.dropCollection(StockMovement.class);
+        mongoTemplate.dropCollection(StockSnapshot.class);
+        Product product = mongoTemplate.save(Product.builder()
+                .productName("iPhone")
+                .productDesc("iPhone 99")
+                .availableQty(1000)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(5)
+                .build());
+        productId = product.getProductId();
+        commandCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.dropCollection(Product.class);
+        mongoTemplate.dropCollection(StockMovement.class);
+        mongoTemplate.dropCollection(StockSnapshot.class);
+        mongoClient.close();
+    }
+
+    @Test
+    void addAndDecreaseStock_ConcurrentCallsOnSameProduct_NoLostUpdates() throws Exception {
+        int operations = THREADS * CALLS_PER_THREAD;
+        List<Callable<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            calls.add(i % 2 == 0
+                    ? () -> inventoryRepo.addStock(productId, 3)
+                    : () -> inventoryRepo.decreaseStock(productId, 1));
+        }
+
+        runConcurrently(calls);
+
+        int roundTrips = commandCounter.count();
+        Product result = mongoTemplate.findById(productId, Product.class);
+        assertEquals(1000 + (operations / 2) * 3 - (operations / 2), result.getAvailableQty());
+        assertEquals(operations, roundTrips);
+    }
+
+    @Test
+    void addAndDecreaseStock_ConcurrentCalls_EveryChangeReachesLedger() throws Exception {
+        int operations = THREADS * CALLS_PER_THREAD;
+        List<Callable<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            calls.add(i % 2 == 0
+                    ? () -> inventoryRepo.addStock(productId, 3)
+                    : () -> inventoryRepo.decreaseStock(productId, 1));
+        }
+        runConcurrently(calls);
+
+        StockLedgerRepoImpl ledgerRepo = new StockLedgerRepoImpl(mongoTemplate);
+        ledgerRepo.relayPendingMovements(10, 100);
+
+        List<StockMovement> movements = mongoTemplate.find(
+                new Query(Criteria.where("productId").is(productId)), StockMovement.class);
+        movements.sort(Comparator.comparing(StockMovement::getSeq));
+        int finalQty = mongoTemplate.findById(productId, Product.class).getAvailableQty();
+        assertEquals(LongStream.rangeClosed(1, operations).boxed().toList(),
+                movements.stream().map(StockMovement::getSeq).toList());
+        assertEquals(finalQty - 1000, movements.stream().mapToInt(StockMovement::getDelta).sum());
+
+        Instant lastAt = movements.get(operations - 1).getAt();
+        StockSnapshot snapshot = ledgerRepo.findLatestSnapshot(productId, lastAt);
+        int tail = ledgerRepo.findMovementsAfterSnapshot(snapshot, lastAt).stream().mapToInt(StockMovement::getDelta).sum();
+        assertEquals(finalQty, snapshot.getAvailableQty() + tail);
+        assertEquals(0, ledgerRepo.relayPendingMovements(10, 100));
+    }
+
+    @Test
+    void decreaseStock_ConcurrentCallsExceedingStock_NeverGoesNegative() throws Exception {
+        List<Callable<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS * CALLS_PER_THREAD; i++) {
+            calls.add(() -> inventoryRepo.decreaseStock(productId, 7));
+        }
+
+        List<Product> results = runConcurrently(calls);
+
+        long applied = results.stream().filter(product -> product != null).count();
+        Product result = mongoTemplate.findById(productId, Product.class);
+        assertEquals(1000 / 7, applied);
+        assertEquals(1000 % 7, result.getAvailableQty());
+    }
+
+    @Test
+    void addStock_WouldOverflow_ReturnsNullAndLeavesQuantity() {
+        assertNull(inventoryRepo.addStock(productId, Integer.MAX_VALUE));
+        assertEquals(1000, mongoTemplate.findById(productId, Product.class).getAvailableQty());
+    }
+
+    @Test
+    void addAndDecreaseStock_ProductWithoutQuantity_TreatsMissingQuantityAsZero() {
+        String missingQtyId = mongoTemplate.save(Product.builder()
+                .productName("iPad")
+                .productDesc("iPad 99")
+                .build()).getProductId();
+
+        assertNull(inventoryRepo.decreaseStock(missingQtyId, 1));
+        assertEquals(5, inventoryRepo.addStock(missingQtyId, 5).getAvailableQty());
+        assertEquals(4, inventoryRepo.decreaseStock(missingQtyId, 1).getAvailableQty());
+    }
+
+    @Test
+    void decreaseStock_FullMovementOutbox_RefusedUntilRelayed() {
+        List<Document> movements = LongStream.rangeClosed(1, StockUpdates.MAX_PENDING_MOVEMENTS)
+                .mapToObj(seq -> new Document("seq", seq).append("delta", 0))
+                .toList();
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(productId)),
+                new Update().set(StockUpdates.PENDING_MOVEMENTS, movements)
+                        .set(StockUpdates.STOCK_SEQ, (long) StockUpdates.MAX_PENDING_MOVEMENTS), Product.class);
+
+        assertNull(inventoryRepo.decreaseStock(productId, 1));
+        assertEquals(StockAdjustmentStatus.LEDGER_BACKLOGGED,
+                inventoryRepo.adjustStock(Map.of(productId, -1)).get(productId).getStatus());
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(productId)),
+                StockUpdates.drainMovements(StockUpdates.MAX_PENDING_MOVEMENTS), Product.class);
+        assertEquals(999, inventoryRepo.decreaseStock(productId, 1).getAvailableQty());
+    }
+
+    @Test
+    void returnAllocation_FullMovementOutbox_StillApplied() {
+        assertEquals(900, inventoryRepo.grantAllocation(productId, "a1", 100).getAvailableQty());
+        List<Document> movements = LongStream.rangeClosed(1, StockUpdates.MAX_PENDING_MOVEMENTS)
+                .mapToObj(seq -> new Document("seq", seq).append("delta", 0))
+                .toList();
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(productId)),
+                new Update().set(StockUpdates.PENDING_MOVEMENTS, movements)
+                        .set(StockUpdates.STOCK_SEQ, (long) StockUpdates.MAX_PENDING_MOVEMENTS), Product.class);
+
+        assertNull(inventoryRepo.addStock(productId, 5));
+        assertEquals(970, inventoryRepo.returnAllocation(productId, "a1", 30).getAvailableQty());
+    }
+
+    @Test
+    void returnAllocation_Repeated_ReturnsUnusedStockOnce() {
+        inventoryRepo.grantAllocation(productId, "a1", 100);
+        inventoryRepo.grantAllocation(productId, "a1", 50);
+
+        assertEquals(890, inventoryRepo.returnAllocation(productId, "a1", 110).getAvailableQty());
+        assertNull(inventoryRepo.returnAllocation(productId, "a1", 110));
+        assertNull(inventoryRepo.returnAllocation(productId, "never-granted", 0));
+        assertEquals(890, mongoTemplate.findById(productId, Product.class).getAvailableQty());
+        assertFalse(mongoTemplate.findById(productId, Document.class, "products").containsKey(StockUpdates.ALLOCATIONS));
+    }
+
+    @Test
+    void addStock_ConcurrentRetriesOfOneKey_AppliedOnceWithOneRoundTripEach() throws Exception {
+        List<Callable<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            calls.add(() -> inventoryRepo.addStock(productId, 5, "key-1"));
+        }
+
+        List<Product> applied = runConcurrently(calls).stream().filter(Objects::nonNull).toList();
+
+        assertEquals(1, applied.size());
+        assertEquals(THREADS, commandCounter.count());
+        inventoryRepo.decreaseStock(productId, 2);
+        assertEquals(1003, mongoTemplate.findById(productId, Product.class).getAvailableQty());
+        KeyedStockChange change = inventoryRepo.findKeyedChange(productId, "key-1");
+        assertEquals(5, change.getDelta());
+        assertEquals(1005, change.getProduct().getAvailableQty());
+        assertEquals(applied.get(0).getVersion(), change.getProduct().getVersion());
+        assertNull(inventoryRepo.findKeyedChange(productId, "key-2"));
+        assertNull(inventoryRepo.decreaseStock(productId, 1, "key-1"));
+    }
+
+    @Test
+    void decreaseStock_UnknownProduct_ReturnsNull() {
+        assertNull(inventoryRepo.decreaseStock("000000000000000000000000", 1));
+    }
+
+    @Test
+    void decreaseAndAddStock_CrossingThreshold_KeepsLowStockFlagInSync() {
+        Product below = inventoryRepo.decreaseStock(productId, 996);
+        assertEquals(4, below.getAvailableQty());
+        assertTrue(below.getBelowThreshold());
+
+        Product recovered = inventoryRepo.addStock(productId, 10);
+        assertEquals(14, recovered.getAvailableQty());
+        assertFalse(recovered.getBelowThreshold());
+    }
+
+    @Test
+    void adjustStock_MixedOutcomes_ReportsStatusPerProduct() {
+        String unknownId = "000000000000000000000000";
+        Product other = mongoTemplate.save(Product.builder()
+                .productName("iPad")
+                .productDesc("iPad 99")
+                .availableQty(2)
+                .build());
+
+        Map<String, StockAdjustmentOutcome> outcome = inventoryRepo.adjustStock(Map.of(
+                productId, -10,
+                other.getProductId(), -5,
+                unknownId, 4));
+
+        assertEquals(StockAdjustmentStatus.APPLIED, outcome.get(productId).getStatus());
+        assertEquals(StockAdjustmentStatus.INSUFFICIENT_STOCK, outcome.get(other.getProductId()).getStatus());
+        assertEquals(StockAdjustmentStatus.NOT_FOUND, outcome.get(unknownId).getStatus());
+        assertEquals(990, mongoTemplate.findById(productId, Product.class).getAvailableQty());
+        assertEquals(2, mongoTemplate.findById(other.getProductId(), Product.class).getAvailableQty());
+    }
+
+    @Test
+    void adjustStock_ConcurrentBatchesOnSameProduct_ReportsEveryLineItApplied() throws Exception {
+        String otherId = mongoTemplate.save(Product.builder()
+                .productName("iPad")
+                .productDesc("iPad 99")
+                .availableQty(3)
+                .build()).getProductId();
+        List<Callable<Map<String, StockAdjustmentOutcome>>> batches = new ArrayList<>();
+        for (int i = 0; i < THREADS * CALLS_PER_THREAD; i++) {
+            batches.add(() -> inventoryRepo.adjustStock(Map.of(productId, -1, otherId, -1)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int productApplied = 0;
+        int otherApplied = 0;
+        try {
+            for (Future<Map<String, StockAdjustmentOutcome>> batch : executor.invokeAll(batches)) {
+                Map<String, StockAdjustmentOutcome> outcome = batch.get();
+                productApplied += outcome.get(productId).getStatus() == StockAdjustmentStatus.APPLIED ? 1 : 0;
+                otherApplied += outcome.get(otherId).getStatus() == StockAdjustmentStatus.APPLIED ? 1 : 0;
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * CALLS_PER_THREAD, productApplied);
+        assertEquals(1000 - productApplied, mongoTemplate.findById(productId, Product.class).getAvailableQty());
+        assertEquals(3, otherApplied);
+        assertEquals(0, mongoTemplate.findById(otherId, Product.class).getAvailableQty());
+    }
+
+    private List<Product> runConcurrently(List<Callable<Product>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Product> results = new ArrayList<>();
+            for (Future<Product> future : executor.invokeAll(calls)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class CommandCounter implements CommandListener {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            String command = event.getCommandName();
+            if (command.equals("findAndModify") || command.equals("find") || command.equals("update")) {
+                count.incrementAndGet();
+            }
+        }
+
+        int count() {
+            return count.get();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.aayush.repository.impl;
+
+import org.aayush.config.CacheConfig;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTS);
+    private ProductCache productCache;
+    private ProductRepoImpl productRepo;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(cacheManager);
+        productRepo = new ProductRepoImpl(mongoTemplate, ProductReadPreferences.primary(), cacheManager);
+    }
+
+    @Test
+    void findProductById_WriteCompletesDuringMiss_KeepsWrittenVersionCached() {
+        when(mongoTemplate.findOne(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            productCache.put(productCache.stamp(), product(6L, 9));
+            return product(5L, 10);
+        });
+
+        assertEquals(10, productRepo.findProductById("1").getAvailableQty());
+
+        assertEquals(9, productRepo.findProductById("1").getAvailableQty());
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void findProductsByIds_DeleteCompletesDuringMiss_DoesNotCacheDeletedProduct() {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            productCache.invalidate("1");
+            return List.of(product(5L, 10));
+        });
+
+        assertEquals(Map.of("1", product(5L, 10)), productRepo.findProductsByIds(List.of("1")));
+
+        assertNull(productCache.get("1"));
+    }
+
+    @Test
+    void put_OlderVersionAfterNewer_KeepsNewer() {
+        long stamp = productCache.stamp();
+        productCache.put(productCache.stamp(), product(6L, 9));
+
+        productCache.put(stamp, product(5L, 10));
+
+        assertEquals(6L, productCache.get("1").getVersion());
+    }
+
+    @Test
+    void put_ReadStartedAfterInvalidation_CachesProduct() {
+        productCache.put(productCache.stamp(), product(6L, 9));
+        productCache.invalidate("1");
+        assertNull(productCache.get("1"));
+
+        productCache.put(productCache.stamp(), product(7L, 14));
+
+        assertEquals(14, productCache.get("1").getAvailableQty());
+    }
+
+    private static Product product(Long version, int availableQty) {
+        return Product.builder()
+                .productId("1")
+                .productName("iPhone")
+                .availableQty(availableQty)
+                .version(version)
+                .build();
+    }
+}
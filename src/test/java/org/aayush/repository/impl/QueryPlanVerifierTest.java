@@ -0,0 +1,69 @@
+package org.aayush.repository.impl;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.aayush.config.MongoIndexConfig;
+import org.aayush.models.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class QueryPlanVerifierTest {
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(mongoClient, "warehouse-it");
+        mongoTemplate.dropCollection(Product.class);
+        new MongoIndexConfig(mongoTemplate).ensureIndexes();
+        for (int i = 0; i < 50; i++) {
+            mongoTemplate.save(Product.builder()
+                    .productName("Product " + i)
+                    .productDesc("Description " + i)
+                    .availableQty(i)
+                    .enableLowStockThreshold(true)
+                    .lowStockThreshold(10)
+                    .belowThreshold(i < 10)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.dropCollection(Product.class);
+        mongoClient.close();
+    }
+
+    @Test
+    void findCollectionScans_IndexesEnsured_ReturnsNoQueries() {
+        assertEquals(List.of(), new QueryPlanVerifier(mongoTemplate).findCollectionScans());
+    }
+
+    @Test
+    void findCollectionScans_IndexesDropped_ReportsNameAndLowStockQueries() {
+        mongoTemplate.indexOps(Product.class).dropAllIndexes();
+
+        assertTrue(new QueryPlanVerifier(mongoTemplate).findCollectionScans()
+                .containsAll(List.of("findProductByName", "findProductsBelowThreshold")));
+    }
+
+    @Test
+    void insert_DuplicateName_RejectedByUniqueIndex() {
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(Product.builder()
+                .productName("Product 1")
+                .productDesc("Duplicate")
+                .availableQty(1)
+                .build()));
+    }
+}
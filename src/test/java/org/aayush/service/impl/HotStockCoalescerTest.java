@@ -0,0 +1,302 @@
+package org.aayush.service.impl;
+
+import org.aayush.models.Product;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.repository.InventoryRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotStockCoalescerTest {
+
+    private static final String PRODUCT_ID = "1";
+    /**
+     * An idle time that every product has exceeded, so each release check retires all of them.
+     */
+    private static final long RETIRE_AT_EVERY_CHECK = -1;
+
+    @TempDir
+    Path journalDir;
+
+    private final StockStore store = new StockStore(500);
+
+    @Test
+    void tryDecrease_Disabled_ReturnsNull() {
+        HotStockCoalescer coalescer = new HotStockCoalescer(store, false, 1, 50, 60_000, 60_000, journal());
+
+        assertNull(coalescer.tryDecrease(PRODUCT_ID, 1));
+        assertEquals(0, store.writes.get());
+    }
+
+    @Test
+    void tryDecrease_HotProduct_CoalescesDecreasesIntoOneWrite() throws Exception {
+        HotStockCoalescer coalescer = started(3);
+
+        assertNull(coalescer.tryDecrease(PRODUCT_ID, 1));
+        assertNull(coalescer.tryDecrease(PRODUCT_ID, 1));
+        Product first = coalescer.tryDecrease(PRODUCT_ID, 1);
+        for (int i = 0; i < 40; i++) {
+            coalescer.tryDecrease(PRODUCT_ID, 1);
+        }
+
+        assertEquals(499, first.getAvailableQty());
+        assertEquals(1, store.writes.get());
+        assertEquals(450, store.quantity.get());
+
+        coalescer.stop();
+        assertEquals(459, store.quantity.get());
+    }
+
+    @Test
+    void tryDecrease_HotProduct_ReturnsStoredProductWithAllocationCountedIn() throws Exception {
+        HotStockCoalescer coalescer = started(1);
+
+        Product product = coalescer.tryDecrease(PRODUCT_ID, 1);
+
+        assertEquals(499, product.getAvailableQty());
+        assertEquals(451L, product.getVersion());
+        assertEquals(3, product.getReservedQty());
+        assertEquals(20, product.getLocatedQty());
+        assertFalse(product.getBelowThreshold());
+        coalescer.stop();
+    }
+
+    @Test
+    void tryDecrease_ConcurrentDecreases_NeverOversells() throws Exception {
+        HotStockCoalescer coalescer = started(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Callable<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < 1600; i++) {
+            calls.add(() -> {
+                Product product = coalescer.tryDecrease(PRODUCT_ID, 1);
+                if (product == null) {
+                    product = store.decreaseStock(PRODUCT_ID, 1);
+                }
+                if (product != null) {
+                    accepted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<Void> future : executor.invokeAll(calls)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        coalescer.stop();
+
+        assertEquals(500, accepted.get());
+        assertEquals(0, store.quantity.get());
+    }
+
+    @Test
+    void start_JournalWithUnusedAllocation_ReturnsItToStore() throws Exception {
+        HotStockCoalescer crashed = started(1);
+        for (int i = 0; i < 10; i++) {
+            crashed.tryDecrease(PRODUCT_ID, 1);
+        }
+        assertEquals(450, store.quantity.get());
+
+        HotStockCoalescer restarted = started(1);
+
+        assertEquals(490, store.quantity.get());
+        assertEquals(0, restarted.hotProductCount());
+        restarted.stop();
+    }
+
+    @Test
+    void start_GrantAppliedButUnacknowledged_ReturnsIt() {
+        HotStockCoalescer crashed = started(1);
+        store.loseGrantResponses = true;
+        assertThrows(IllegalStateException.class, () -> crashed.tryDecrease(PRODUCT_ID, 1));
+        assertEquals(450, store.quantity.get());
+        store.loseGrantResponses = false;
+
+        HotStockCoalescer restarted = started(1);
+
+        assertEquals(500, store.quantity.get());
+        restarted.releaseIdle();
+        assertEquals(0, restarted.pendingReturnCount());
+    }
+
+    @Test
+    void releaseIdle_ReturnFails_KeepsItPendingUntilItGoesThrough() {
+        HotStockCoalescer coalescer = started(1, RETIRE_AT_EVERY_CHECK);
+        for (int i = 0; i < 10; i++) {
+            coalescer.tryDecrease(PRODUCT_ID, 1);
+        }
+
+        store.failReturns = true;
+        coalescer.releaseIdle();
+        assertEquals(0, coalescer.hotProductCount());
+        assertEquals(1, coalescer.pendingReturnCount());
+        assertEquals(450, store.quantity.get());
+
+        store.failReturns = false;
+        coalescer.releaseIdle();
+        assertEquals(0, coalescer.pendingReturnCount());
+        assertEquals(490, store.quantity.get());
+    }
+
+    @Test
+    void start_ReturnAppliedButUnacknowledged_DoesNotReturnItTwice() {
+        HotStockCoalescer crashed = started(1, RETIRE_AT_EVERY_CHECK);
+        for (int i = 0; i < 10; i++) {
+            crashed.tryDecrease(PRODUCT_ID, 1);
+        }
+        store.loseReturnResponses = true;
+        crashed.releaseIdle();
+        assertEquals(490, store.quantity.get());
+        store.loseReturnResponses = false;
+
+        HotStockCoalescer restarted = started(1);
+
+        assertEquals(490, store.quantity.get());
+        restarted.releaseIdle();
+        assertEquals(0, restarted.pendingReturnCount());
+    }
+
+    private HotStockCoalescer started(int hotThreshold) {
+        return started(hotThreshold, 60_000);
+    }
+
+    private HotStockCoalescer started(int hotThreshold, long idleReleaseMillis) {
+        HotStockCoalescer coalescer = new HotStockCoalescer(store, true, hotThreshold, 50, idleReleaseMillis, 60_000, journal());
+        coalescer.start();
+        return coalescer;
+    }
+
+    private String journal() {
+        return journalDir.resolve("stock-journal.log").toString();
+    }
+
+    private static class StockStore implements InventoryRepo {
+        private final AtomicInteger quantity;
+        private final AtomicInteger writes = new AtomicInteger();
+        private final Map<String, Integer> allocations = new ConcurrentHashMap<>();
+        private volatile boolean loseGrantResponses;
+        private volatile boolean failReturns;
+        private volatile boolean loseReturnResponses;
+
+        StockStore(int quantity) {
+            this.quantity = new AtomicInteger(quantity);
+        }
+
+        @Override
+        public Product addStock(String productId, Integer stockAmount) {
+            writes.incrementAndGet();
+            return product(quantity.addAndGet(stockAmount));
+        }
+
+        /**
+         * Records the grant per allocation. With {@code loseGrantResponses}, fails after applying the grant, as a
+         * write whose reply never arrives does.
+         */
+        @Override
+        public Product grantAllocation(String productId, String allocationId, Integer quantity) {
+            Product product = decreaseStock(productId, quantity);
+            if (product != null) {
+                allocations.merge(allocationId, quantity, Integer::sum);
+            }
+            if (loseGrantResponses) {
+                throw new IllegalStateException("Grant response lost");
+            }
+            return product;
+        }
+
+        /**
+         * Fails before applying the return with {@code failReturns}, and after applying it with
+         * {@code loseReturnResponses}.
+         */
+        @Override
+        public Product returnAllocation(String productId, String allocationId, long consumed) {
+            if (failReturns) {
+                throw new IllegalStateException("MongoDB unavailable");
+            }
+            Integer granted = allocations.remove(allocationId);
+            Product product = granted != null ? addStock(productId, (int) Math.max(0, granted - consumed)) : null;
+            if (loseReturnResponses) {
+                throw new IllegalStateException("Return response lost");
+            }
+            return product;
+        }
+
+        @Override
+        public Product decreaseStock(String productId, Integer stockAmount) {
+            writes.incrementAndGet();
+            while (true) {
+                int current = quantity.get();
+                if (current < stockAmount) {
+                    return null;
+                }
+                if (quantity.compareAndSet(current, current - stockAmount)) {
+                    return product(current - stockAmount);
+                }
+            }
+        }
+
+        @Override
+        public Product addStock(String productId, Integer stockAmount, String idempotencyKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Product decreaseStock(String productId, Integer stockAmount, String idempotencyKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public KeyedStockChange findKeyedChange(String productId, String idempotencyKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Product findProductById(String productId) {
+            return product(quantity.get());
+        }
+
+        @Override
+        public Map<String, StockAdjustmentOutcome> adjustStock(Map<String, Integer> deltas) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, StockAdjustmentOutcome> adjustStockAtomically(Map<String, Integer> deltas) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * The stored product, with a version that follows the quantity so every write changes it.
+         */
+        private static Product product(int quantity) {
+            return Product.builder()
+                    .productId(PRODUCT_ID)
+                    .productName("iPhone")
+                    .availableQty(quantity)
+                    .reservedQty(3)
+                    .locatedQty(20)
+                    .enableLowStockThreshold(true)
+                    .lowStockThreshold(10)
+                    .belowThreshold(quantity < 10)
+                    .version((long) quantity + 1)
+                    .build();
+        }
+    }
+}
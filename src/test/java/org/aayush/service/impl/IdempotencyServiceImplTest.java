@@ -0,0 +1,155 @@
+package org.aayush.service.impl;
+
+import org.aayush.exception.IdempotencyKeyReusedException;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.models.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceImplTest {
+
+    private final IdempotencyServiceImpl node = new IdempotencyServiceImpl(1000, 60_000);
+    private final ExecutorService server = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownNow();
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_ThrowsIdempotencyKeyReusedException() {
+        node.execute("key-1", "add-stock:1:5", () -> product(5));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> node.execute("key-1", "add-stock:1:6", () -> product(6)));
+    }
+
+    @Test
+    void execute_OperationFails_ReleasesKeyForRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<Product> failsOnce = () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new InsufficientStockException(5, 0);
+            }
+            return product(5);
+        };
+
+        assertThrows(InsufficientStockException.class, () -> node.execute("key-1", "decrease-stock:1:5", failsOnce));
+        assertEquals(5, node.execute("key-1", "decrease-stock:1:5", failsOnce).getAvailableQty());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void execute_RetryWhileOriginalRuns_WaitsForItsResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger applications = new AtomicInteger();
+        Future<Product> original = server.submit(() -> node.execute("key-1", "add-stock:1:5", () -> {
+            applications.incrementAndGet();
+            started.countDown();
+            await(release);
+            return product(5);
+        }));
+        started.await();
+
+        Future<Product> retry = server.submit(() -> node.execute("key-1", "add-stock:1:5", () -> {
+            applications.incrementAndGet();
+            return product(10);
+        }));
+        release.countDown();
+
+        assertSame(original.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, applications.get());
+    }
+
+    /**
+     * Clients give up on slow responses and retry against either of two instances, while the abandoned attempts
+     * keep running. The operation records its key in the same atomic write as its change, as keyed stock changes
+     * do on the product. Every key must still be applied exactly once and every client must end up with the result
+     * of that single application.
+     */
+    @Test
+    void execute_ClientTimeoutsAndConcurrentRetriesAcrossInstances_AppliesEachKeyOnce() throws Exception {
+        IdempotencyServiceImpl otherNode = new IdempotencyServiceImpl(1000, 60_000);
+        List<IdempotencyServiceImpl> nodes = List.of(node, otherNode);
+        AtomicInteger stock = new AtomicInteger();
+        Map<String, Product> recordedKeys = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> applications = new ConcurrentHashMap<>();
+
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<Future<Product[]>> outcomes = new ArrayList<>();
+        for (int client = 0; client < 64; client++) {
+            String key = "key-" + client;
+            Supplier<Product> addOne = () -> {
+                sleep(ThreadLocalRandom.current().nextInt(30));
+                return recordedKeys.computeIfAbsent(key, k -> {
+                    applications.computeIfAbsent(key, applied -> new AtomicInteger()).incrementAndGet();
+                    return product(stock.incrementAndGet());
+                });
+            };
+            outcomes.add(clients.submit(() -> {
+                Product first = null;
+                for (int attempt = 0; ; attempt++) {
+                    IdempotencyServiceImpl target = nodes.get(attempt % 2);
+                    Future<Product> call = server.submit(() -> target.execute(key, "add-stock:1:1", addOne));
+                    try {
+                        Product response = call.get(10, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            first = response;
+                        }
+                        Product replay = nodes.get((attempt + 1) % 2).execute(key, "add-stock:1:1", addOne);
+                        return new Product[]{first, replay};
+                    } catch (TimeoutException e) {
+                        // the attempt keeps running on the server; retry like a client would
+                    }
+                }
+            }));
+        }
+
+        for (Future<Product[]> outcome : outcomes) {
+            Product[] responses = outcome.get(30, TimeUnit.SECONDS);
+            assertSame(responses[0], responses[1]);
+        }
+        clients.shutdown();
+
+        assertEquals(64, applications.size());
+        applications.forEach((key, count) -> assertEquals(1, count.get(), key));
+        assertEquals(64, stock.get());
+    }
+
+    private static Product product(int quantity) {
+        return Product.builder().productId("1").availableQty(quantity).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
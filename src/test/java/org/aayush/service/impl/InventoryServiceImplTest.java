@@ -1,6 +1,18 @@
 package org.aayush.service.impl;
 
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.IdempotencyKeyReusedException;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.exception.StockLedgerBackloggedException;
 import org.aayush.models.Product;
+import org.aayush.models.dto.BatchStockAdjustmentResponse;
+import org.aayush.models.dto.KeyedStockChange;
+import org.aayush.models.dto.StockAdjustmentLine;
+import org.aayush.models.dto.StockAdjustmentOutcome;
+import org.aayush.models.dto.StockAdjustmentStatus;
 import org.aayush.repository.InventoryRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +20,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,6 +36,15 @@ class InventoryServiceImplTest {
     @Mock
     private InventoryRepo inventoryRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HotStockCoalescer hotStockCoalescer;
+
+    @Mock
+    private ReadCoalescer readCoalescer;
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -47,23 +74,23 @@ class InventoryServiceImplTest {
                 .enableLowStockThreshold(true)
                 .lowStockThreshold(5)
                 .build();
-        when(inventoryRepo.findProductById(productId)).thenReturn(product);
         when(inventoryRepo.addStock(productId, stockAmount)).thenReturn(updatedProduct);
 
         Product result = inventoryService.addStock(productId, stockAmount);
 
         assertNotNull(result);
         assertEquals(15, result.getAvailableQty());
-        verify(inventoryRepo).findProductById(productId);
         verify(inventoryRepo).addStock(productId, stockAmount);
+        verify(inventoryRepo, never()).findProductById(anyString());
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
     }
 
     @Test
-    void addStock_NullProductId_ThrowsIllegalArgumentException() {
+    void addStock_NullProductId_ThrowsInvalidRequestException() {
         String productId = null;
         Integer stockAmount = 5;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Invalid product ID", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -71,11 +98,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void addStock_EmptyProductId_ThrowsIllegalArgumentException() {
+    void addStock_EmptyProductId_ThrowsInvalidRequestException() {
         String productId = "";
         Integer stockAmount = 5;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Invalid product ID", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -83,11 +110,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void addStock_NullStockAmount_ThrowsIllegalArgumentException() {
+    void addStock_NullStockAmount_ThrowsInvalidStockOperationException() {
         String productId = "1";
         Integer stockAmount = null;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Stock amount must be positive and non-null", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -95,11 +122,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void addStock_NonPositiveStockAmount_ThrowsIllegalArgumentException() {
+    void addStock_NonPositiveStockAmount_ThrowsInvalidStockOperationException() {
         String productId = "1";
         Integer stockAmount = 0;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Stock amount must be positive and non-null", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -107,30 +134,32 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void addStock_ProductNotFound_ThrowsRuntimeException() {
+    void addStock_ProductNotFound_ThrowsProductNotFoundException() {
         String productId = "1";
         Integer stockAmount = 5;
+        when(inventoryRepo.addStock(productId, stockAmount)).thenReturn(null);
         when(inventoryRepo.findProductById(productId)).thenReturn(null);
 
-        RuntimeException exception = assertThrows(RuntimeException.class,
+        ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Product not found: " + productId, exception.getMessage());
+        verify(inventoryRepo).addStock(productId, stockAmount);
         verify(inventoryRepo).findProductById(productId);
-        verify(inventoryRepo, never()).addStock(anyString(), anyInt());
     }
 
     @Test
-    void addStock_ExceedsMaxInteger_ThrowsIllegalArgumentException() {
+    void addStock_ExceedsMaxInteger_ThrowsInvalidStockOperationException() {
         String productId = "1";
         Integer stockAmount = Integer.MAX_VALUE;
         product.setAvailableQty(Integer.MAX_VALUE - 1);
+        when(inventoryRepo.addStock(productId, stockAmount)).thenReturn(null);
         when(inventoryRepo.findProductById(productId)).thenReturn(product);
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
                 () -> inventoryService.addStock(productId, stockAmount));
         assertEquals("Stock addition would exceed maximum allowed quantity", exception.getMessage());
+        verify(inventoryRepo).addStock(productId, stockAmount);
         verify(inventoryRepo).findProductById(productId);
-        verify(inventoryRepo, never()).addStock(anyString(), anyInt());
     }
 
     @Test
@@ -145,23 +174,38 @@ class InventoryServiceImplTest {
                 .enableLowStockThreshold(true)
                 .lowStockThreshold(5)
                 .build();
-        when(inventoryRepo.findProductById(productId)).thenReturn(product);
         when(inventoryRepo.decreaseStock(productId, stockAmount)).thenReturn(updatedProduct);
 
         Product result = inventoryService.decreaseStock(productId, stockAmount);
 
         assertNotNull(result);
         assertEquals(5, result.getAvailableQty());
-        verify(inventoryRepo).findProductById(productId);
         verify(inventoryRepo).decreaseStock(productId, stockAmount);
+        verify(inventoryRepo, never()).findProductById(anyString());
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
     }
 
     @Test
-    void decreaseStock_NullProductId_ThrowsIllegalArgumentException() {
+    void decreaseStock_HotProduct_ServedWithoutRepoWrite() {
+        Product reservedView = Product.builder()
+                .productId("1")
+                .availableQty(5)
+                .build();
+        when(hotStockCoalescer.tryDecrease("1", 5)).thenReturn(reservedView);
+
+        Product result = inventoryService.decreaseStock("1", 5);
+
+        assertSame(reservedView, result);
+        verify(inventoryRepo, never()).decreaseStock(anyString(), anyInt());
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    void decreaseStock_NullProductId_ThrowsInvalidRequestException() {
         String productId = null;
         Integer stockAmount = 5;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Invalid product ID", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -169,11 +213,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void decreaseStock_EmptyProductId_ThrowsIllegalArgumentException() {
+    void decreaseStock_EmptyProductId_ThrowsInvalidRequestException() {
         String productId = "";
         Integer stockAmount = 5;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Invalid product ID", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -181,11 +225,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void decreaseStock_NullStockAmount_ThrowsIllegalArgumentException() {
+    void decreaseStock_NullStockAmount_ThrowsInvalidStockOperationException() {
         String productId = "1";
         Integer stockAmount = null;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Stock amount must be positive and non-null", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -193,11 +237,11 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void decreaseStock_NonPositiveStockAmount_ThrowsIllegalArgumentException() {
+    void decreaseStock_NonPositiveStockAmount_ThrowsInvalidStockOperationException() {
         String productId = "1";
         Integer stockAmount = 0;
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Stock amount must be positive and non-null", exception.getMessage());
         verify(inventoryRepo, never()).findProductById(anyString());
@@ -205,28 +249,151 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void decreaseStock_ProductNotFound_ThrowsRuntimeException() {
+    void decreaseStock_ProductNotFound_ThrowsProductNotFoundException() {
         String productId = "1";
         Integer stockAmount = 5;
+        when(inventoryRepo.decreaseStock(productId, stockAmount)).thenReturn(null);
         when(inventoryRepo.findProductById(productId)).thenReturn(null);
 
-        RuntimeException exception = assertThrows(RuntimeException.class,
+        ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Product not found: " + productId, exception.getMessage());
+        verify(inventoryRepo).decreaseStock(productId, stockAmount);
         verify(inventoryRepo).findProductById(productId);
-        verify(inventoryRepo, never()).decreaseStock(anyString(), anyInt());
     }
 
     @Test
-    void decreaseStock_InsufficientStock_ThrowsIllegalArgumentException() {
+    void decreaseStock_RefusedWithEnoughStock_ThrowsLedgerBackloggedException() {
+        String productId = "1";
+        when(inventoryRepo.decreaseStock(productId, 5)).thenReturn(null);
+        when(inventoryRepo.findProductById(productId)).thenReturn(product);
+
+        StockLedgerBackloggedException exception = assertThrows(StockLedgerBackloggedException.class,
+                () -> inventoryService.decreaseStock(productId, 5));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void decreaseStock_InsufficientStock_ThrowsInsufficientStockException() {
         String productId = "1";
         Integer stockAmount = 15;
+        when(inventoryRepo.decreaseStock(productId, stockAmount)).thenReturn(null);
         when(inventoryRepo.findProductById(productId)).thenReturn(product);
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
                 () -> inventoryService.decreaseStock(productId, stockAmount));
         assertEquals("Insufficient stock available. Requested: 15, Available: 10", exception.getMessage());
+        verify(inventoryRepo).decreaseStock(productId, stockAmount);
         verify(inventoryRepo).findProductById(productId);
-        verify(inventoryRepo, never()).decreaseStock(anyString(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addStock_KeyAlreadyRecorded_ReplaysRecordedChangeWithoutEvent() {
+        when(inventoryRepo.addStock("1", 5, "key-1")).thenReturn(null);
+        when(inventoryRepo.findKeyedChange("1", "key-1")).thenReturn(new KeyedStockChange(5, product));
+
+        Product result = inventoryService.addStock("1", 5, "key-1");
+
+        assertSame(product, result);
+        verify(inventoryRepo, never()).findProductById(anyString());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void decreaseStock_KeyRecordedForDifferentAmount_ThrowsIdempotencyKeyReusedException() {
+        when(inventoryRepo.decreaseStock("1", 5, "key-1")).thenReturn(null);
+        when(inventoryRepo.findKeyedChange("1", "key-1")).thenReturn(new KeyedStockChange(-3, product));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> inventoryService.decreaseStock("1", 5, "key-1"));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void decreaseStock_Keyed_BypassesWriteBehindAndReportsShortage() {
+        when(inventoryRepo.decreaseStock("1", 15, "key-1")).thenReturn(null);
+        when(inventoryRepo.findKeyedChange("1", "key-1")).thenReturn(null);
+        when(inventoryRepo.findProductById("1")).thenReturn(product);
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.decreaseStock("1", 15, "key-1"));
+
+        verifyNoInteractions(hotStockCoalescer, eventPublisher);
+    }
+
+    @Test
+    void adjustStock_LinesForSameProduct_SendsNetDeltaOnce() {
+        List<StockAdjustmentLine> lines = List.of(
+                new StockAdjustmentLine("1", 10),
+                new StockAdjustmentLine("2", -3),
+                new StockAdjustmentLine("1", -4));
+        when(inventoryRepo.adjustStock(Map.of("1", 6, "2", -3))).thenReturn(Map.of(
+                "1", StockAdjustmentOutcome.applied(product),
+                "2", StockAdjustmentOutcome.failed(StockAdjustmentStatus.INSUFFICIENT_STOCK)));
+
+        BatchStockAdjustmentResponse response = inventoryService.adjustStock(lines, false);
+
+        assertEquals(2, response.getAppliedCount());
+        assertEquals(1, response.getFailedCount());
+        assertEquals(StockAdjustmentStatus.APPLIED, response.getResults().get(0).getStatus());
+        assertEquals(StockAdjustmentStatus.INSUFFICIENT_STOCK, response.getResults().get(1).getStatus());
+        assertEquals(StockAdjustmentStatus.APPLIED, response.getResults().get(2).getStatus());
+        verify(inventoryRepo, never()).adjustStockAtomically(anyMap());
+        verify(readCoalescer).productsWritten(Set.of("1", "2"));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockChangedEvent changed
+                && changed.getProduct() == product && changed.getDelta() == 6));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void adjustStock_AppliedLineCrossesThreshold_PublishesCrossingForIt() {
+        Product belowThreshold = Product.builder()
+                .productId("1")
+                .availableQty(3)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(5)
+                .build();
+        when(inventoryRepo.adjustStockAtomically(Map.of("1", -7))).thenReturn(Map.of("1", StockAdjustmentOutcome.applied(belowThreshold)));
+
+        inventoryService.adjustStock(List.of(new StockAdjustmentLine("1", -7)), true);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockChangedEvent changed
+                && !changed.wasBelowThreshold() && changed.isBelowThreshold()));
+    }
+
+    @Test
+    void adjustStock_InvalidLine_MarksLineInvalidAndAppliesRest() {
+        List<StockAdjustmentLine> lines = List.of(
+                new StockAdjustmentLine("1", 0),
+                new StockAdjustmentLine("2", 5));
+        when(inventoryRepo.adjustStock(Map.of("2", 5))).thenReturn(Map.of("2", StockAdjustmentOutcome.applied(product)));
+
+        BatchStockAdjustmentResponse response = inventoryService.adjustStock(lines, false);
+
+        assertEquals(StockAdjustmentStatus.INVALID, response.getResults().get(0).getStatus());
+        assertEquals(StockAdjustmentStatus.APPLIED, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void adjustStock_AtomicWithInvalidLine_RejectsWholeBatch() {
+        List<StockAdjustmentLine> lines = List.of(
+                new StockAdjustmentLine("", 4),
+                new StockAdjustmentLine("2", 5));
+
+        BatchStockAdjustmentResponse response = inventoryService.adjustStock(lines, true);
+
+        assertEquals(0, response.getAppliedCount());
+        assertEquals(StockAdjustmentStatus.INVALID, response.getResults().get(0).getStatus());
+        assertEquals(StockAdjustmentStatus.ROLLED_BACK, response.getResults().get(1).getStatus());
+        verifyNoInteractions(inventoryRepo);
+    }
+
+    @Test
+    void adjustStock_EmptyBatch_ThrowsInvalidStockOperationException() {
+        InvalidStockOperationException exception = assertThrows(InvalidStockOperationException.class,
+                () -> inventoryService.adjustStock(List.of(), false));
+        assertEquals("At least one adjustment line is required", exception.getMessage());
+        verifyNoInteractions(inventoryRepo);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package org.aayush.service.impl;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.config.MongoTransactionConfig;
+import org.aayush.config.ProductReadPreferences;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.models.LocationStock;
+import org.aayush.models.Product;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.repository.LocationStockRepo;
+import org.aayush.repository.ProductRepo;
+import org.aayush.repository.impl.InventoryRepoImpl;
+import org.aayush.repository.impl.LocationStockRepoImpl;
+import org.aayush.repository.impl.ProductRepoImpl;
+import org.aayush.repository.impl.StockUpdates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationStockServiceImplTest {
+
+    @Mock
+    private LocationStockRepo locationStockRepo;
+    @Mock
+    private ProductRepo productRepo;
+
+    private LocationStockServiceImpl locationStockService;
+
+    @BeforeEach
+    void setUp() {
+        locationStockService = new LocationStockServiceImpl(locationStockRepo, productRepo);
+    }
+
+    @Test
+    void addStock_ExistingProduct_AdjustsOnlyTheLocation() {
+        when(productRepo.findProductById("1")).thenReturn(product(10));
+        when(locationStockRepo.adjustStock("1", "berlin-1", 5)).thenReturn(location("berlin-1", 5));
+
+        LocationStock result = locationStockService.addStock("1", "berlin-1", 5);
+
+        assertEquals(5, result.getAvailableQty());
+        assertEquals("1:berlin-1", result.getLocationStockId());
+    }
+
+    @Test
+    void addStock_UnknownProduct_ThrowsProductNotFoundException() {
+        when(productRepo.findProductById("1")).thenReturn(null);
+
+        assertThrows(ProductNotFoundException.class, () -> locationStockService.addStock("1", "berlin-1", 5));
+
+        verifyNoInteractions(locationStockRepo);
+    }
+
+    @Test
+    void addStock_Overflow_ThrowsInvalidStockOperationException() {
+        when(productRepo.findProductById("1")).thenReturn(product(10));
+        when(locationStockRepo.adjustStock("1", "berlin-1", 5)).thenReturn(null);
+
+        assertThrows(InvalidStockOperationException.class, () -> locationStockService.addStock("1", "berlin-1", 5));
+    }
+
+    @Test
+    void addStock_WarehouseIdWithFieldPathCharacters_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> locationStockService.addStock("1", "berlin.1", 5));
+        assertThrows(InvalidRequestException.class, () -> locationStockService.addStock("1", "$berlin", 5));
+
+        verifyNoInteractions(locationStockRepo, productRepo);
+    }
+
+    @Test
+    void decreaseStock_EnoughAtLocation_SkipsProductLookup() {
+        when(locationStockRepo.adjustStock("1", "berlin-1", -3)).thenReturn(location("berlin-1", 2));
+
+        LocationStock result = locationStockService.decreaseStock("1", "berlin-1", 3);
+
+        assertEquals(2, result.getAvailableQty());
+        verifyNoInteractions(productRepo);
+    }
+
+    @Test
+    void decreaseStock_NotEnoughAtLocation_ThrowsInsufficientStockException() {
+        when(locationStockRepo.adjustStock("1", "berlin-1", -3)).thenReturn(null);
+        when(productRepo.findProductById("1")).thenReturn(product(10));
+        when(locationStockRepo.findLocation("1", "berlin-1")).thenReturn(location("berlin-1", 2));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> locationStockService.decreaseStock("1", "berlin-1", 3));
+
+        assertEquals(2, exception.getAvailable());
+    }
+
+    @Test
+    void decreaseStock_NeverStockedLocation_ThrowsInsufficientStockExceptionWithZeroAvailable() {
+        when(locationStockRepo.adjustStock("1", "paris", -1)).thenReturn(null);
+        when(productRepo.findProductById("1")).thenReturn(product(10));
+        when(locationStockRepo.findLocation("1", "paris")).thenReturn(null);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> locationStockService.decreaseStock("1", "paris", 1));
+
+        assertEquals(0, exception.getAvailable());
+    }
+
+    @Test
+    void getLocation_NeverStocked_ReturnsZeroQuantity() {
+        when(productRepo.findProductById("1")).thenReturn(product(10));
+        when(locationStockRepo.findLocation("1", "paris")).thenReturn(null);
+
+        LocationStock result = locationStockService.getLocation("1", "paris");
+
+        assertEquals(0, result.getAvailableQty());
+        assertEquals("1:paris", result.getLocationStockId());
+    }
+
+    @Test
+    void getAvailability_ReadsRolledUpTotalFromProductOnly() {
+        Product product = product(55);
+        product.setReservedQty(4);
+        product.setLocatedQty(15);
+        when(productRepo.findProductById("1")).thenReturn(product);
+
+        StockAvailability result = locationStockService.getAvailability("1");
+
+        assertEquals(55, result.getAvailableQty());
+        assertEquals(4, result.getReservedQty());
+        assertEquals(15, result.getLocatedQty());
+        assertEquals(40, result.getUnassignedQty());
+        verify(locationStockRepo, never()).findLocations(anyString());
+        verify(locationStockRepo, never()).adjustStock(anyString(), anyString(), anyInt());
+    }
+
+    /**
+     * Product-level and warehouse decreases on the same product, against MongoDB with the real roll-up.
+     */
+    @Nested
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    class MixedWithProductLevelStock {
+
+        private MongoClient mongoClient;
+        private MongoTemplate mongoTemplate;
+        private LocationStockRepoImpl locations;
+        private LocationStockServiceImpl warehouseStock;
+        private InventoryServiceImpl productStock;
+        private String productId;
+
+        @BeforeEach
+        void setUp() {
+            mongoClient = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+            mongoTemplate = new MongoTemplate(mongoClient, "warehouse-it");
+            mongoTemplate.dropCollection(Product.class);
+            mongoTemplate.dropCollection(LocationStock.class);
+            locations = new LocationStockRepoImpl(mongoTemplate, new NoOpCacheManager());
+            warehouseStock = new LocationStockServiceImpl(locations,
+                    new ProductRepoImpl(mongoTemplate, ProductReadPreferences.primary(), new NoOpCacheManager()));
+            InventoryRepoImpl inventoryRepo = new InventoryRepoImpl(mongoTemplate, new NoOpCacheManager(),
+                    new MongoTransactionConfig().stockBatchTransactions(mongoTemplate.getMongoDatabaseFactory()));
+            productStock = new InventoryServiceImpl(inventoryRepo, event -> { },
+                    new HotStockCoalescer(inventoryRepo, false, 0, 0, 0, 0, ""),
+                    new ReadCoalescer(false, new SimpleMeterRegistry()));
+            productId = mongoTemplate.save(Product.builder()
+                    .productName("iPhone")
+                    .productDesc("iPhone 99")
+                    .availableQty(5)
+                    .build()).getProductId();
+        }
+
+        @AfterEach
+        void tearDown() {
+            mongoTemplate.dropCollection(Product.class);
+            mongoTemplate.dropCollection(LocationStock.class);
+            mongoClient.close();
+        }
+
+        @Test
+        void decreaseStock_ProductLevelThenWarehouse_TotalNeverGoesNegative() {
+            warehouseStock.addStock(productId, "berlin-1", 5);
+            rollUp();
+            assertEquals(10, total());
+
+            InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                    () -> productStock.decreaseStock(productId, 10));
+            assertEquals(5, exception.getAvailable());
+            assertEquals(5, productStock.decreaseStock(productId, 5).getAvailableQty());
+
+            warehouseStock.decreaseStock(productId, "berlin-1", 5);
+            assertThrows(InsufficientStockException.class, () -> productStock.decreaseStock(productId, 1));
+            rollUp();
+
+            Product product = mongoTemplate.findById(productId, Product.class);
+            assertEquals(0, product.getAvailableQty());
+            assertEquals(0, product.getLocatedQty());
+        }
+
+        @Test
+        void backfillLocatedQty_FoldedBeforeLocatedQtyWasKept_CountsOnlyFoldedWarehouseStock() {
+            warehouseStock.addStock(productId, "berlin-1", 5);
+            rollUp();
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(productId)), new Update()
+                    .unset(StockUpdates.LOCATED_QTY)
+                    .set("enableLowStockThreshold", true)
+                    .set("lowStockThreshold", 6), Product.class);
+            warehouseStock.addStock(productId, "berlin-1", 3);
+
+            assertEquals(1, locations.backfillLocatedQty());
+            Product product = mongoTemplate.findById(productId, Product.class);
+            assertEquals(5, product.getLocatedQty());
+            assertEquals(5, product.getUnassignedQty());
+            assertTrue(product.getBelowThreshold());
+
+            rollUp();
+            product = mongoTemplate.findById(productId, Product.class);
+            assertEquals(13, product.getAvailableQty());
+            assertEquals(8, product.getLocatedQty());
+            assertEquals(0, locations.backfillLocatedQty());
+        }
+
+        private int total() {
+            return mongoTemplate.findById(productId, Product.class).getAvailableQty();
+        }
+
+        /**
+         * Folds every pending outbox. Outboxes are picked by a server timestamp, so a fold is retried briefly until
+         * the test's clock has passed it.
+         */
+        private void rollUp() {
+            for (int attempt = 0; attempt < 100 && locations.rollUpPendingTotals(100).isEmpty(); attempt++) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static LocationStock location(String warehouseId, int availableQty) {
+        return LocationStock.builder()
+                .locationStockId(LocationStock.idOf("1", warehouseId))
+                .productId("1")
+                .warehouseId(warehouseId)
+                .availableQty(availableQty)
+                .build();
+    }
+
+    private static Product product(int availableQty) {
+        return Product.builder()
+                .productId("1")
+                .productName("iPhone")
+                .productDesc("iPhone 99")
+                .availableQty(availableQty)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(5)
+                .version(1L)
+                .build();
+    }
+}
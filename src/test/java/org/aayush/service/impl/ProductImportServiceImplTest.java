@@ -0,0 +1,127 @@
+package org.aayush.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductImportError;
+import org.aayush.models.dto.ProductImportFormat;
+import org.aayush.models.dto.ProductImportSummary;
+import org.aayush.repository.ProductRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    @Mock
+    private ProductRepo productRepo;
+    @Mock
+    private ReadCoalescer readCoalescer;
+
+    private final ExecutorService validationPool = Executors.newFixedThreadPool(2);
+    private final List<Product> inserted = new ArrayList<>();
+    private final List<ProductImportError> errors = new ArrayList<>();
+    private ProductImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportServiceImpl(productRepo, readCoalescer, new ObjectMapper(), 2, 2, 200, validationPool);
+        lenient().when(productRepo.findExistingProductNames(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            Set<String> insertedNames = inserted.stream().map(Product::getProductName).collect(Collectors.toSet());
+            return names.stream()
+                    .filter(name -> name.startsWith("Existing") || insertedNames.contains(name))
+                    .collect(Collectors.toSet());
+        });
+        lenient().when(productRepo.insertProducts(anyList())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return Set.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationPool.shutdownNow();
+    }
+
+    @Test
+    void importProducts_Csv_InsertsValidRowsAndReportsRejectedOnesInOrder() throws Exception {
+        String csv = """
+                productName,productDesc,availableQty,enableLowStockThreshold,lowStockThreshold
+                Laptop,"Thin, light ""pro"" model",10,true,2
+                Existing Mouse,Wireless,5,,
+                Keyboard,,3,false,
+                "Monitor","27 inch
+                4K",7,,
+                Laptop,Duplicate in file,1,,
+                Desk,Standing,many,,
+                """;
+
+        ProductImportSummary summary = importService.importProducts(new StringReader(csv), ProductImportFormat.CSV, errors::add);
+
+        assertEquals(6, summary.getRowCount());
+        assertEquals(2, summary.getImportedCount());
+        assertEquals(4, summary.getRejectedCount());
+        assertEquals(List.of("Laptop", "Monitor"), inserted.stream().map(Product::getProductName).toList());
+        assertEquals("Thin, light \"pro\" model", inserted.get(0).getProductDesc());
+        assertEquals("27 inch\n4K", inserted.get(1).getProductDesc());
+        assertEquals(List.of(2L, 3L, 5L, 6L), errors.stream().map(ProductImportError::getRow).toList());
+        assertEquals(ProductRules.DUPLICATE_NAME_MESSAGE, errors.get(0).getMessage());
+        assertEquals("INVALID_PRODUCT", errors.get(1).getErrorCode());
+        assertEquals(ProductRules.DUPLICATE_NAME_MESSAGE, errors.get(2).getMessage());
+        assertEquals("availableQty must be a whole number", errors.get(3).getMessage());
+        verify(productRepo, times(3)).findExistingProductNames(anyCollection());
+        verify(readCoalescer, times(2)).productsWritten(anyCollection());
+    }
+
+    @Test
+    void importProducts_NdjsonWithMalformedLineAndConcurrentDuplicate_ContinuesWithNextRows() throws Exception {
+        when(productRepo.insertProducts(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            inserted.addAll(products);
+            return products.get(0).getProductName().equals("Chair") ? Set.of(0) : Set.of();
+        });
+        String ndjson = """
+                {"productName":"Chair","productDesc":"Oak","availableQty":4}
+                {"productName":"Lamp",
+                
+                {"productName":"Table","productDesc":"Pine","availableQty":-1}
+                {"productName":"Shelf","productDesc":"Metal","availableQty":9}
+                """;
+
+        ProductImportSummary summary = importService.importProducts(new StringReader(ndjson), ProductImportFormat.NDJSON, errors::add);
+
+        assertEquals(4, summary.getRowCount());
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(List.of(1L, 2L, 3L), errors.stream().map(ProductImportError::getRow).toList());
+        assertEquals("INVALID_REQUEST", errors.get(1).getErrorCode());
+        verify(readCoalescer, times(1)).productsWritten(anyCollection());
+    }
+
+    @Test
+    void importProducts_RecordLongerThanLimit_StopsAfterThatRow() throws Exception {
+        String csv = "productName,productDesc,availableQty\nPen,Blue,1\nPaper,\"" + "x".repeat(500) + "\",1\nInk,Black,1\n";
+
+        ProductImportSummary summary = importService.importProducts(new StringReader(csv), ProductImportFormat.CSV, errors::add);
+
+        assertEquals(2, summary.getRowCount());
+        assertEquals(1, summary.getImportedCount());
+        assertEquals("Record exceeds 200 characters", errors.get(0).getMessage());
+    }
+}
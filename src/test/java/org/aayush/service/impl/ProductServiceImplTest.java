@@ -0,0 +1,238 @@
+package org.aayush.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.exception.ProductVersionConflictException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.ProductLookupResponse;
+import org.aayush.models.dto.ProductUpdateRequest;
+import org.aayush.models.dto.StockAvailability;
+import org.aayush.repository.ProductRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductServiceImpl(productRepo, new VersionConflictRetry(3, 0, 0, meterRegistry),
+                new ReadCoalescer(true, meterRegistry), eventPublisher);
+    }
+
+    @Test
+    void updateProductDetails_WithoutVersion_UpdatesOnlySentFieldsAtCurrentVersion() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+        when(productRepo.updateProductDetails(any())).thenReturn(product(10, 5L));
+
+        Product result = productService.updateProductDetails(descriptionChange(null));
+
+        assertEquals(5L, result.getVersion());
+        verify(productRepo).updateProductDetails(argThat(changes -> Long.valueOf(4L).equals(changes.getVersion())
+                && "New description".equals(changes.getProductDesc())
+                && changes.getProductName() == null
+                && changes.getAvailableQty() == null));
+    }
+
+    @Test
+    void updateProductDetails_WithoutVersionAfterConcurrentWrite_RetriesAtNewVersion() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L), product(11, 5L));
+        when(productRepo.updateProductDetails(argThat(atVersion(4L)))).thenReturn(null);
+        when(productRepo.updateProductDetails(argThat(atVersion(5L)))).thenReturn(product(11, 6L));
+
+        Product result = productService.updateProductDetails(descriptionChange(null));
+
+        assertEquals(6L, result.getVersion());
+        assertEquals(1.0, meterRegistry.counter(VersionConflictRetry.RETRIES_METRIC).count());
+    }
+
+    @Test
+    void updateProductDetails_WithoutVersionConflictingOnEveryAttempt_ThrowsConflictAfterMaxAttempts() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+        when(productRepo.updateProductDetails(any())).thenReturn(null);
+
+        assertThrows(ProductVersionConflictException.class, () -> productService.updateProductDetails(descriptionChange(null)));
+
+        verify(productRepo, times(3)).updateProductDetails(any());
+        assertEquals(2.0, meterRegistry.counter(VersionConflictRetry.RETRIES_METRIC).count());
+    }
+
+    @Test
+    void updateProductDetails_WithStaleVersion_ThrowsConflictWithoutRetrying() {
+        when(productRepo.updateProductDetails(any())).thenReturn(null);
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 5L));
+
+        assertThrows(ProductVersionConflictException.class, () -> productService.updateProductDetails(descriptionChange(4L)));
+
+        verify(productRepo, times(1)).updateProductDetails(argThat(atVersion(4L)));
+    }
+
+    @Test
+    void updateProductDetails_WithVersionOfMissingProduct_ThrowsProductNotFoundException() {
+        when(productRepo.updateProductDetails(any())).thenReturn(null);
+        when(productRepo.findCurrentProduct("1")).thenReturn(null);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.updateProductDetails(descriptionChange(4L)));
+    }
+
+    @Test
+    void updateProductDetails_NewQuantityWithoutVersion_ThrowsInvalidRequestException() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+
+        assertThrows(InvalidRequestException.class, () -> productService.updateProductDetails(ProductUpdateRequest.builder()
+                .productId("1")
+                .availableQty(7)
+                .build()));
+
+        verify(productRepo, never()).updateProductDetails(any());
+    }
+
+    @Test
+    void updateProductDetails_CurrentQuantityWithoutVersion_LeavesQuantityUntouched() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+        when(productRepo.updateProductDetails(any())).thenReturn(product(10, 5L));
+
+        productService.updateProductDetails(ProductUpdateRequest.builder()
+                .productId("1")
+                .productName("iPhone")
+                .availableQty(10)
+                .build());
+
+        verify(productRepo).updateProductDetails(argThat(changes -> changes.getAvailableQty() == null));
+    }
+
+    @Test
+    void updateProductDetails_NothingToChange_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> productService.updateProductDetails(ProductUpdateRequest.builder()
+                .productId("1")
+                .version(4L)
+                .build()));
+
+        verifyNoInteractions(productRepo);
+    }
+
+    @Test
+    void updateProductDetails_ThresholdRaisedOverQuantity_PublishesCrossingAgainstReadProduct() {
+        Product raised = product(10, 5L);
+        raised.setLowStockThreshold(12);
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+        when(productRepo.updateProductDetails(any())).thenReturn(raised);
+
+        productService.updateProductDetails(ProductUpdateRequest.builder()
+                .productId("1")
+                .lowStockThreshold(12)
+                .build());
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockChangedEvent changed
+                && !changed.wasBelowThreshold() && changed.isBelowThreshold()));
+    }
+
+    @Test
+    void updateProductDetails_VersionedThresholdChangeOnMovedProduct_ThrowsConflictWithoutWriting() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 5L));
+
+        assertThrows(ProductVersionConflictException.class, () -> productService.updateProductDetails(ProductUpdateRequest.builder()
+                .productId("1")
+                .lowStockThreshold(12)
+                .version(4L)
+                .build()));
+
+        verify(productRepo, never()).updateProductDetails(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateProductDetails_DescriptionOnly_PublishesNothing() {
+        when(productRepo.findCurrentProduct("1")).thenReturn(product(10, 4L));
+        when(productRepo.updateProductDetails(any())).thenReturn(product(10, 5L));
+
+        productService.updateProductDetails(descriptionChange(null));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findProductAvailability_ExistingProduct_ReturnsOnlyStockFields() {
+        when(productRepo.findProductById("1")).thenReturn(product(10, 4L));
+
+        StockAvailability result = productService.findProductAvailability("1");
+
+        assertEquals("1", result.getProductId());
+        assertEquals(10, result.getAvailableQty());
+    }
+
+    @Test
+    void findProductSummary_UnknownProduct_ThrowsProductNotFoundException() {
+        when(productRepo.findProductById("1")).thenReturn(null);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.findProductSummary("1"));
+    }
+
+    @Test
+    void lookupAvailability_SomeMissing_ResolvesDistinctIdsOnceAndListsMisses() {
+        when(productRepo.findProductsByIds(Set.of("1", "2"))).thenReturn(Map.of("1", product(10, 4L)));
+
+        ProductLookupResponse result = productService.lookupAvailability(List.of("1", "2", "1"));
+
+        assertEquals(List.of("1"), List.copyOf(result.getAvailability().keySet()));
+        assertEquals(10, result.getAvailability().get("1").getAvailableQty());
+        assertEquals(List.of("2"), result.getMissingProductIds());
+        verify(productRepo, times(1)).findProductsByIds(any());
+    }
+
+    @Test
+    void lookupAvailability_EmptyId_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> productService.lookupAvailability(List.of("1", "")));
+
+        verifyNoInteractions(productRepo);
+    }
+
+    private static ArgumentMatcher<Product> atVersion(long version) {
+        return changes -> changes != null && Long.valueOf(version).equals(changes.getVersion());
+    }
+
+    private static ProductUpdateRequest descriptionChange(Long version) {
+        return ProductUpdateRequest.builder()
+                .productId("1")
+                .productDesc("New description")
+                .version(version)
+                .build();
+    }
+
+    private static Product product(int availableQty, Long version) {
+        return Product.builder()
+                .productId("1")
+                .productName("iPhone")
+                .productDesc("iPhone 99")
+                .availableQty(availableQty)
+                .enableLowStockThreshold(true)
+                .lowStockThreshold(5)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package org.aayush.service.impl;
+
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.models.Product;
+import org.aayush.repository.ReactiveInventoryRepo;
+import org.aayush.service.InventoryService;
+import org.aayush.service.ReservationService;
+import org.aayush.service.StockLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveInventoryServiceImplTest {
+
+    @Mock
+    private ReactiveInventoryRepo inventoryRepo;
+
+    @Mock
+    private InventoryService blockingInventoryService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReactiveInventoryServiceImpl inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new ReactiveInventoryServiceImpl(inventoryRepo, blockingInventoryService, stockLedgerService,
+                reservationService, eventPublisher);
+    }
+
+    @Test
+    void decreaseStock_SuccessfulDecrease_PublishesEvent() {
+        Product updated = Product.builder().productId("1").availableQty(5).build();
+        when(inventoryRepo.decreaseStock("1", 5)).thenReturn(Mono.just(updated));
+
+        Product result = inventoryService.decreaseStock("1", 5).block();
+
+        assertEquals(5, result.getAvailableQty());
+        verify(inventoryRepo, never()).findProductById(anyString());
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    void decreaseStock_InsufficientStock_ErrorsWithInsufficientStockException() {
+        when(inventoryRepo.decreaseStock("1", 15)).thenReturn(Mono.empty());
+        when(inventoryRepo.findProductById("1")).thenReturn(Mono.just(Product.builder().productId("1").availableQty(10).build()));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.decreaseStock("1", 15).block());
+        assertEquals("Insufficient stock available. Requested: 15, Available: 10", exception.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addStock_ProductNotFound_ErrorsWithProductNotFoundException() {
+        when(inventoryRepo.addStock("1", 5)).thenReturn(Mono.empty());
+        when(inventoryRepo.findProductById("1")).thenReturn(Mono.empty());
+
+        ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
+                () -> inventoryService.addStock("1", 5).block());
+        assertEquals("Product not found: 1", exception.getMessage());
+    }
+
+    @Test
+    void addStock_NullStockAmount_ErrorsBeforeCallingRepo() {
+        assertThrows(InvalidStockOperationException.class, () -> inventoryService.addStock("1", null).block());
+        verifyNoInteractions(inventoryRepo);
+    }
+}
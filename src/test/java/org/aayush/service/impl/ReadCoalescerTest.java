@@ -0,0 +1,120 @@
+package org.aayush.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aayush.events.StockChangedEvent;
+import org.aayush.models.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadCoalescer readCoalescer = new ReadCoalescer(true, meterRegistry);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readProduct_ConcurrentCallers_ShareOneLoad() throws Exception {
+        CompletableFuture<String> leader = readAsync(() -> readCoalescer.readProduct("findProductById", "1", blockingLoad("v1")));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = readAsync(() -> readCoalescer.readProduct("findProductById", "1", blockingLoad("v2")));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertEquals("v1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("v1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void readProduct_AfterWriteOfSameProduct_StartsNewLoad() throws Exception {
+        CompletableFuture<String> leader = readAsync(() -> readCoalescer.readProduct("findProductById", "1", blockingLoad("before")));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        readCoalescer.onStockChanged(new StockChangedEvent(Product.builder().productId("1").availableQty(5).build(), 5));
+
+        assertEquals("after", readCoalescer.readProduct("findProductById", "1", () -> "after"));
+        release.countDown();
+        assertEquals("before", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, coalesced("findProductById"));
+    }
+
+    @Test
+    void readCatalog_AfterAnyProductWrite_StartsNewLoad() throws Exception {
+        CompletableFuture<String> leader = readAsync(() -> readCoalescer.readCatalog("findProductsBelowThreshold", "", blockingLoad("before")));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        readCoalescer.productsWritten(List.of("2"));
+
+        assertEquals("after", readCoalescer.readCatalog("findProductsBelowThreshold", "", () -> "after"));
+        release.countDown();
+        assertEquals("before", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void readProduct_LeaderFails_FollowerGetsSameException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("boom");
+        CompletableFuture<String> leader = readAsync(() -> readCoalescer.readProduct("findProductById", "1", () -> {
+            blockingLoad("unused").get();
+            throw failure;
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = readAsync(() -> readCoalescer.readProduct("findProductById", "1", () -> "unused"));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderFailure.getCause());
+        assertSame(failure, followerFailure.getCause());
+    }
+
+    private Supplier<String> blockingLoad(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        };
+    }
+
+    private CompletableFuture<String> readAsync(Supplier<String> read) {
+        return CompletableFuture.supplyAsync(read, executor);
+    }
+
+    private void awaitCoalesced(double expected) throws InterruptedException {
+        for (int i = 0; i < 500 && coalesced("findProductById") < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, coalesced("findProductById"));
+    }
+
+    private double coalesced(String read) {
+        return meterRegistry.counter(ReadCoalescer.COALESCED_METRIC, "read", read).count();
+    }
+}
@@ -0,0 +1,125 @@
+package org.aayush.service.impl;
+
+import org.aayush.events.StockChangedEvent;
+import org.aayush.exception.HoldNotFoundException;
+import org.aayush.exception.InsufficientStockException;
+import org.aayush.exception.InvalidStockOperationException;
+import org.aayush.models.Product;
+import org.aayush.models.dto.HoldChange;
+import org.aayush.models.dto.HoldStatus;
+import org.aayush.models.dto.StockHold;
+import org.aayush.repository.InventoryRepo;
+import org.aayush.repository.ReservationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock
+    private ReservationRepo reservationRepo;
+
+    @Mock
+    private InventoryRepo inventoryRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationServiceImpl(reservationRepo, inventoryRepo, eventPublisher, 900, 3600, 2);
+    }
+
+    @Test
+    void placeHold_EnoughStock_ReservesAndPublishesEvent() {
+        when(reservationRepo.placeHold(any(StockHold.class), eq(2)))
+                .thenReturn(Product.builder().productId("1").availableQty(7).reservedQty(3).build());
+
+        Instant before = Instant.now();
+        StockHold hold = reservationService.placeHold("1", 3, 60);
+
+        assertEquals(HoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(3, hold.getQuantity());
+        assertFalse(hold.getExpiresAt().isBefore(before.plusSeconds(60)));
+        ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(10, event.getValue().getPreviousQty());
+    }
+
+    @Test
+    void placeHold_NotEnoughStock_ThrowsInsufficientStockException() {
+        when(reservationRepo.placeHold(any(StockHold.class), eq(2))).thenReturn(null);
+        when(inventoryRepo.findProductById("1")).thenReturn(Product.builder().productId("1").availableQty(2).build());
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.placeHold("1", 3, null));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void placeHold_TooManyActiveHolds_ThrowsInvalidStockOperationException() {
+        when(reservationRepo.placeHold(any(StockHold.class), eq(2))).thenReturn(null);
+        when(inventoryRepo.findProductById("1")).thenReturn(Product.builder().productId("1").availableQty(50).build());
+
+        assertThrows(InvalidStockOperationException.class, () -> reservationService.placeHold("1", 3, null));
+    }
+
+    @Test
+    void releaseHold_UnknownHold_ThrowsHoldNotFoundException() {
+        when(reservationRepo.releaseHold("1", "h1")).thenReturn(null);
+
+        assertThrows(HoldNotFoundException.class, () -> reservationService.releaseHold("1", "h1"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void confirmHold_ActiveHold_PublishesEventWithoutQuantityChange() {
+        StockHold hold = hold("h1", Instant.now().plusSeconds(60));
+        Product product = Product.builder().productId("1").availableQty(7).reservedQty(1).version(4L).build();
+        when(reservationRepo.confirmHold("1", "h1")).thenReturn(new HoldChange(hold, product));
+
+        reservationService.confirmHold("1", "h1");
+
+        ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertSame(product, event.getValue().getProduct());
+        assertEquals(0, event.getValue().getDelta());
+    }
+
+    @Test
+    void releaseExpiredHolds_HoldConfirmedConcurrently_SkipsIt() {
+        Instant now = Instant.now();
+        StockHold expired = hold("h1", now.minusSeconds(1));
+        StockHold confirmed = hold("h2", now.minusSeconds(1));
+        when(reservationRepo.findExpiredHolds(now, 100)).thenReturn(List.of(expired, confirmed));
+        when(reservationRepo.releaseHold("1", "h1"))
+                .thenReturn(new HoldChange(expired, Product.builder().productId("1").availableQty(5).build()));
+        when(reservationRepo.releaseHold("1", "h2")).thenReturn(null);
+
+        assertEquals(1, reservationService.releaseExpiredHolds(now, 100));
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    private static StockHold hold(String holdId, Instant expiresAt) {
+        return StockHold.builder()
+                .holdId(holdId)
+                .productId("1")
+                .quantity(2)
+                .expiresAt(expiresAt)
+                .status(HoldStatus.EXPIRED)
+                .build();
+    }
+}
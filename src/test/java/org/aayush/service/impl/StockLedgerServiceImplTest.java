@@ -0,0 +1,100 @@
+package org.aayush.service.impl;
+
+import org.aayush.exception.InvalidRequestException;
+import org.aayush.exception.ProductNotFoundException;
+import org.aayush.models.StockMovement;
+import org.aayush.models.StockSnapshot;
+import org.aayush.models.dto.StockLevel;
+import org.aayush.models.dto.StockMovementPage;
+import org.aayush.repository.ProductRepo;
+import org.aayush.repository.StockLedgerRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerServiceImplTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private StockLedgerRepo stockLedgerRepo;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @InjectMocks
+    private StockLedgerServiceImpl stockLedgerService;
+
+    @Test
+    void getMovements_FullPage_NextTokenResumesAfterLastMovement() {
+        StockMovement last = movement(2, -1, T0.plusSeconds(5));
+        when(stockLedgerRepo.findMovements(eq("1"), eq(T0), eq(T0.plusSeconds(60)), isNull(), eq(2)))
+                .thenReturn(List.of(movement(1, 4, T0), last));
+
+        StockMovementPage page = stockLedgerService.getMovements("1", T0, T0.plusSeconds(60), 2, null);
+        stockLedgerService.getMovements("1", T0, T0.plusSeconds(60), 2, page.getNextToken());
+
+        ArgumentCaptor<StockMovement> after = ArgumentCaptor.forClass(StockMovement.class);
+        verify(stockLedgerRepo, times(2)).findMovements(eq("1"), eq(T0), eq(T0.plusSeconds(60)), after.capture(), eq(2));
+        StockMovement resumeAfter = after.getAllValues().get(1);
+        assertEquals(last.getAt(), resumeAfter.getAt());
+        assertEquals(last.getMovementId(), resumeAfter.getMovementId());
+    }
+
+    @Test
+    void getMovements_EmptyRange_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class,
+                () -> stockLedgerService.getMovements("1", T0, T0, null, null));
+        verifyNoInteractions(stockLedgerRepo);
+    }
+
+    @Test
+    void getStockAt_AfterSnapshot_AppliesTailOfMovements() {
+        StockSnapshot snapshot = snapshot(100, 40, T0);
+        when(stockLedgerRepo.findLatestSnapshot("1", T0.plusSeconds(30))).thenReturn(snapshot);
+        when(stockLedgerRepo.findMovementsAfterSnapshot(snapshot, T0.plusSeconds(30)))
+                .thenReturn(List.of(movement(101, -5, T0.plusSeconds(10)), movement(102, 3, T0.plusSeconds(20))));
+
+        StockLevel level = stockLedgerService.getStockAt("1", T0.plusSeconds(30));
+
+        assertEquals(38, level.getAvailableQty());
+        verifyNoInteractions(productRepo);
+    }
+
+    @Test
+    void getStockAt_BeforeFirstSnapshot_WalksEarliestSnapshotBack() {
+        StockSnapshot earliest = snapshot(1, 45, T0);
+        when(stockLedgerRepo.findLatestSnapshot("1", T0.minusSeconds(1))).thenReturn(null);
+        when(stockLedgerRepo.findEarliestSnapshot("1")).thenReturn(earliest);
+        when(stockLedgerRepo.findMovementsUpToSnapshot(earliest, T0.minusSeconds(1)))
+                .thenReturn(List.of(movement(1, -5, T0)));
+
+        assertEquals(50, stockLedgerService.getStockAt("1", T0.minusSeconds(1)).getAvailableQty());
+    }
+
+    @Test
+    void getStockAt_NoLedgerForUnknownProduct_ThrowsProductNotFoundException() {
+        when(productRepo.findProductById("1")).thenReturn(null);
+
+        assertThrows(ProductNotFoundException.class, () -> stockLedgerService.getStockAt("1", T0));
+    }
+
+    private static StockMovement movement(long seq, int delta, Instant at) {
+        return StockMovement.builder().movementId("1:" + seq).productId("1").seq(seq).delta(delta).at(at).build();
+    }
+
+    private static StockSnapshot snapshot(long seq, int quantity, Instant at) {
+        return StockSnapshot.builder().snapshotId("1:" + seq).productId("1").seq(seq).availableQty(quantity).at(at).build();
+    }
+}